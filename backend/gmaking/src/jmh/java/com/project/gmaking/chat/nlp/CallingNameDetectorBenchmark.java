@@ -0,0 +1,69 @@
+package com.project.gmaking.chat.nlp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호칭 요청 로컬 판별 처리량 측정
+ * - 시작 시 라벨 코퍼스(chat/calling-name-corpus.tsv) 전체를 판별해 기대값과 다르면 실패 (정확도 확인 겸용)
+ * - everyday: 호칭 요청이 없는 일반 발화 (대부분의 채팅, LLM 을 완전히 생략하는 경로)
+ * - corpus: 코퍼스 전체를 순서대로 (요청/애매한 발화 포함)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CallingNameDetectorBenchmark {
+
+    private static final String CORPUS = "/chat/calling-name-corpus.tsv";
+
+    private String[] corpus;
+    private String[] everyday;
+    private int i;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<String> all = new ArrayList<>();
+        List<String> none = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                CallingNameDetectorBenchmark.class.getResourceAsStream(CORPUS), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] f = line.split("\t", 3);
+                String expectedName = "-".equals(f[1]) ? null : f[1];
+
+                CallingNameDetector.Detection d = CallingNameDetector.detect(f[2]);
+                if (!d.decision().name().equals(f[0]) || !Objects.equals(d.name(), expectedName)) {
+                    failures.add(f[2] + " => " + d + " (기대: " + f[0] + ", " + f[1] + ")");
+                }
+                all.add(f[2]);
+                if ("NONE".equals(f[0])) none.add(f[2]);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("호칭 코퍼스 불일치 " + failures.size() + "건:\n" + String.join("\n", failures));
+        }
+
+        corpus = all.toArray(String[]::new);
+        everyday = none.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public CallingNameDetector.Detection everyday() {
+        return CallingNameDetector.detect(everyday[i++ % everyday.length]);
+    }
+
+    @Benchmark
+    public CallingNameDetector.Detection corpus() {
+        return CallingNameDetector.detect(corpus[i++ % corpus.length]);
+    }
+}
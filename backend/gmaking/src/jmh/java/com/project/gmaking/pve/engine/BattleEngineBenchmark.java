@@ -0,0 +1,48 @@
+package com.project.gmaking.pve.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BattleEngine 처리량/할당량 측정
+ * - 결과의 ops/s 가 초당 시뮬레이션 전투 수
+ * - gc.alloc.rate.norm 이 전투 1회당 할당 바이트 (버퍼 재사용 시 0 에 가까워야 함)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class BattleEngineBenchmark {
+
+    // 일반 몬스터 / 보스 전투 (턴 수가 크게 다름)
+    @Param({"NORMAL", "BOSS"})
+    public String encounter;
+
+    private BattleStats player;
+    private BattleStats monster;
+    private SplittableRandom rng;
+    private TurnEventBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        player = new BattleStats(400, 45, 20, 12, 15);
+        monster = "BOSS".equals(encounter)
+                ? new BattleStats(900, 40, 15, 8, 10)   // 약 40턴
+                : new BattleStats(80, 18, 5, 10, 5);    // 2~3턴
+        rng = new SplittableRandom(42L);
+        buffer = new TurnEventBuffer();
+    }
+
+    /** 버퍼를 재사용하는 전투 시뮬레이션 */
+    @Benchmark
+    public boolean simulateReusedBuffer() {
+        return BattleEngine.simulate(player, monster, rng, buffer);
+    }
+
+    /** 전투마다 새 버퍼를 만드는 경우 (비교용) */
+    @Benchmark
+    public boolean simulateFreshBuffer() {
+        return BattleEngine.simulate(player, monster, rng, new TurnEventBuffer());
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.gmaking.pvp.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PVP 커맨드 상성 판정 처리량/할당량 측정
+ * - 결과의 ops/s 가 초당 턴 판정 수 (양쪽 피해 계산 1회)
+ * - gc.alloc.rate.norm 이 판정 1회당 할당 바이트 (상성표 조회는 0 이어야 함)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class PvpCommandRulesBenchmark {
+
+    private static final int MASK = 1023;
+
+    private PvpCommandRules rules;
+    private PvpCommand[] mine;
+    private PvpCommand[] enemy;
+    private String[] mineLabel;
+    private String[] enemyLabel;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        rules = new PvpCommandRules(PvpCommandRules.DEFAULT_DAMAGE_RULES);
+        SplittableRandom rng = new SplittableRandom(42L);
+        mine = new PvpCommand[MASK + 1];
+        enemy = new PvpCommand[MASK + 1];
+        mineLabel = new String[MASK + 1];
+        enemyLabel = new String[MASK + 1];
+        for (int k = 0; k <= MASK; k++) {
+            mine[k] = PvpCommand.random(rng);
+            enemy[k] = PvpCommand.random(rng);
+            mineLabel[k] = mine[k].label();
+            enemyLabel[k] = enemy[k].label();
+        }
+    }
+
+    /** 상성표 조회 (현재 방식) */
+    @Benchmark
+    public int table() {
+        int k = i++ & MASK;
+        return rules.damage(mine[k], enemy[k], 45, 20) - rules.damage(enemy[k], mine[k], 40, 15);
+    }
+
+    /** 한글 커맨드 문자열 -> enum 변환 후 상성표 조회 (REST 요청 경로) */
+    @Benchmark
+    public int tableFromLabel() {
+        int k = i++ & MASK;
+        PvpCommand m = PvpCommand.fromLabel(mineLabel[k]);
+        PvpCommand e = PvpCommand.fromLabel(enemyLabel[k]);
+        return rules.damage(m, e, 45, 20) - rules.damage(e, m, 40, 15);
+    }
+
+    /** 이전 방식: 문자열 equals if 체인 + 결과 배열 (비교용) */
+    @Benchmark
+    public int legacyChain() {
+        int k = i++ & MASK;
+        int[] damage = legacyResolve(mineLabel[k], enemyLabel[k], 45, 20, 40, 15);
+        return damage[1] - damage[0];
+    }
+
+    private static int[] legacyResolve(String myCommand, String enemyCommand, int atk, int def, int eAtk, int eDef) {
+        int playerDamage = 0, enemyDamage = 0;
+        if (myCommand.equals("공격") && enemyCommand.equals("회피")) enemyDamage = atk;
+        else if (myCommand.equals("방어") && enemyCommand.equals("공격")) enemyDamage = def * 2;
+        else if (myCommand.equals("회피") && enemyCommand.equals("필살기")) enemyDamage = def * 3;
+        else if (myCommand.equals("필살기") &&
+                (enemyCommand.equals("공격") || enemyCommand.equals("방어"))) enemyDamage = atk * 2;
+        else if (enemyCommand.equals("공격") && myCommand.equals("회피")) playerDamage = eAtk;
+        else if (enemyCommand.equals("방어") && myCommand.equals("공격")) playerDamage = eDef * 2;
+        else if (enemyCommand.equals("회피") && myCommand.equals("필살기")) playerDamage = eDef * 3;
+        else if (enemyCommand.equals("필살기") &&
+                (myCommand.equals("공격") || myCommand.equals("방어"))) playerDamage = eAtk * 2;
+        else if (myCommand.equals(enemyCommand)) {
+            if (myCommand.equals("공격")) {
+                playerDamage = eAtk;
+                enemyDamage = atk;
+            } else if (myCommand.equals("필살기")) {
+                playerDamage = eAtk * 2;
+                enemyDamage = atk * 2;
+            }
+        }
+        return new int[]{playerDamage, enemyDamage};
+    }
+}
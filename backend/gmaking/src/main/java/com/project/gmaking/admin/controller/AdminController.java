@@ -3,6 +3,7 @@ package com.project.gmaking.admin.controller;
 import com.project.gmaking.admin.service.AdminService;
 import com.project.gmaking.admin.vo.*;
 import com.project.gmaking.login.vo.LoginVO;
+import com.project.gmaking.pve.service.EncounterCatalog;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,6 +23,8 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    // 몬스터 변경 시 PVE 조우 캐시 갱신
+    private final EncounterCatalog encounterCatalog;
 
     private AdminSearchCriteria createCriteria(int page, int pageSize, String searchKeyword) {
         return new AdminSearchCriteria(page, pageSize, searchKeyword);
@@ -290,6 +293,7 @@ public class AdminController {
     ) {
         try {
             adminService.createMonster(monsterVO, imageFile);
+            encounterCatalog.refresh();
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -312,6 +316,7 @@ public class AdminController {
         try {
             monsterVO.setMonsterId(monsterId);
             adminService.updateMonster(monsterVO, newImageFile);
+            encounterCatalog.refresh();
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -328,6 +333,7 @@ public class AdminController {
     public ResponseEntity<Void> deleteMonster(@PathVariable("monsterId") int monsterId) {
         try {
             adminService.deleteMonster(monsterId);
+            encounterCatalog.refresh();
             return ResponseEntity.noContent().build();
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
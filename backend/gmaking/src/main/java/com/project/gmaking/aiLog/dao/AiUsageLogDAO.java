@@ -4,14 +4,10 @@ import com.project.gmaking.aiLog.vo.AiUsageLogVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 @Mapper
 public interface AiUsageLogDAO {
-    int upsertGeminiUsage(
-            @Param("userId") String userId,
-            @Param("featureType") String featureType,  // "chat"
-            @Param("modelName") String modelName,      // "gemini-2.0-flash"
-            @Param("usageStatus") String usageStatus,  // success | quota_exceeded | error
-            @Param("errorMessage") String errorMessage,
-            @Param("actor") String actor
-    );
+    // (user_id, feature_type, model_name, log_date) 별로 합산된 행을 한 번에 반영
+    int upsertUsageBatch(@Param("list") List<AiUsageLogVO> list);
 }
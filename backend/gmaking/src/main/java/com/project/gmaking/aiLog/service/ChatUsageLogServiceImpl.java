@@ -1,14 +1,103 @@
 package com.project.gmaking.aiLog.service;
 
 import com.project.gmaking.aiLog.dao.AiUsageLogDAO;
+import com.project.gmaking.aiLog.vo.AiUsageLogVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI 사용량 로그 (write-behind)
+ * - 요청마다 DB 에 upsert 하지 않고 (사용자, 기능, 모델, 날짜) 단위로 메모리에서 합산
+ * - flush-interval-ms 마다 batch-size 건씩 다중 행 INSERT ... ON DUPLICATE KEY UPDATE 로 반영
+ * - 대기 행이 max-pending 을 넘으면 주기를 기다리지 않고 바로 반영, DB 실패 시 다음 주기에 재시도
+ * - 종료 시 남은 행을 반영 (비정상 종료 시 마지막 주기분은 유실될 수 있음)
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatUsageLogServiceImpl implements ChatUsageLogSevice {
 
     private final AiUsageLogDAO aiUsageLogDAO;
+    private final MeterRegistry meterRegistry;
+
+    // 한 번의 INSERT 에 넣는 최대 행 수
+    @Value("${ai.usage.batch-size:200}")
+    private int batchSize;
+
+    // 메모리에 쌓아 둘 수 있는 최대 행 수 (넘으면 바로 반영, DB 장애로 계속 넘으면 새 행은 버림)
+    @Value("${ai.usage.max-pending:10000}")
+    private int maxPending;
+
+    private record Key(String userId, String featureType, String modelName, LocalDate logDate) {}
+
+    // 합산 중인 한 행 (ConcurrentHashMap.compute 안에서만 변경)
+    private static final class Agg {
+        int requestCount;
+        int inputTokens;
+        int outputTokens;
+        String usageStatus;
+        String errorMessage;
+        String actor;
+
+        void merge(Agg o) {
+            requestCount += o.requestCount;
+            inputTokens += o.inputTokens;
+            outputTokens += o.outputTokens;
+            // 상태/오류는 기존 upsert 와 같이 마지막 값 유지 (o 가 더 최근)
+            usageStatus = o.usageStatus;
+            errorMessage = o.errorMessage;
+            actor = o.actor;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Agg> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private ExecutorService flushExecutor;
+    private Counter flushedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        flushExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ai-usage-seq");
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("ai.usage.pending", pending, ConcurrentHashMap::size)
+                .description("DB 반영 대기 중인 사용량 로그 행 수")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("ai.usage.flushed")
+                .description("DB 에 반영한 사용량 로그 행 수")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("ai.usage.dropped")
+                .description("대기 한도 초과로 버린 사용량 로그 건수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
 
     @Override
     public int upsertChatUsage(String userId,
@@ -17,13 +106,117 @@ public class ChatUsageLogServiceImpl implements ChatUsageLogSevice {
                                String usageStatus,
                                String errorMessage,
                                String actor) {
-        return aiUsageLogDAO.upsertGeminiUsage(
-                userId,
-                featureType,
-                modelName,
-                usageStatus,
-                errorMessage,
-                actor
-        );
+        recordUsage(userId, featureType, modelName, usageStatus, errorMessage, actor, 0, 0);
+        return 1;
+    }
+
+    @Override
+    public void recordUsage(String userId,
+                            String featureType,
+                            String modelName,
+                            String usageStatus,
+                            String errorMessage,
+                            String actor,
+                            int inputTokens,
+                            int outputTokens) {
+        Agg one = new Agg();
+        one.requestCount = 1;
+        one.inputTokens = Math.max(0, inputTokens);
+        one.outputTokens = Math.max(0, outputTokens);
+        one.usageStatus = usageStatus;
+        one.errorMessage = errorMessage;
+        one.actor = actor;
+
+        if (!merge(new Key(userId, featureType, modelName, LocalDate.now()), one)) {
+            droppedCounter.increment();
+            log.warn("[AiUsage] 대기 한도 초과로 버림 userId={}, feature={}", userId, featureType);
+        }
+        if (pending.size() >= maxPending) requestFlush();
+    }
+
+    // 같은 키가 있으면 합산, 없으면 한도 안에서만 새 행 추가 (한도 판정은 근사치)
+    private boolean merge(Key key, Agg add) {
+        boolean[] added = {false};
+        pending.compute(key, (k, cur) -> {
+            if (cur != null) {
+                cur.merge(add);
+                added[0] = true;
+                return cur;
+            }
+            if (pending.size() >= maxPending * 2) return null;
+            added[0] = true;
+            return add;
+        });
+        return added[0];
+    }
+
+    // 한도 초과 시 주기를 기다리지 않고 반영 (진행/예약 중이면 합쳐서 한 번만)
+    private void requestFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        try {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.usage.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+
+        // 키별로 꺼내며 제거 (꺼낸 뒤 들어온 호출은 새 행으로 다시 쌓임)
+        List<AiUsageLogVO> rows = new ArrayList<>();
+        List<Key> keys = new ArrayList<>();
+        List<Agg> aggs = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            Agg agg = pending.remove(key);
+            if (agg == null) continue;
+            keys.add(key);
+            aggs.add(agg);
+            rows.add(AiUsageLogVO.builder()
+                    .userId(key.userId())
+                    .featureType(key.featureType())
+                    .modelName(key.modelName())
+                    .logDate(key.logDate())
+                    .requestCount(agg.requestCount)
+                    .inputToken(agg.inputTokens)
+                    .outputToken(agg.outputTokens)
+                    .usageStatus(agg.usageStatus)
+                    .errorMessage(agg.errorMessage)
+                    .createdBy(agg.actor)
+                    .updatedBy(agg.actor)
+                    .build());
+        }
+
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < rows.size(); from += size) {
+            int to = Math.min(rows.size(), from + size);
+            try {
+                aiUsageLogDAO.upsertUsageBatch(rows.subList(from, to));
+                flushedCounter.increment(to - from);
+            } catch (Exception e) {
+                log.error("[AiUsage] 사용량 로그 반영 실패, 다음 주기에 재시도 rows={}", to - from, e);
+                // 실패한 묶음은 다시 합산 (그 사이 들어온 값이 더 최근이므로 그 상태를 유지)
+                for (int i = from; i < to; i++) {
+                    Agg failed = aggs.get(i);
+                    boolean[] kept = {true};
+                    pending.compute(keys.get(i), (k, cur) -> {
+                        if (cur == null) {
+                            if (pending.size() >= maxPending) {
+                                kept[0] = false;
+                                return null;
+                            }
+                            return failed;
+                        }
+                        failed.merge(cur);
+                        return failed;
+                    });
+                    if (!kept[0]) droppedCounter.increment(failed.requestCount);
+                }
+            }
+        }
     }
 }
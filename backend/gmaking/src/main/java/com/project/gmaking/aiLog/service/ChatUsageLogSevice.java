@@ -7,4 +7,14 @@ public interface ChatUsageLogSevice {
                         String usageStatus,   // success | quota_exceeded | error
                         String errorMessage,
                         String actor);  // created_by/updated_by
+
+    // 토큰 수 포함 사용량 기록 (공급자 usage 기준, 모르면 0)
+    void recordUsage(String userId,
+                     String featureType,
+                     String modelName,
+                     String usageStatus,
+                     String errorMessage,
+                     String actor,
+                     int inputTokens,
+                     int outputTokens);
 }
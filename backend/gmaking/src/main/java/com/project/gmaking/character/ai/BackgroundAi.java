@@ -1,10 +1,15 @@
 package com.project.gmaking.character.ai;
 
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmPriority;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.*;
 
@@ -13,7 +18,14 @@ import java.util.*;
 @SuppressWarnings("unchecked")
 public class BackgroundAi {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 공용 OpenAI 전송 계층 (연결 풀 재사용)
+    private final LlmTransport transport;
+
+    // OpenAI 호출 한도 (캐릭터 생성 화면에서 기다리므로 INTERACTIVE)
+    private final LlmRateLimiter limiter;
+
+    // 호출 계측 (기능 태그 character_background)
+    private final LlmCallRecorder recorder;
 
     @Value("${openai.api.key}")
     private String apiKey;
@@ -50,12 +62,33 @@ public class BackgroundAi {
 
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, request, Map.class);
+        LlmCallRecorder.Call call = recorder.start("character_background", "openai", "gpt-4o-mini",
+                messages.stream().mapToInt(m -> m.get("content").length()).sum());
+        ResponseEntity<Map<String, Object>> response;
+        try {
+            limiter.acquire("openai", "gpt-4o-mini", LlmPriority.INTERACTIVE);
+            response = transport.openAiRestTemplate().exchange(url, HttpMethod.POST, request,
+                    new ParameterizedTypeReference<Map<String, Object>>() {});
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            call.quotaExceeded();
+            throw e;
+        } catch (RuntimeException e) {
+            call.fail(e);
+            throw e;
+        }
+        if (response.getBody().get("usage") instanceof Map<?, ?> usage
+                && usage.get("prompt_tokens") instanceof Number prompt
+                && usage.get("completion_tokens") instanceof Number completion) {
+            call.tokens(prompt.intValue(), completion.intValue());
+        }
         List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
         if (choices != null && !choices.isEmpty()) {
             Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-            return (String) message.get("content");
+            String content = (String) message.get("content");
+            call.success(content == null ? 0 : content.length());
+            return content;
         }
+        call.success(0);
         return "이 캐릭터는 " + predictedAnimal + "의 특징을 가진 특별한 존재입니다.";
     }
 }
@@ -12,6 +12,8 @@ import java.util.Objects;
 public interface CharacterDAO {
     List<CharacterVO> selectCharactersByUser(@Param("userId") String userId);
     void incrementStageClear(@Param("characterId") Integer characterId);
+    // 스테이지 클리어 count 회 한 번에 반영
+    void incrementStageClearBy(@Param("characterId") Integer characterId, @Param("count") int count);
     
     // 캐릭터 하나 조회
     CharacterVO selectCharacterById(@Param("characterId") Integer characterId);
@@ -0,0 +1,29 @@
+package com.project.gmaking.character.service;
+
+import com.project.gmaking.character.dao.CharacterDAO;
+import com.project.gmaking.common.event.BattleFinishedEvent;
+import com.project.gmaking.common.event.BattleFinishedSubscriber;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 전투 종료 -> PVE 승리 시 캐릭터 스테이지 클리어 수 증가
+ */
+@Component
+@RequiredArgsConstructor
+public class StageClearSubscriber implements BattleFinishedSubscriber {
+
+    private final CharacterDAO characterDAO;
+
+    @Override
+    public String name() {
+        return "stage-clear";
+    }
+
+    @Override
+    public void onBattleFinished(BattleFinishedEvent event) {
+        if (event.isPve() && event.win() && event.characterId() != null) {
+            characterDAO.incrementStageClear(event.characterId());
+        }
+    }
+}
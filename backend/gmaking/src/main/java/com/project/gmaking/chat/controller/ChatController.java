@@ -2,16 +2,21 @@ package com.project.gmaking.chat.controller;
 
 import com.project.gmaking.aiLog.service.ChatUsageLogSevice;
 import com.project.gmaking.character.service.CharacterService;
+import com.project.gmaking.chat.llm.LlmContext;
+import com.project.gmaking.chat.llm.QuotaExceededException;
 import com.project.gmaking.chat.service.ChatEnterService;
 import com.project.gmaking.chat.service.ChatService;
+import com.project.gmaking.chat.service.ChatStreamService;
 import com.project.gmaking.chat.vo.DialogueVO;
 import com.project.gmaking.chat.vo.EnterResponseVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +30,7 @@ public class ChatController {
     private final ChatEnterService chatEnterService;
     private final ChatUsageLogSevice chatUsageLogService;
     private final CharacterService characterService;
+    private final ChatStreamService chatStreamService;
 
     // 채팅 입장: 페르소나 확인/생성 + 첫인사(프롬프트 기반) + 히스토리 반환
     @PostMapping("/{characterId}/enter")
@@ -59,7 +65,6 @@ public class ChatController {
             return ResponseEntity.badRequest().body(Map.of("error", "message는 필수입니다."));
         }
 
-        String modelName = "gemini-2.0-flash";
         String reply;
         String usageStatus = "success";
         String errorMessage = null;
@@ -67,18 +72,26 @@ public class ChatController {
         try {
             reply = chatService.send(userId, characterId, message);
         } catch (Exception e) {
-            usageStatus = "error";
+            usageStatus = e instanceof QuotaExceededException ? "quota_exceeded" : "error";
             errorMessage = e.getMessage();
             reply = "오류 발생!";
         }
 
-        chatUsageLogService.upsertChatUsage(
+        // 실제 응답한 모델/토큰 (라우터가 대체 공급자로 넘긴 경우 포함)
+        String modelName = LlmContext.get() != null ? LlmContext.get() : "gemini-2.0-flash";
+        int inputTokens = LlmContext.inputTokens();
+        int outputTokens = LlmContext.outputTokens();
+        LlmContext.clear();
+
+        chatUsageLogService.recordUsage(
                 userId,
                 "chat",
                 modelName,
                 usageStatus,
                 errorMessage,
-                userId
+                userId,
+                inputTokens,
+                outputTokens
         );
 
         return ResponseEntity.ok(Map.of(
@@ -87,6 +100,20 @@ public class ChatController {
         ));
     }
 
+    // 유저 메시지 전송 (SSE 스트리밍: delta 조각 -> done 전체 응답)
+    @PostMapping(value = "/{characterId}/send/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sendMessageStream(
+            @PathVariable Integer characterId,
+            @RequestBody Map<String, String> body,
+            Authentication auth
+    ) {
+        String message = body.get("message");
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("message는 필수입니다.");
+        }
+        return chatStreamService.open(auth.getName(), characterId, message);
+    }
+
     // 최근 대화 내역 불러오기
     @GetMapping("/{characterId}/history")
     public ResponseEntity<List<DialogueVO>> getHistory(
@@ -1,6 +1,7 @@
 package com.project.gmaking.chat.job;
 
 import com.project.gmaking.chat.service.ConversationCleanupService;
+import com.project.gmaking.common.llm.LlmPriority;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -20,8 +21,14 @@ public class MidnightConversationCleaner {
     public void run() {
         log.info("[Cleaner] start");
 
-        int cleaned = cleanupService.cleanClosedConversationsBatch(BATCH_SIZE);
-        log.info("[Cleaner] closed cleaned={}", cleaned);
+        // 정리 전 요약(LLM)은 배치 작업 -> 채팅/전투가 쓰고 남는 공급자 한도만 사용
+        LlmPriority.set(LlmPriority.BACKGROUND);
+        try {
+            int cleaned = cleanupService.cleanClosedConversationsBatch(BATCH_SIZE);
+            log.info("[Cleaner] closed cleaned={}", cleaned);
+        } finally {
+            LlmPriority.clear();
+        }
 
         int updated = cleanupService.markOpenForDelay();
         log.info("[Cleaner] open marked delay_log_clean=1 -> {}", updated);
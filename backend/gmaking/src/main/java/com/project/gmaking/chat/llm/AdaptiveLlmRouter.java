@@ -0,0 +1,436 @@
+package com.project.gmaking.chat.llm;
+
+import com.project.gmaking.chat.vo.DialogueVO;
+import com.project.gmaking.common.llm.LlmPriority;
+import com.project.gmaking.common.llm.LlmRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 지연/오류 기반 LLM 라우터 (primary: Gemini, secondary: ChatGPT)
+ * - 공급자별 최근 지연 분포와 오류/지연 비율을 ProviderHealth 로 추적, 나빠지면 서킷 브레이커로 잠시 제외
+ * - 헤지 요청: primary 가 자기 p95 안에 응답(스트리밍은 첫 조각)하지 않으면 secondary 에도 같은 요청을 보내고,
+ *   먼저 답한 쪽을 채택하고 진 쪽은 취소 (오류 없이 느리기만 한 응답이 꼬리 지연을 좌우하지 않도록)
+ * - 실패 시 대기 없이 바로 다른 공급자로 전환 (공급자 내부 재시도는 각 클라이언트의 withRetry 가 담당)
+ * - 스트리밍은 먼저 첫 조각을 보낸 쪽만 onDelta 로 전달, 한 번 조각을 보낸 뒤의 실패는 전환 없이 전파
+ * - 요약/장기기억 추출은 백그라운드 작업이라 헤지하지 않고 실패 전환만 적용 (중복 호출 비용 절감)
+ * - 호출은 전용 스레드에서 실행, 스레드가 모자라면 호출 스레드에서 바로 실행하고 헤지는 생략
+ * - 호출 스레드의 LlmPriority/기능 태그(LlmContext.feature)를 작업 스레드로 넘기고, 로컬 한도 초과(LlmRateLimitedException)는 공급자 장애로 집계하지 않고 전환만 함
+ */
+@Slf4j
+public class AdaptiveLlmRouter implements LlmClient {
+
+    /** 라우팅 대상 공급자 (이름/모델은 지표 태그용) */
+    public record Route(String name, String model, LlmClient client) {}
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T run(LlmClient client, Consumer<String> onDelta) throws Exception;
+    }
+
+    private final Route primary;
+    private final Route secondary;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${llm.router.window-size:100}")
+    private int windowSize;
+
+    // p95/비율 판단에 필요한 최소 표본 수
+    @Value("${llm.router.min-samples:20}")
+    private int minSamples;
+
+    @Value("${llm.router.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    // p95 표본이 부족할 때의 헤지 대기 시간
+    @Value("${llm.router.hedge.default-delay-ms:8000}")
+    private long hedgeDefaultDelayMs;
+
+    @Value("${llm.router.hedge.min-delay-ms:1500}")
+    private long hedgeMinDelayMs;
+
+    @Value("${llm.router.hedge.max-delay-ms:15000}")
+    private long hedgeMaxDelayMs;
+
+    @Value("${llm.router.breaker.error-rate:0.5}")
+    private double breakerErrorRate;
+
+    // 이보다 오래 걸린 응답(스트리밍은 첫 조각)은 느린 호출로 집계
+    @Value("${llm.router.breaker.slow-call-ms:20000}")
+    private long breakerSlowCallMs;
+
+    @Value("${llm.router.breaker.slow-call-rate:0.5}")
+    private double breakerSlowCallRate;
+
+    @Value("${llm.router.breaker.open-ms:30000}")
+    private long breakerOpenMs;
+
+    @Value("${llm.router.threads:32}")
+    private int threads;
+
+    private ThreadPoolExecutor executor;
+    private ProviderHealth primaryHealth;
+    private ProviderHealth secondaryHealth;
+
+    public AdaptiveLlmRouter(Route primary, Route secondary, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        ProviderHealth.Settings settings = new ProviderHealth.Settings(windowSize, minSamples,
+                breakerErrorRate, breakerSlowCallMs, breakerSlowCallRate, breakerOpenMs);
+        primaryHealth = new ProviderHealth(primary.name(), primary.model(), settings);
+        secondaryHealth = new ProviderHealth(secondary.name(), secondary.model(), settings);
+
+        AtomicInteger seq = new AtomicInteger();
+        int n = Math.max(2, threads);
+        // 대기열 없이 빈 스레드가 없으면 거절 -> 호출 스레드 실행/헤지 생략으로 처리
+        executor = new ThreadPoolExecutor(n, n, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "llm-route-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        for (ProviderHealth h : List.of(primaryHealth, secondaryHealth)) {
+            Gauge.builder("llm.router.breaker.state", h, x -> x.state().ordinal())
+                    .tags("provider", h.name(), "model", h.model())
+                    .description("LLM 서킷 브레이커 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                    .register(meterRegistry);
+            Gauge.builder("llm.router.error.rate", h, ProviderHealth::errorRate)
+                    .tags("provider", h.name(), "model", h.model())
+                    .description("최근 LLM 호출 오류율")
+                    .register(meterRegistry);
+            Gauge.builder("llm.router.slow.rate", h, ProviderHealth::slowCallRate)
+                    .tags("provider", h.name(), "model", h.model())
+                    .description("최근 LLM 호출 중 느린 호출 비율")
+                    .register(meterRegistry);
+            for (ProviderHealth.Kind kind : ProviderHealth.Kind.values()) {
+                Gauge.builder("llm.router.latency.p95", h, x -> x.p95(kind))
+                        .tags("provider", h.name(), "model", h.model(), "kind", kind.name().toLowerCase())
+                        .description("최근 LLM 성공 응답 지연 p95(ms, 표본 부족 시 -1)")
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+    }
+
+    // --- LlmClient 구현 ------------------------------------------------------
+
+    @Override
+    public String chat(String systemPrompt, String userMessage) throws Exception {
+        return route("chat", ProviderHealth.Kind.CHAT, true, null,
+                (c, d) -> c.chat(systemPrompt, userMessage));
+    }
+
+    @Override
+    public String chatWithHistory(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage) throws Exception {
+        return route("chatWithHistory", ProviderHealth.Kind.CHAT, true, null,
+                (c, d) -> c.chatWithHistory(systemPrompt, historyChrono, latestUserMessage));
+    }
+
+    @Override
+    public String chatWithHistoryStream(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage,
+                                        Consumer<String> onDelta) throws Exception {
+        return route("chatWithHistoryStream", ProviderHealth.Kind.FIRST_TOKEN, true, onDelta,
+                (c, d) -> c.chatWithHistoryStream(systemPrompt, historyChrono, latestUserMessage, d));
+    }
+
+    @Override
+    public SummarizeResult summarizeAndExtract(String existingSummary, String patch, String locale) throws Exception {
+        return route("summarizeAndExtract", ProviderHealth.Kind.SUMMARIZE, false, null,
+                (c, d) -> c.summarizeAndExtract(existingSummary, patch, locale));
+    }
+
+    // --- 라우팅 --------------------------------------------------------------
+
+    /** 요청 하나에 대한 공급자 간 경쟁 상태 (먼저 성공/첫 조각을 낸 시도가 winner) */
+    private static final class Race<T> {
+        final AtomicReference<Attempt<T>> winner = new AtomicReference<>();
+        final BlockingQueue<Attempt<T>> events = new LinkedBlockingQueue<>();
+        final Consumer<String> onDelta;
+        final LlmPriority priority = LlmPriority.current();
+        final String feature = LlmContext.feature() == null ? "other" : LlmContext.feature();
+        final Thread caller = Thread.currentThread();
+
+        Race(Consumer<String> onDelta) {
+            this.onDelta = onDelta;
+        }
+
+        /** 이 시도를 winner 로 확정 (이미 다른 시도가 이겼으면 false) */
+        boolean claim(Attempt<T> a) {
+            if (winner.compareAndSet(null, a)) {
+                events.add(a);
+                return true;
+            }
+            return winner.get() == a;
+        }
+    }
+
+    /**
+     * 공급자 하나에 보낸 시도
+     * - 시작한 시도는 settle 로 정확히 한 번 공급자 상태에 반영 (HALF_OPEN 시험 요청 자리를 놓치지 않도록)
+     */
+    private static final class Attempt<T> {
+        final Route route;
+        final ProviderHealth health;
+        final boolean hedge;
+        final long startNs = System.nanoTime();
+        final CompletableFuture<T> done = new CompletableFuture<>();
+        volatile long claimedNs;
+        volatile long endNs;
+        volatile String model;
+        volatile int inputTokens;
+        volatile int outputTokens;
+        volatile Throwable error;
+        volatile boolean callerAborted; // onDelta(호출 측)가 던진 예외 -> 공급자 탓이 아님
+        volatile boolean lost;          // 다른 시도가 먼저 이겨 중단됨 -> 공급자 탓이 아님
+        volatile Future<?> task;
+        final AtomicBoolean settled = new AtomicBoolean(false);
+
+        Attempt(Route route, ProviderHealth health, boolean hedge) {
+            this.route = route;
+            this.health = health;
+            this.hedge = hedge;
+        }
+
+        long elapsedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+        }
+
+        /** 성공한 시도의 지연 (스트리밍은 첫 조각까지) */
+        long latencyMs(ProviderHealth.Kind kind) {
+            long end = kind == ProviderHealth.Kind.FIRST_TOKEN ? claimedNs : endNs;
+            return TimeUnit.NANOSECONDS.toMillis((end == 0 ? System.nanoTime() : end) - startNs);
+        }
+    }
+
+    private <T> T route(String op, ProviderHealth.Kind kind, boolean hedgeable,
+                        Consumer<String> onDelta, Call<T> call) throws Exception {
+        Race<T> race = new Race<>(onDelta);
+
+        // 1) 첫 시도 공급자: 차단되지 않은 쪽 우선, 둘 다 차단이면 primary 로 강행
+        Attempt<T> first;
+        ProviderHealth otherHealth;
+        Route other;
+        if (primaryHealth.tryAcquire()) {
+            first = new Attempt<>(primary, primaryHealth, false);
+            other = secondary;
+            otherHealth = secondaryHealth;
+        } else if (secondaryHealth.tryAcquire()) {
+            log.info("[LLM] {} circuit open -> route {} to {}", primary.name(), op, secondary.name());
+            first = new Attempt<>(secondary, secondaryHealth, false);
+            other = primary;
+            otherHealth = primaryHealth;
+        } else {
+            first = new Attempt<>(primary, primaryHealth, false);
+            other = secondary;
+            otherHealth = secondaryHealth;
+        }
+        boolean async = start(race, first, call, true);
+
+        // 2) 헤지 대기 시간: 첫 시도 공급자의 p95 (표본 부족이면 기본값), 스레드 부족으로 동기 실행했으면 헤지 없음
+        long hedgeDelayMs = -1;
+        if (hedgeEnabled && hedgeable && async) {
+            long p95 = first.health.p95(kind);
+            hedgeDelayMs = p95 < 0 ? hedgeDefaultDelayMs : Math.max(hedgeMinDelayMs, Math.min(hedgeMaxDelayMs, p95));
+        }
+
+        // 3) winner 가 나올 때까지 대기: 헤지 시점이 지나면 보조 요청, 실패하면 즉시 전환
+        Attempt<T> second = null;
+        int pending = 1;
+        Throwable last = null;
+        Attempt<T> winner = null;
+        try {
+            while (winner == null) {
+                Attempt<T> ev = hedgeDelayMs >= 0
+                        ? race.events.poll(hedgeDelayMs, TimeUnit.MILLISECONDS)
+                        : race.events.take();
+
+                if (ev == null) {
+                    // 헤지: 다른 공급자가 차단 상태이거나 스레드가 없으면 생략하고 첫 시도만 계속 대기
+                    hedgeDelayMs = -1;
+                    if (otherHealth.tryAcquire()) {
+                        Attempt<T> h = new Attempt<>(other, otherHealth, true);
+                        if (start(race, h, call, false)) {
+                            second = h;
+                            pending++;
+                            counter("llm.router.hedge", "feature", race.feature, "provider", other.name(), "result", "sent").increment();
+                            log.info("[LLM] {} slow (> p95 wait) -> hedge {} to {}", first.route.name(), op, other.name());
+                        } else {
+                            otherHealth.release();
+                        }
+                    }
+                    continue;
+                }
+
+                if (ev == race.winner.get()) {
+                    winner = ev;
+                    break;
+                }
+
+                // 시도 실패 (아직 winner 없음)
+                pending--;
+                last = ev.error;
+                settle(ev, kind);
+                if (ev.callerAborted) throw asException(ev.error);
+                log.warn("[LLM] {} {} failed after {}ms: {}", ev.route.name(), op, ev.elapsedMs(), ev.error.toString());
+
+                if (second == null && ev == first) {
+                    hedgeDelayMs = -1;
+                    boolean acquired = otherHealth.tryAcquire();
+                    // 첫 시도가 실패했으면 차단 상태여도 다른 공급자로 강행 (그대로 실패하는 것보다 나음)
+                    second = new Attempt<>(other, otherHealth, false);
+                    pending++;
+                    counter("llm.router.failover", "feature", race.feature, "from", ev.route.name(), "to", other.name()).increment();
+                    log.warn("[LLM] failover {} {} -> {}{}", op, ev.route.name(), other.name(),
+                            acquired ? "" : " (circuit open, forced)");
+                    start(race, second, call, true);
+                } else if (pending == 0) {
+                    throw asException(last);
+                }
+            }
+        } catch (Exception e) {
+            settle(first, kind);
+            settle(second, kind);
+            throw e;
+        }
+
+        // 4) 진 쪽 정리: 진행 중이면 취소 + 지연 기록, 이미 끝났으면 그 결과대로 기록
+        settle(winner == first ? second : first, kind);
+        if (second != null && second.hedge) {
+            counter("llm.router.hedge", "feature", race.feature, "provider", second.route.name(),
+                    "result", winner == second ? "won" : "lost").increment();
+        }
+
+        // 5) 결과 (스트리밍은 첫 조각에서 winner 가 정해지므로 여기서 끝까지 대기)
+        try {
+            T result = winner.done.get();
+            settle(winner, kind);
+            if (winner.model != null) LlmContext.set(winner.model);
+            LlmContext.tokens(winner.inputTokens, winner.outputTokens);
+            return result;
+        } catch (ExecutionException e) {
+            settle(winner, kind);
+            throw asException(e.getCause());
+        } catch (InterruptedException e) {
+            settle(winner, kind);
+            throw e;
+        }
+    }
+
+    /**
+     * 시작한 시도의 결과를 공급자 상태에 한 번만 반영 (두 번째 호출부터는 무시)
+     * - 진행 중: 취소 + onAbandoned / 성공: onSuccess / 경쟁에서 짐·호출 측 중단: onAbandoned
+     * - 한도 대기 거절: release (요청을 보내지 않음) / 그 외 실패: onFailure
+     */
+    private static void settle(Attempt<?> a, ProviderHealth.Kind kind) {
+        if (a == null || !a.settled.compareAndSet(false, true)) return;
+        if (!a.done.isDone()) {
+            cancel(a);
+            a.health.onAbandoned(kind, a.elapsedMs());
+        } else if (a.error == null) {
+            a.health.onSuccess(kind, a.latencyMs(kind));
+        } else if (a.lost || a.callerAborted) {
+            a.health.onAbandoned(kind, a.elapsedMs());
+        } else if (a.error instanceof LlmRateLimitedException) {
+            a.health.release();
+        } else {
+            a.health.onFailure(a.error instanceof QuotaExceededException);
+        }
+    }
+
+    /**
+     * 시도 시작 (전용 스레드, 스레드가 없으면 inlineIfBusy 일 때 호출 스레드에서 바로 실행)
+     * @return 전용 스레드에서 시작했으면 true
+     */
+    private <T> boolean start(Race<T> race, Attempt<T> a, Call<T> call, boolean inlineIfBusy) {
+        Consumer<String> onDelta = race.onDelta == null ? null : delta -> {
+            if (!race.claim(a)) {
+                a.lost = true;
+                throw new CancellationException("hedge lost: " + a.route.name());
+            }
+            if (a.claimedNs == 0) a.claimedNs = System.nanoTime();
+            try {
+                race.onDelta.accept(delta);
+            } catch (RuntimeException e) {
+                a.callerAborted = true;
+                throw e;
+            }
+        };
+        Runnable task = () -> run(race, a, call, onDelta);
+
+        try {
+            a.task = executor.submit(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (!inlineIfBusy) return false;
+            task.run();
+            return false;
+        }
+    }
+
+    private <T> void run(Race<T> race, Attempt<T> a, Call<T> call, Consumer<String> onDelta) {
+        boolean worker = Thread.currentThread() != race.caller;
+        if (worker) {
+            LlmPriority.set(race.priority);
+            LlmContext.feature(race.feature);
+        }
+        try {
+            T result = call.run(a.route.client(), onDelta);
+            a.model = LlmContext.get();
+            a.inputTokens = LlmContext.inputTokens();
+            a.outputTokens = LlmContext.outputTokens();
+            a.endNs = System.nanoTime();
+            if (a.claimedNs == 0) a.claimedNs = a.endNs;
+            a.done.complete(result);
+            race.claim(a);
+        } catch (Throwable e) {
+            a.endNs = System.nanoTime();
+            a.error = e;
+            a.done.completeExceptionally(e);
+            if (race.winner.get() != a) race.events.add(a);
+        } finally {
+            if (worker) {
+                LlmContext.clear();
+                LlmPriority.clear();
+            }
+        }
+    }
+
+    private static void cancel(Attempt<?> a) {
+        if (a == null) return;
+        Future<?> f = a.task;
+        if (f != null) f.cancel(true);
+    }
+
+    private Counter counter(String name, String... tags) {
+        return Counter.builder(name).tags(tags).register(meterRegistry);
+    }
+
+    private static Exception asException(Throwable t) {
+        if (t instanceof Exception e) return e;
+        if (t instanceof Error err) throw err;
+        return new RuntimeException(t);
+    }
+}
@@ -5,20 +5,42 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.gmaking.chat.constant.DialogueSender;
 import com.project.gmaking.chat.vo.DialogueVO;
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
 @Component("chatGptClient")
+@RequiredArgsConstructor
 public class ChatGptClientSdkImpl implements LlmClient {
 
     @Value("${openai.api.key:}")
@@ -31,19 +53,147 @@ public class ChatGptClientSdkImpl implements LlmClient {
     @Value("${openai.timeout.ms:15000}")
     private int timeoutMs;
 
+    // 공용 OpenAI HttpClient (호출마다 클라이언트/연결 풀을 새로 만들지 않음)
+    private final LlmTransport transport;
+
+    // 공급자/모델별 호출 한도 (우선순위는 호출 스레드의 LlmPriority)
+    private final LlmRateLimiter limiter;
+
+    // 호출 계측 (지연/토큰/본문 길이/재시도, 기능 태그는 LlmContext.feature)
+    private final LlmCallRecorder recorder;
+
     private final ObjectMapper om = new ObjectMapper();
 
-    private OkHttpClient http() {
-        return new OkHttpClient.Builder()
-                .callTimeout(Duration.ofMillis(timeoutMs))
-                .build();
-    }
+    private static final String PROVIDER = "openai";
+
+    private static final URI CHAT_COMPLETIONS = URI.create("https://api.openai.com/v1/chat/completions");
 
     private record Msg(String role, String content) {}
 
+    // 스트리밍 본문 무응답 감시 (조각 사이 간격이 timeoutMs 를 넘으면 스트림을 닫아 읽기 스레드를 풀어 줌)
+    private ScheduledExecutorService idleWatchdog;
+
+    @PostConstruct
+    void init() {
+        idleWatchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "openai-stream-idle");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        idleWatchdog.shutdownNow();
+    }
+
     // --- 공통 호출부 ---------------------------------------------------------
 
     private String callOpenAi(List<Msg> msgs) throws Exception {
+        String body = requestBody(msgs, false);
+        HttpRequest req = buildRequest(body, false);
+        LlmCallRecorder.Call call = recorder.start(LlmContext.feature(), PROVIDER, model, body.length());
+
+        // 429/500/503 지수 백오프 재시도
+        String text;
+        try {
+            text = withRetry(call, () -> {
+                HttpResponse<String> res = transport.openAi().send(req, HttpResponse.BodyHandlers.ofString());
+                checkStatus(res.statusCode(), res.body());
+                JsonNode r = om.readTree(res.body());
+                usage(call, r);
+                return r.path("choices").get(0).path("message").path("content").asText("");
+            }, "openai:chat");
+        } catch (Exception e) {
+            fail(call, e);
+            throw e;
+        }
+        call.success(text.length());
+        LlmContext.tokens(call.inputTokens(), call.outputTokens());
+        return text;
+    }
+
+    /**
+     * 스트리밍 호출 ("stream": true, SSE 응답)
+     * - 재시도는 응답 상태 확인까지만, 본문을 읽기 시작한 뒤에는 재시도하지 않음
+     * - "data: {...}" 줄의 choices[0].delta.content 를 onDelta 로 넘기고 "data: [DONE]" 에서 종료
+     * - 요청 타임아웃은 응답 헤더까지만 적용 (긴 답변도 끊기지 않도록)
+     * - 본문은 조각 사이 무응답 시간에 timeoutMs 를 적용 (넘으면 스트림을 닫고 HttpTimeoutException)
+     */
+    private String callOpenAiStream(List<Msg> msgs, Consumer<String> onDelta) throws Exception {
+        String body = requestBody(msgs, true);
+        HttpRequest req = buildRequest(body, true);
+        LlmCallRecorder.Call call = recorder.start(LlmContext.feature(), PROVIDER, model, body.length());
+        try {
+            String text = readStream(call, req, onDelta);
+            call.success(text.length());
+            LlmContext.tokens(call.inputTokens(), call.outputTokens());
+            return text;
+        } catch (Exception e) {
+            fail(call, e);
+            throw e;
+        }
+    }
+
+    private String readStream(LlmCallRecorder.Call call, HttpRequest req, Consumer<String> onDelta) throws Exception {
+        StringBuilder text = new StringBuilder();
+        HttpResponse<InputStream> res = withRetry(call, () -> {
+            HttpResponse<InputStream> r = transport.openAi().send(req, HttpResponse.BodyHandlers.ofInputStream());
+            if (r.statusCode() / 100 != 2) {
+                String err;
+                try (InputStream body = r.body()) {
+                    err = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                checkStatus(r.statusCode(), err);
+            }
+            return r;
+        }, "openai:chatStream");
+
+        InputStream in = res.body();
+        AtomicLong lastDataNs = new AtomicLong(System.nanoTime());
+        AtomicBoolean idleTimedOut = new AtomicBoolean(false);
+        long idleNs = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long checkMs = Math.max(100, Math.min(1000, timeoutMs / 4));
+        ScheduledFuture<?> watchdog = idleWatchdog.scheduleWithFixedDelay(() -> {
+            if (System.nanoTime() - lastDataNs.get() < idleNs) return;
+            idleTimedOut.set(true);
+            try {
+                in.close();
+            } catch (IOException ignore) {
+                // 닫는 중 오류는 무시 (읽기 스레드는 idleTimedOut 으로 판단)
+            }
+        }, checkMs, checkMs, TimeUnit.MILLISECONDS);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastDataNs.set(System.nanoTime());
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring("data:".length()).trim();
+                if ("[DONE]".equals(data)) break;
+
+                // include_usage: 마지막 청크(choices 비어 있음)에 usage 가 옴
+                JsonNode node = om.readTree(data);
+                usage(call, node);
+                String delta = node.path("choices").path(0).path("delta").path("content").asText("");
+                if (delta.isEmpty()) continue;
+                call.firstToken();
+                text.append(delta);
+                onDelta.accept(delta);
+            }
+        } catch (IOException e) {
+            if (!idleTimedOut.get()) throw e;
+        } finally {
+            watchdog.cancel(false);
+        }
+        // 감시가 스트림을 닫으면 readLine 이 예외 대신 EOF 를 돌려줄 수도 있음
+        if (idleTimedOut.get()) {
+            throw new HttpTimeoutException("OpenAI stream idle for more than " + timeoutMs + "ms");
+        }
+        return text.toString();
+    }
+
+    private String requestBody(List<Msg> msgs, boolean stream) {
         if (apiKey == null || apiKey.isBlank()) {
             throw new IllegalStateException("OpenAI API key is missing. Set 'openai.api.key' or env 'OPENAI_API_KEY'.");
         }
@@ -56,45 +206,57 @@ public class ChatGptClientSdkImpl implements LlmClient {
                     .put("content", m.content() == null ? "" : m.content()));
         }
         var root = om.createObjectNode()
-                .put("model", model)
-                .set("messages", arr);
-
-        Request req = new Request.Builder()
-                .url("https://api.openai.com/v1/chat/completions")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(RequestBody.create(root.toString(), MediaType.parse("application/json")))
+                .put("model", model);
+        root.set("messages", arr);
+        if (stream) {
+            root.put("stream", true);
+            root.putObject("stream_options").put("include_usage", true);
+        }
+        return root.toString();
+    }
+
+    private HttpRequest buildRequest(String body, boolean stream) {
+        return HttpRequest.newBuilder(CHAT_COMPLETIONS)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
                 .build();
+    }
 
-        // 429/500/503 지수 백오프 재시도
-        return withRetry(() -> {
-            try (Response res = http().newCall(req).execute()) {
-                if (!res.isSuccessful()) {
-                    int code = res.code();
-                    String err = res.body() != null ? res.body().string() : "";
-                    if (code == 429) throw new QuotaExceededException("OpenAI quota/rate limit exceeded: " + err, null);
-                    throw new LlmException("OpenAI error: " + err, code, null);
-                }
-                String json = res.body() != null ? res.body().string() : "";
-                JsonNode r = om.readTree(json);
-                return r.path("choices").get(0).path("message").path("content").asText("");
-            }
-        }, "openai:chat");
+    private static void checkStatus(int code, String err) {
+        if (code / 100 == 2) return;
+        if (code == 429) throw new QuotaExceededException("OpenAI quota/rate limit exceeded: " + err, null);
+        throw new LlmException("OpenAI error: " + err, code, null);
     }
 
     @FunctionalInterface
     private interface SupplierX<T> { T get() throws Exception; }
 
-    private <T> T withRetry(SupplierX<T> work, String op) throws Exception {
+    // 응답의 usage(prompt/completion 토큰)를 계측에 기록
+    private static void usage(LlmCallRecorder.Call call, JsonNode node) {
+        JsonNode u = node.path("usage");
+        if (u.isObject()) call.tokens(u.path("prompt_tokens").asInt(0), u.path("completion_tokens").asInt(0));
+    }
+
+    private static void fail(LlmCallRecorder.Call call, Exception e) {
+        if (e instanceof QuotaExceededException) call.quotaExceeded();
+        else call.fail(e);
+    }
+
+    private <T> T withRetry(LlmCallRecorder.Call call, SupplierX<T> work, String op) throws Exception {
         final int maxAttempts = 5;
         int attempt = 0;
         Exception last = null;
         while (attempt < maxAttempts) {
             attempt++;
+            // 재시도도 공급자 한도를 쓰므로 시도마다 토큰을 받음 (한도 초과는 재시도하지 않고 바로 전파)
+            limiter.acquire(PROVIDER, model);
             try {
                 return work.get();
             } catch (QuotaExceededException qe) {
-                // 쿼터 초과는 즉시 포기 → Fallback이 잡아서 전환
+                // 쿼터 초과는 즉시 포기 → 라우터가 잡아서 전환
                 throw qe;
             } catch (LlmException le) {
                 // 500/503만 재시도, 그 외는 바로 위임
@@ -103,16 +265,22 @@ public class ChatGptClientSdkImpl implements LlmClient {
                     long backoffMs = (long) (Math.pow(2, attempt - 1) * 250)
                             + ThreadLocalRandom.current().nextLong(75, 225);
                     log.warn("[LLM] {} attempt {}/{} failed ({}), retrying {}ms", op, attempt, maxAttempts, s, backoffMs);
+                    call.retry();
                     Thread.sleep(Math.min(backoffMs, 4000));
                     last = le;
                     continue;
                 }
                 throw le;
+            } catch (InterruptedException ie) {
+                // 라우터가 진 헤지 요청을 취소(인터럽트)한 경우: 재시도하면 한도/쿼터만 더 쓰므로 바로 중단
+                Thread.currentThread().interrupt();
+                throw ie;
             } catch (Exception e) {
-                // 네트워크/예상치 못한 예외는 1회만 재시도하고 포기(취향껏 변경)
-                if (attempt >= 2) throw e;
+                // 네트워크/예상치 못한 예외는 1회만 재시도하고 포기(취향껏 변경), 취소된 호출은 재시도하지 않음
+                if (attempt >= 2 || Thread.currentThread().isInterrupted()) throw e;
                 long backoffMs = 300;
                 log.warn("[LLM] {} transient error, retry {}ms", op, backoffMs);
+                call.retry();
                 Thread.sleep(backoffMs);
                 last = e;
             }
@@ -151,6 +319,24 @@ public class ChatGptClientSdkImpl implements LlmClient {
 
     @Override
     public String chatWithHistory(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage) throws Exception {
+        String text = callOpenAi(historyMessages(systemPrompt, historyChrono, latestUserMessage));
+
+        LlmContext.set(model);
+
+        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+    }
+
+    @Override
+    public String chatWithHistoryStream(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage,
+                                        Consumer<String> onDelta) throws Exception {
+        String text = callOpenAiStream(historyMessages(systemPrompt, historyChrono, latestUserMessage), onDelta);
+
+        LlmContext.set(model);
+
+        return text.isBlank() ? "빈 응답입니다." : text.trim();
+    }
+
+    private List<Msg> historyMessages(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage) {
         List<Msg> msgs = new ArrayList<>();
         if (systemPrompt != null && !systemPrompt.isBlank()) {
             msgs.add(new Msg("system", systemPrompt));
@@ -164,11 +350,7 @@ public class ChatGptClientSdkImpl implements LlmClient {
             }
         }
         msgs.add(new Msg("user", latestUserMessage));
-        String text = callOpenAi(msgs);
-
-        LlmContext.set(model);
-
-        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+        return msgs;
     }
 
     @Override
@@ -6,45 +6,49 @@ import java.util.concurrent.ThreadLocalRandom;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
 import com.google.genai.types.Content;
 import com.google.genai.types.GenerateContentResponse;
-import com.google.genai.types.HttpOptions;
 import com.google.genai.types.Part;
 import com.project.gmaking.chat.constant.DialogueSender;
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
 import com.project.gmaking.chat.vo.DialogueVO;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class GeminiClientSdkImpl implements LlmClient {
 
-    @Value("${gemini.api.key:}")
-    private String apiKey;
+    private static final String PROVIDER = "gemini";
 
     @Value("${gemini.model.name:gemini-2.0-flash}")
     private String modelName;
 
+    private final LlmTransport transport;
+
+    // 공급자/모델별 호출 한도 (우선순위는 호출 스레드의 LlmPriority)
+    private final LlmRateLimiter limiter;
+
+    // 호출 계측 (지연/토큰/본문 길이/재시도, 기능 태그는 LlmContext.feature)
+    private final LlmCallRecorder recorder;
+
     private final ObjectMapper om = new ObjectMapper();
 
-    /** .env의 키 사용 */
-    private Client buildClient() {
-        if (apiKey == null || apiKey.isBlank()) {
-            // 여기까지 오면 .env 로드/WD 문제이므로 명확히 터뜨려 원인 노출
-            throw new IllegalStateException(
-                    "Gemini API key is missing. Check 'gemini.api.key' or env 'GEMINI_API_KEY'."
-            );
-        }
-        return Client.builder()
-                .apiKey(apiKey)
-                .httpOptions(HttpOptions.builder().apiVersion("v1").build())
-                .build();
+    /** 공용 Gemini Client (호출마다 새로 만들지 않고 연결 풀 재사용) */
+    private Client client() {
+        return transport.gemini();
     }
 
     @Override
@@ -56,7 +60,62 @@ public class GeminiClientSdkImpl implements LlmClient {
     public String chatWithHistory(String systemPrompt,
                                   List<DialogueVO> historyChrono,
                                   String latestUserMessage) throws Exception {
-        Client client = buildClient();
+        Client client = client();
+        List<Content> contents = historyContents(systemPrompt, historyChrono, latestUserMessage);
+
+        // 3) 모델 호출
+        GenerateContentResponse res = generate(client, contents, "chatWithHistory");
+        String text = res.text();
+
+        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+    }
+
+    /**
+     * 스트리밍 대화 (generateContentStream)
+     * - 재시도는 스트림을 여는 단계에서만 (첫 조각을 보낸 뒤에는 이어서 재시도할 수 없음)
+     * - 청크마다 text() 가 이번에 추가된 조각
+     */
+    @Override
+    public String chatWithHistoryStream(String systemPrompt,
+                                        List<DialogueVO> historyChrono,
+                                        String latestUserMessage,
+                                        Consumer<String> onDelta) throws Exception {
+        Client client = client();
+        List<Content> contents = historyContents(systemPrompt, historyChrono, latestUserMessage);
+
+        StringBuilder text = new StringBuilder();
+        LlmCallRecorder.Call call = recorder.start(LlmContext.feature(), PROVIDER, modelName, textLength(contents));
+        try (ResponseStream<GenerateContentResponse> stream = withRetry(
+                call,
+                () -> client.models.generateContentStream(modelName, contents, null),
+                "chatWithHistoryStream:" + modelName
+        )) {
+            for (GenerateContentResponse chunk : stream) {
+                // 사용량은 마지막 청크에 누적값으로 옴
+                chunk.usageMetadata().ifPresent(u -> call.tokens(
+                        u.promptTokenCount().orElse(0), u.candidatesTokenCount().orElse(0)));
+                String delta = chunk.text();
+                if (delta == null || delta.isEmpty()) continue;
+                call.firstToken();
+                text.append(delta);
+                onDelta.accept(delta);
+            }
+        } catch (Exception e) {
+            fail(call, e);
+            throw e;
+        }
+        call.success(text.length());
+
+        LlmContext.set(modelName);
+        LlmContext.tokens(call.inputTokens(), call.outputTokens());
+
+        return text.toString().isBlank() ? "빈 응답입니다." : text.toString().trim();
+    }
+
+    // 시스템 프롬프트 + 히스토리 + 이번 발화를 Gemini Content 목록으로 구성
+    private List<Content> historyContents(String systemPrompt,
+                                          List<DialogueVO> historyChrono,
+                                          String latestUserMessage) {
         List<Content> contents = new ArrayList<>();
 
         // 0) 시스템 프롬프트(선행 user 역할로 전달)
@@ -92,17 +151,7 @@ public class GeminiClientSdkImpl implements LlmClient {
                         .parts(List.of(Part.fromText(latestUserMessage)))
                         .build()
         );
-
-        // 3) 모델 호출
-        GenerateContentResponse res = withRetry(
-                () -> client.models.generateContent(modelName, contents, null),
-                "chatWithHistory:" + modelName
-        );
-        String text = res.text();
-
-        LlmContext.set(modelName);
-
-        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+        return contents;
     }
 
     // ===========================
@@ -117,7 +166,7 @@ public class GeminiClientSdkImpl implements LlmClient {
                                  List<MemoryItem> memories,           // 장기기억 (nullable)
                                  List<DialogueVO> historyChrono,
                                  String latestUserMessage) throws Exception {
-        Client client = buildClient();
+        Client client = client();
         List<Content> contents = new ArrayList<>();
 
         // 0) 시스템 프롬프트
@@ -175,12 +224,8 @@ public class GeminiClientSdkImpl implements LlmClient {
                 .build());
 
         // 3) 모델 호출
-        GenerateContentResponse res = withRetry(
-                () -> client.models.generateContent(modelName, contents, null),
-                "chatWithMemory:" + modelName
-        );
+        GenerateContentResponse res = generate(client, contents, "chatWithMemory");
         String text = res.text();
-        LlmContext.set(modelName);
         return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
     }
 
@@ -189,7 +234,7 @@ public class GeminiClientSdkImpl implements LlmClient {
     public SummarizeResult summarizeAndExtract(String existingSummary,
                                                String patch,
                                                String locale) throws Exception {
-        Client client = buildClient();
+        Client client = client();
 
         String sys = """
         너는 채팅의 롤링 요약을 유지하고, 장기 기억 후보를 추출한다.
@@ -252,10 +297,7 @@ public class GeminiClientSdkImpl implements LlmClient {
                 .parts(List.of(Part.fromText(user)))
                 .build());
 
-        GenerateContentResponse res = withRetry(
-                () -> client.models.generateContent(modelName, contents, null),
-                "summarizeAndExtract:" + modelName
-        );
+        GenerateContentResponse res = generate(client, contents, "summarizeAndExtract");
         String raw = res.text();
         if (raw == null || raw.isBlank()) {
             log.warn("[LLM] empty summarizeAndExtract response");
@@ -277,9 +319,6 @@ public class GeminiClientSdkImpl implements LlmClient {
                 out.setMemories(List.of());
             }
             if (out.getUpdatedSummary() == null) out.setUpdatedSummary("");
-
-            LlmContext.set(modelName);
-
             return out;
         } catch (Exception e) {
             log.warn("[LLM] JSON parse failed. raw={}", safeTrim(raw, 500));
@@ -287,13 +326,53 @@ public class GeminiClientSdkImpl implements LlmClient {
         }
     }
 
-    private <T> T withRetry(SupplierWithEx<T> work, String op) throws Exception {
+    /**
+     * 단건 호출 + 계측 (지연/토큰/본문 길이), 성공 시 LlmContext 에 모델/토큰 기록
+     */
+    private GenerateContentResponse generate(Client client, List<Content> contents, String op) throws Exception {
+        LlmCallRecorder.Call call = recorder.start(LlmContext.feature(), PROVIDER, modelName, textLength(contents));
+        GenerateContentResponse res;
+        try {
+            res = withRetry(call, () -> client.models.generateContent(modelName, contents, null), op + ":" + modelName);
+        } catch (Exception e) {
+            fail(call, e);
+            throw e;
+        }
+        res.usageMetadata().ifPresent(u -> call.tokens(
+                u.promptTokenCount().orElse(0), u.candidatesTokenCount().orElse(0)));
+        String text = res.text();
+        call.success(text == null ? 0 : text.length());
+
+        LlmContext.set(modelName);
+        LlmContext.tokens(call.inputTokens(), call.outputTokens());
+        return res;
+    }
+
+    private static void fail(LlmCallRecorder.Call call, Exception e) {
+        if (e instanceof QuotaExceededException) call.quotaExceeded();
+        else call.fail(e);
+    }
+
+    // 요청 본문 길이(문자 수) 계측용
+    private static int textLength(List<Content> contents) {
+        int n = 0;
+        for (Content c : contents) {
+            for (Part p : c.parts().orElse(List.of())) {
+                n += p.text().map(String::length).orElse(0);
+            }
+        }
+        return n;
+    }
+
+    private <T> T withRetry(LlmCallRecorder.Call call, SupplierWithEx<T> work, String op) throws Exception {
         final int maxAttempts = 5;
         int attempt = 0;
         Exception last = null;
 
         while (attempt < maxAttempts) {
             attempt++;
+            // 재시도도 공급자 한도를 쓰므로 시도마다 토큰을 받음 (한도 초과는 재시도하지 않고 바로 전파)
+            limiter.acquire(PROVIDER, modelName);
             try {
                 return work.get();
             } catch (ApiException e) {
@@ -304,6 +383,7 @@ public class GeminiClientSdkImpl implements LlmClient {
                     backoffMs += ThreadLocalRandom.current().nextLong(75, 225); // 지터
                     log.warn("[LLM] {} attempt {}/{} failed ({}), retrying in {}ms",
                             op, attempt, maxAttempts, code, backoffMs);
+                    call.retry();
                     Thread.sleep(Math.min(backoffMs, 4000));
                     last = e;
                     continue;
@@ -7,6 +7,20 @@ public interface LlmClient {
                            java.util.List<com.project.gmaking.chat.vo.DialogueVO> historyChrono,
                            String latestUserMessage) throws Exception;
 
+    /**
+     * 스트리밍 대화: 토큰 조각이 도착할 때마다 onDelta 로 넘기고, 전체 응답 텍스트를 반환
+     * - 기본 구현은 스트리밍 미지원 클라이언트용 (전체 응답을 한 조각으로 전달)
+     * - onDelta 가 예외를 던지면(클라이언트 연결 종료 등) 호출을 중단하고 그대로 전파
+     */
+    default String chatWithHistoryStream(String systemPrompt,
+                                         java.util.List<com.project.gmaking.chat.vo.DialogueVO> historyChrono,
+                                         String latestUserMessage,
+                                         java.util.function.Consumer<String> onDelta) throws Exception {
+        String text = chatWithHistory(systemPrompt, historyChrono, latestUserMessage);
+        onDelta.accept(text);
+        return text;
+    }
+
 
     // 이전 요약 + 최근 패치
     SummarizeResult summarizeAndExtract(String existingSummary,
@@ -1,5 +1,7 @@
 package com.project.gmaking.chat.llm;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,9 +12,14 @@ public class LlmConfig {
     @Bean("llmClient") // 기존 코드가 주입받는 이름 유지
     @Primary
     public LlmClient llmClient(GeminiClientSdkImpl geminiClient,
-                               ChatGptClientSdkImpl chatGptClient) {
-        // 1회 재시도 후 실패 시 ChatGPT로 전환
-        return new FallbackLlmClient(geminiClient, chatGptClient, 1);
+                               ChatGptClientSdkImpl chatGptClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${gemini.model.name:gemini-2.0-flash}") String geminiModel,
+                               @Value("${openai.model:gpt-4o-mini}") String openAiModel) {
+        // Gemini 우선, 느리거나 실패하면 ChatGPT 로 헤지/전환
+        return new AdaptiveLlmRouter(
+                new AdaptiveLlmRouter.Route("gemini", geminiModel, geminiClient),
+                new AdaptiveLlmRouter.Route("openai", openAiModel, chatGptClient),
+                meterRegistry);
     }
 }
-
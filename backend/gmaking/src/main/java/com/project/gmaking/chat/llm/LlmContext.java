@@ -1,11 +1,30 @@
 package com.project.gmaking.chat.llm;
 
+/**
+ * LlmClient 호출 스레드 컨텍스트
+ * - feature: 호출 측이 호출 전에 지정하는 기능 이름 (계측 태그, 지정하지 않으면 "other")
+ * - model/토큰: 마지막으로 응답한 모델과 공급자가 돌려준 입력/출력 토큰 수 (사용량 로그용)
+ */
 public final class LlmContext {
     private static final ThreadLocal<String> LAST_MODEL = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> LAST_TOKENS = new ThreadLocal<>();
+    private static final ThreadLocal<String> FEATURE = new ThreadLocal<>();
 
     private LlmContext() {}
 
     public static void set(String model) { LAST_MODEL.set(model); }
     public static String get() { return LAST_MODEL.get(); }
-    public static void clear() { LAST_MODEL.remove(); }
-}
\ No newline at end of file
+
+    public static void tokens(int input, int output) { LAST_TOKENS.set(new int[]{input, output}); }
+    public static int inputTokens() { int[] t = LAST_TOKENS.get(); return t == null ? 0 : t[0]; }
+    public static int outputTokens() { int[] t = LAST_TOKENS.get(); return t == null ? 0 : t[1]; }
+
+    public static void feature(String feature) { FEATURE.set(feature); }
+    public static String feature() { return FEATURE.get(); }
+
+    public static void clear() {
+        LAST_MODEL.remove();
+        LAST_TOKENS.remove();
+        FEATURE.remove();
+    }
+}
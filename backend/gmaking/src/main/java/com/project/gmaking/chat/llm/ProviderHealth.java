@@ -0,0 +1,184 @@
+package com.project.gmaking.chat.llm;
+
+import java.util.Arrays;
+
+/**
+ * LLM 공급자(모델) 하나의 최근 상태: 응답 지연 분포 + 오류/지연 비율 + 서킷 브레이커
+ * - 최근 window-size 건을 링 버퍼로 보관 (호출 종류별 지연, 공급자 공통 오류/지연 여부)
+ * - CLOSED: 최근 min-samples 건 이상에서 오류율 또는 지연 비율이 기준을 넘으면 OPEN
+ * - OPEN: open-ms 동안 요청을 보내지 않음, 이후 HALF_OPEN 으로 전환해 시험 요청 1건만 허용
+ * - HALF_OPEN: 시험 요청이 성공하면 CLOSED(기록 초기화), 실패하면 다시 OPEN
+ * - 모든 메서드는 this 잠금 안에서 동작 (건당 수십 ns 수준, 경합 대상은 LLM 호출 수 정도)
+ */
+public final class ProviderHealth {
+
+    /** 지연을 따로 모으는 호출 종류 (응답 길이/성격이 달라 분포를 섞지 않음) */
+    public enum Kind {
+        CHAT,          // 단건 응답 전체 시간
+        FIRST_TOKEN,   // 스트리밍 첫 조각까지 시간
+        SUMMARIZE      // 요약/장기기억 추출 응답 전체 시간
+    }
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Settings(int windowSize, int minSamples, double errorRate,
+                           long slowCallMs, double slowCallRate, long openMs) {}
+
+    private final String name;
+    private final String model;
+    private final Settings settings;
+
+    // 공급자 공통 결과 링 버퍼 (오류/지연 비율 계산용)
+    private final boolean[] errors;
+    private final boolean[] slows;
+    private int outcomeCount;
+    private int outcomeNext;
+
+    // 호출 종류별 성공 지연 링 버퍼 (p95 계산용)
+    private final long[][] latencies = new long[Kind.values().length][];
+    private final int[] latencyCount = new int[Kind.values().length];
+    private final int[] latencyNext = new int[Kind.values().length];
+
+    private State state = State.CLOSED;
+    private long openUntilMs;
+    private boolean probeInFlight;
+
+    public ProviderHealth(String name, String model, Settings settings) {
+        this.name = name;
+        this.model = model;
+        this.settings = settings;
+        int n = Math.max(1, settings.windowSize());
+        this.errors = new boolean[n];
+        this.slows = new boolean[n];
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new long[n];
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    /**
+     * 이 공급자에 요청을 보내도 되는지 확인하고, HALF_OPEN 이면 시험 요청 자리를 차지
+     * - true 를 받은 호출자는 결과를 반드시 onSuccess/onFailure/onAbandoned 중 하나로 알리거나 release 로 반납해야 함
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMs) return false;
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) return false;
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(Kind kind, long latencyMs) {
+        if (state == State.HALF_OPEN) {
+            reset();
+            state = State.CLOSED;
+        }
+        addLatency(kind, latencyMs);
+        addOutcome(false, kind != Kind.SUMMARIZE && latencyMs >= settings.slowCallMs());
+        evaluate();
+    }
+
+    /** 실패 (쿼터 초과는 기록과 무관하게 바로 OPEN) */
+    public synchronized void onFailure(boolean quotaExceeded) {
+        if (state == State.HALF_OPEN || quotaExceeded) {
+            open();
+            return;
+        }
+        addOutcome(true, false);
+        evaluate();
+    }
+
+    /**
+     * 헤지 경쟁에서 져서 취소된 요청: 끝까지 기다리지 않았으므로 오류로 보지 않고,
+     * 취소 시점까지의 경과 시간만 지연 기록으로 남김 (실제 지연은 이보다 길었으므로 느림 판정에 반영)
+     */
+    public synchronized void onAbandoned(Kind kind, long elapsedMs) {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            return;
+        }
+        addLatency(kind, elapsedMs);
+        addOutcome(false, kind != Kind.SUMMARIZE && elapsedMs >= settings.slowCallMs());
+        evaluate();
+    }
+
+    /** tryAcquire 로 받은 자리를 요청 없이 반납 */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) probeInFlight = false;
+    }
+
+    /** 최근 성공 지연 p95 (표본이 min-samples 미만이면 -1) */
+    public synchronized long p95(Kind kind) {
+        int k = kind.ordinal();
+        int n = latencyCount[k];
+        if (n < settings.minSamples()) return -1;
+        long[] copy = Arrays.copyOf(latencies[k], n);
+        Arrays.sort(copy);
+        return copy[Math.min(n - 1, (int) Math.ceil(n * 0.95) - 1)];
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntilMs) return State.HALF_OPEN;
+        return state;
+    }
+
+    public synchronized double errorRate() {
+        return rate(errors);
+    }
+
+    public synchronized double slowCallRate() {
+        return rate(slows);
+    }
+
+    private void addLatency(Kind kind, long latencyMs) {
+        int k = kind.ordinal();
+        long[] buf = latencies[k];
+        buf[latencyNext[k]] = latencyMs;
+        latencyNext[k] = (latencyNext[k] + 1) % buf.length;
+        if (latencyCount[k] < buf.length) latencyCount[k]++;
+    }
+
+    private void addOutcome(boolean error, boolean slow) {
+        errors[outcomeNext] = error;
+        slows[outcomeNext] = slow;
+        outcomeNext = (outcomeNext + 1) % errors.length;
+        if (outcomeCount < errors.length) outcomeCount++;
+    }
+
+    private void evaluate() {
+        if (state != State.CLOSED || outcomeCount < settings.minSamples()) return;
+        if (rate(errors) >= settings.errorRate() || rate(slows) >= settings.slowCallRate()) open();
+    }
+
+    private double rate(boolean[] flags) {
+        if (outcomeCount == 0) return 0.0;
+        int hit = 0;
+        for (int i = 0; i < outcomeCount; i++) {
+            if (flags[i]) hit++;
+        }
+        return (double) hit / outcomeCount;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilMs = System.currentTimeMillis() + settings.openMs();
+        probeInFlight = false;
+    }
+
+    // 복구 후에는 장애 구간 기록이 다시 차단을 일으키지 않도록 결과 기록만 비움 (지연 분포는 유지)
+    private void reset() {
+        outcomeCount = 0;
+        outcomeNext = 0;
+        probeInFlight = false;
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.gmaking.chat.nlp;
+
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 호칭 요청("쿠로라고 불러", "call me Kuro") 로컬 판별기
+ * - 대부분의 채팅 메시지에는 호칭 요청이 없으므로, 단서 단어가 없으면 LLM 없이 바로 NONE
+ * - 형태가 분명한 요청은 여기서 바로 호칭을 뽑아 EXTRACTED
+ * - 단서는 있지만 애매한 경우(부정/2인칭/질문형 단어/일반 명사 등)만 AMBIGUOUS -> LLM 으로 판단
+ * - "~로 불러" 는 "영어로 불러줘"(노래해 줘) 처럼 호칭이 아닌 경우가 많아, 1인칭 목적어(나를/날/저를/나 좀)가 있을 때만 로컬 추출
+ */
+public final class CallingNameDetector {
+
+    public enum Decision { NONE, EXTRACTED, AMBIGUOUS }
+
+    public record Detection(Decision decision, String name) {
+        static final Detection NONE = new Detection(Decision.NONE, null);
+        static final Detection AMBIGUOUS = new Detection(Decision.AMBIGUOUS, null);
+    }
+
+    // 호칭 요청 단서 (하나도 없으면 호칭 요청이 아님)
+    // 한국어는 정규식 없이 contains 로 확인, 영어 단서는 영문자가 있는 발화에서만 정규식 확인
+    private static final String[] KO_CUES = {"불러", "부르", "부를", "호칭", "칭호", "이름", "닉네임", "별명"};
+    private static final Pattern EN_CUE = Pattern.compile(
+            "(?i)call\\s+me|address\\s+me|refer\\s+to\\s+me|my\\s+name|nickname");
+
+    private static final String QUOTES = "['\"“”‘’「」『』]";
+
+    // 한국어: [따옴표]호칭[따옴표] + (이)라고/(이)라구/(으)로 + 요청형 동사
+    private static final Pattern KO_REQUEST = Pattern.compile(
+            QUOTES + "?([가-힣A-Za-z0-9]{1,12})(" + QUOTES + "?)\\s?(이?라고|이?라구|으?로)\\s?"
+            + "(불러\\s?(?:줘요|줘|주세요|주라|줄래요|줄래|봐|요|라|도\\s?돼|도\\s?괜찮아)?"
+            + "|부르(?:세요|면\\s?돼|면\\s?됩니다|도록\\s?해|라|시면\\s?돼))"
+            + "([\\s.!~?♡♥ㅎㅋ^]*)$");
+
+    // 영어: (please/just/you can) call me X (please/from now on)
+    private static final Pattern EN_REQUEST = Pattern.compile(
+            "(?i)(?:^|[\\s,.!])(?:please\\s+|just\\s+|you\\s+can\\s+|you\\s+may\\s+|from\\s+now\\s+on,?\\s+)*call\\s+me\\s+"
+            + QUOTES + "?([a-z][a-z0-9_-]{0,19}(?:\\s[a-z][a-z0-9_-]{0,19})?)" + QUOTES + "?"
+            + "(?:,?\\s+(?:from\\s+now\\s+on|please|instead|okay|ok))?\\s*[.!~]*\\s*$");
+
+    // 부정 ("부르지 마", "don't call me")
+    private static final Pattern NEGATION = Pattern.compile(
+            "지\\s?마|지\\s?말|면\\s?안|지\\s?않|싫어|(?i:don'?t\\s+call|do\\s+not\\s+call|never\\s+call|stop\\s+calling)");
+
+    // 2인칭 (유저가 캐릭터를 부르는 경우 -> 유저 호칭이 아님)
+    private static final Pattern SECOND_PERSON = Pattern.compile(
+            "(^|\\s)(너|널|너를|너는|너도|너한테|너에게|당신|당신을|당신은|네가|니가)(?=\\s|$)");
+
+    // 1인칭 목적어 ("나를 주인님으로 불러") - (으)로 형태는 이게 있어야 호칭 요청으로 봄
+    private static final Pattern FIRST_PERSON_OBJECT = Pattern.compile(
+            "(^|\\s)(나를|날|저를|나\\s?좀|저\\s?좀)(?=\\s|$)");
+
+    // 호칭 자리에 와도 호칭이 아닌 말 (질문/방식/일반 명사/존칭 접미사)
+    private static final Set<String> NOT_A_NAME = Set.of(
+            "뭐", "뭐라", "무엇", "어떻게", "이렇게", "그렇게", "저렇게", "아무렇게나", "편하게", "마음대로",
+            "이름", "닉네임", "별명", "호칭", "반말", "존댓말", "본명", "실명",
+            "님", "씨", "양", "군", "그거", "이거", "저거", "그걸", "이걸",
+            "나", "저", "너", "날", "절", "그", "이", "다르게", "원래대로", "예전처럼",
+            // "~로 불러" 가 노래/말하기 요청인 경우 (언어/노래/목소리)
+            "영어", "한국어", "일본어", "중국어", "불어", "독일어", "스페인어", "외국어", "한국말", "일본말", "우리말", "사투리",
+            "노래", "동요", "랩", "가사", "곡", "소리", "목소리", "큰소리", "작은소리", "고음", "저음", "음");
+
+    private static final Set<String> EN_NOT_A_NAME = Set.of(
+            "back", "later", "tomorrow", "tonight", "now", "again", "when", "if", "at", "on", "maybe",
+            "anytime", "sometime", "soon", "whatever", "anything", "something", "that", "this", "it", "by",
+            "what", "how", "please", "sometimes");
+
+    private CallingNameDetector() {
+    }
+
+    public static Detection detect(String utterance) {
+        if (utterance == null || utterance.isBlank()) return Detection.NONE;
+        String text = utterance.strip();
+        if (!hasCue(text)) return Detection.NONE;
+
+        if (NEGATION.matcher(text).find() || SECOND_PERSON.matcher(text).find()) return Detection.AMBIGUOUS;
+
+        Matcher ko = KO_REQUEST.matcher(text);
+        if (ko.find()) {
+            if (ko.group(3).endsWith("로") && !FIRST_PERSON_OBJECT.matcher(text).find()) return Detection.AMBIGUOUS;
+            // 따옴표로 감싼 호칭은 그대로, 아니면 받침 뒤 조사 '이/으' 가 호칭에 붙어 잡혔는지 확인
+            String name = ko.group(2).isEmpty() ? stripParticle(ko.group(1), ko.group(3)) : ko.group(1);
+            return NOT_A_NAME.contains(name) || name.isEmpty()
+                    ? Detection.AMBIGUOUS
+                    : new Detection(Decision.EXTRACTED, name);
+        }
+
+        Matcher en = EN_REQUEST.matcher(text);
+        if (en.find()) {
+            String name = en.group(1).trim();
+            String first = name.split("\\s")[0].toLowerCase();
+            return EN_NOT_A_NAME.contains(first)
+                    ? Detection.AMBIGUOUS
+                    : new Detection(Decision.EXTRACTED, name);
+        }
+
+        return Detection.AMBIGUOUS;
+    }
+
+    private static boolean hasCue(String text) {
+        for (String cue : KO_CUES) {
+            if (text.contains(cue)) return true;
+        }
+        return hasAsciiLetter(text) && EN_CUE.matcher(text).find();
+    }
+
+    private static boolean hasAsciiLetter(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) return true;
+        }
+        return false;
+    }
+
+    /**
+     * "선생님이라고" 처럼 받침 뒤 조사 '이/으' 가 호칭에 붙어 잡힌 경우 떼어냄
+     * - 바로 앞 글자에 받침이 있을 때만 조사로 판단 ("미이라고" 의 '이' 는 이름의 일부)
+     */
+    private static String stripParticle(String name, String suffix) {
+        char particle = suffix.endsWith("로") ? '으' : '이';
+        int n = name.length();
+        if (n >= 2 && name.charAt(n - 1) == particle && hasBatchim(name.charAt(n - 2))) {
+            return name.substring(0, n - 1);
+        }
+        return name;
+    }
+
+    private static boolean hasBatchim(char c) {
+        return c >= '가' && c <= '힣' && (c - '가') % 28 != 0;
+    }
+}
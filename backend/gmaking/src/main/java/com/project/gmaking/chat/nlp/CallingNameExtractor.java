@@ -1,14 +1,34 @@
 package com.project.gmaking.chat.nlp;
 
 import com.project.gmaking.chat.llm.LlmClient;
+import com.project.gmaking.chat.llm.LlmContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+
+/**
+ * 유저 발화에서 새 호칭 추출
+ * - CallingNameDetector 로 먼저 판별: 호칭 요청이 없으면 바로 "", 형태가 분명하면 로컬에서 추출
+ * - 애매한 경우에만 LLM 호출 (chat.calling-name.detect{decision} 카운터로 비율 확인)
+ */
 @Component
 @RequiredArgsConstructor
 public class CallingNameExtractor {
     private final LlmClient llm;
+    private final MeterRegistry meterRegistry;
 
     public String extract(String userUtterance, String currentCalling) {
+        CallingNameDetector.Detection detection = CallingNameDetector.detect(userUtterance);
+        meterRegistry.counter("chat.calling-name.detect", "decision", detection.decision().name()).increment();
+
+        return switch (detection.decision()) {
+            case NONE -> "";
+            case EXTRACTED -> normalize(detection.name(), currentCalling);
+            case AMBIGUOUS -> extractWithLlm(userUtterance, currentCalling);
+        };
+    }
+
+    private String extractWithLlm(String userUtterance, String currentCalling) {
         String sys = """
             사용자가 자신을 뭐라고 불러달라고 했는지 추출하라.
             예) "저 쿠로라고 불러", "앞으로 나 '민지'라고 불러줘"
@@ -16,11 +36,13 @@ public class CallingNameExtractor {
             - 새 호칭만 순수 텍스트로 반환 (따옴표, 이모지, 접미사 제거)
             - 못 찾으면 빈 문자열
         """;
+        // 계측 기능 태그 (채팅 턴 안에서 호출되므로 끝나면 이전 값으로 되돌림)
+        String prevFeature = LlmContext.feature();
+        LlmContext.feature("calling_name");
         try {
             String res = llm.chat(sys, userUtterance);
             if (res == null) return "";
             String v = res.trim();
-            if (v.length() > 20) v = v.substring(0, 20); // 과도 방어
 
             if (v.equalsIgnoreCase("없음") ||
                     v.equalsIgnoreCase("none") ||
@@ -29,16 +51,21 @@ public class CallingNameExtractor {
                     v.isBlank()) {
                 return "";
             }
-
-            if (v.equalsIgnoreCase("없음") || v.equalsIgnoreCase("none")) return "";
-            // 기존과 동일하면 변경 안 함
-            if (currentCalling != null && currentCalling.equals(v)) return "";
-            // 안전 필터(공백/따옴표 제거)
-            v = v.replaceAll("[\"'`]", "").trim();
-            return v;
+            return normalize(v, currentCalling);
         } catch (Exception e) {
             return "";
+        } finally {
+            LlmContext.feature(prevFeature);
         }
     }
-}
 
+    private String normalize(String calling, String currentCalling) {
+        String v = calling.trim();
+        if (v.length() > 20) v = v.substring(0, 20); // 과도 방어
+        // 기존과 동일하면 변경 안 함
+        if (currentCalling != null && currentCalling.equals(v)) return "";
+        // 안전 필터(공백/따옴표 제거)
+        v = v.replaceAll("[\"'`]", "").trim();
+        return v;
+    }
+}
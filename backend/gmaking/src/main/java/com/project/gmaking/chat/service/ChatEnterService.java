@@ -6,6 +6,7 @@ import com.project.gmaking.chat.dao.ChatDAO;
 import com.project.gmaking.chat.dao.ConversationDAO;
 import com.project.gmaking.chat.dao.PersonaDAO;
 import com.project.gmaking.chat.llm.LlmClient;
+import com.project.gmaking.chat.llm.LlmContext;
 import com.project.gmaking.chat.vo.ConversationVO;
 import com.project.gmaking.chat.vo.DialogueVO;
 import com.project.gmaking.chat.vo.EnterResponseVO;
@@ -28,6 +29,7 @@ public class ChatEnterService {
     private final ConversationDAO conversationDAO;
     private final LlmClient llmClient;
     private final ConversationSummaryService conversationSummaryService;
+    private final ConversationContextCache contextCache;
 
     @Transactional
     public EnterResponseVO enterChat(String userId, Integer characterId) {
@@ -110,6 +112,9 @@ public class ChatEnterService {
 
         List<DialogueVO> history = chatDAO.selectRecentDialogues(convId, 30);
 
+        // 입장 시 상태/인사/지연 삭제가 바뀌었을 수 있으므로 채팅 컨텍스트는 다음 전송에서 다시 적재
+        contextCache.invalidate(userId, characterId);
+
         return EnterResponseVO.builder()
                 .personaId(persona.getPersonaId())
                 .conversationId(convId)
@@ -120,11 +125,15 @@ public class ChatEnterService {
     }
 
     private String safeChat(String sys, String user, String fallback) {
+        String prevFeature = LlmContext.feature();
+        LlmContext.feature("greeting");
         try {
             String r = llmClient.chat(sys, user);
             return (r == null || r.isBlank()) ? fallback : r;
         } catch (Exception e) {
             return fallback;
+        } finally {
+            LlmContext.feature(prevFeature);
         }
     }
 
@@ -166,6 +175,7 @@ public class ChatEnterService {
         // 2) 닫기
         int updated = conversationDAO.closeConversation(convId, userId);
         log.info("[EXIT] closed rows={}", updated);
+        contextCache.invalidate(userId, characterId);
 
     }
 }
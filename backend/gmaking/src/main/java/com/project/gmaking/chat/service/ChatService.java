@@ -3,9 +3,12 @@ package com.project.gmaking.chat.service;
 import com.project.gmaking.chat.vo.DialogueVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ChatService {
     String send(String userId, Integer CharacterId, String message);
+    // 토큰 조각을 onDelta 로 넘기며 응답 생성, 끝나면 전체 응답을 저장하고 반환
+    String sendStream(String userId, Integer characterId, String message, Consumer<String> onDelta);
     List<DialogueVO> history(String userId, Integer characterId, int limit);
 
 }
@@ -7,6 +7,7 @@ import com.project.gmaking.chat.dao.ConversationDAO;
 import com.project.gmaking.chat.dao.LongMemoryDAO;
 import com.project.gmaking.chat.llm.LlmClient;
 import com.project.gmaking.chat.llm.GeminiClientSdkImpl;
+import com.project.gmaking.chat.llm.LlmContext;
 import com.project.gmaking.chat.nlp.CallingNameExtractor;
 import com.project.gmaking.chat.vo.ConversationVO;
 import com.project.gmaking.chat.vo.DialogueVO;
@@ -16,11 +17,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -35,85 +38,141 @@ public class ChatServiceImpl implements ChatService {
     private final LongMemoryDAO longMemoryDAO;
     private final CallingNameExtractor callingNameExtractor;
     private final ConversationSummaryService conversationSummaryService;
-    private final ConversationSummarizePipelineService pipeline;
+    private final ConversationSummarizeWorker summarizeWorker;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationContextCache contextCache;
 
     @Override
     @Transactional
     public String send(String userId, Integer characterId, String message) {
+        PreparedTurn turn = prepareTurn(userId, characterId, message);
 
-        // 1) 대화방 확보
-        Integer convId = chatDAO.findLatestConversationId(userId, characterId);
-        if (convId == null) {
-            chatDAO.createConversation(userId, characterId, userId);
-            convId = chatDAO.findLatestConversationId(userId, characterId);
+        // 11) LLM 호출 (요약/장기기억 주입 가능 시 사용, 아니면 폴백)
+        String reply;
+        LlmContext.feature("chat");
+        try {
+            if (llmClient instanceof GeminiClientSdkImpl gem) {
+                // Gemini는 네이티브 메서드 사용
+                reply = gem.chatWithMemory(
+                        turn.systemPrompt(),
+                        turn.summaryText(),
+                        turn.memories(),
+                        turn.recent(),
+                        message
+                );
+            } else {
+                // 폴백 모델은 systemPrompt에 메모리 프리픽스를 합쳐서 전달
+                reply = llmClient.chatWithHistory(turn.systemPromptWithMemory(), turn.recent(), message);
+            }
+            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
+        } catch (Exception e) {
+            log.error("Gemini error userId={}, characterId={}", userId, characterId, e);
+            reply = "AI 응답 생성 중 오류가 발생했습니다.";
         }
 
-        // 2) 자정 지연 삭제 플래그 처리(요약 성공 시 로그 클린)
-        cleanupIfDelayed(convId, userId);
+        // 11) 캐릭터 발화 저장
+        saveCharacterReply(turn, userId, reply);
 
-        // 3) 페르소나 확보
-        PersonaVO persona = personaDAO.selectPersonaByCharacterId(characterId);
-        if (persona == null) {
-            persona = personaService.ensurePersona(characterId, userId);
+        return reply;
+    }
+
+    /**
+     * 스트리밍 전송
+     * - 준비 단계(대화방/유저 발화 저장/호칭 반영)만 트랜잭션으로 묶고, 스트리밍 동안은 DB 커넥션을 잡지 않음
+     * - 스트림이 끝나면 전체 응답을 캐릭터 발화로 저장
+     * - 중간에 끊기면(클라이언트 종료/모델 오류) 이미 보낸 부분까지 저장, 하나도 못 보냈으면 오류 문구 저장
+     */
+    @Override
+    public String sendStream(String userId, Integer characterId, String message, Consumer<String> onDelta) {
+        PreparedTurn turn = transactionTemplate.execute(status -> prepareTurn(userId, characterId, message));
+
+        StringBuilder streamed = new StringBuilder();
+        String reply;
+        LlmContext.feature("chat_stream");
+        try {
+            reply = llmClient.chatWithHistoryStream(turn.systemPromptWithMemory(), turn.recent(), message, delta -> {
+                streamed.append(delta);
+                onDelta.accept(delta);
+            });
+            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
+        } catch (Exception e) {
+            log.error("LLM stream error userId={}, characterId={}, streamedChars={}",
+                    userId, characterId, streamed.length(), e);
+            reply = streamed.toString().isBlank() ? "AI 응답 생성 중 오류가 발생했습니다." : streamed.toString().trim();
         }
 
-        // 4) 유저 발화 저장
-        chatDAO.insertDialogue(DialogueVO.builder()
+        saveCharacterReply(turn, userId, reply);
+
+        return reply;
+    }
+
+    // LLM 호출에 필요한 한 턴의 준비 결과
+    private record PreparedTurn(ConversationContextCache.Context context,
+                                Integer convId,
+                                String systemPrompt,
+                                String systemPromptWithMemory,
+                                String summaryText,
+                                List<GeminiClientSdkImpl.MemoryItem> memories,
+                                List<DialogueVO> recent) {}
+
+    /**
+     * 1)~10) 대화방 확보부터 LLM 컨텍스트 구성까지 (호출 측 트랜잭션 안에서 실행)
+     * - 대화방/페르소나/호칭/첫만남/요약/장기기억/최근 대화는 ConversationContextCache 에서 읽고, 없을 때만 DB 에서 적재
+     * - 이번 턴의 변경(유저 발화, 첫만남 해제, 호칭)은 DB 에 쓴 뒤 캐시에도 반영
+     */
+    private PreparedTurn prepareTurn(String userId, Integer characterId, String message) {
+
+        // 1)~3) 대화방/지연 삭제/페르소나 (캐시에 없을 때만)
+        ConversationContextCache.Context ctx = loadContext(userId, characterId);
+        contextCache.evictOnRollback(userId, characterId);
+        Integer convId = ctx.convId();
+
+        // 4) 유저 발화 저장 (이번 발화는 LLM 히스토리에서 제외하므로 스냅샷을 먼저 뜸)
+        DialogueVO userLine = DialogueVO.builder()
                 .conversationId(convId)
                 .sender(DialogueSender.USER)
                 .content(message)
                 .createdBy(userId)
                 .updatedBy(userId)
-                .build());
+                .build();
+        chatDAO.insertDialogue(userLine);
+        List<DialogueVO> recent = ctx.recent();
+        ctx.append(userLine);
 
-        // 5) 롤링 요약/장기기억 파이프라인 (비차단/베스트에포트)
-        try {
-            try {
-                pipeline.maybeSummarizeAndExtract(convId, null, userId, characterId, "threshold", false);
-            } catch (Exception e) {
-                log.warn("[SummaryPipeline] runtime force failed convId={} user={} charId={}", convId, userId, characterId, e);
-            }
-        } catch (Exception e) {
-            log.warn("[SummaryPipeline] runtime force failed convId={} user={} charId={}", convId, userId, characterId, e);
-        }
+        // 5) 롤링 요약/장기기억 파이프라인 (백그라운드 실행, 커밋 이후 등록 - 응답을 기다리게 하지 않음)
+        summarizeWorker.request(convId, userId, characterId, "threshold");
 
         // 6) 첫만남 플래그 해제
-        ConversationVO conv = conversationDAO.selectConversationByUserAndCharacter(userId, characterId);
-        if (conv != null && Boolean.TRUE.equals(conv.getIsFirstMeet())) {
-            conversationDAO.updateFirstMeetFlag(conv.getConversationId(), false, userId);
+        if (ctx.clearFirstMeet()) {
+            conversationDAO.updateFirstMeetFlag(convId, false, userId);
         }
 
         // 7) 호칭 추출 + DB 반영 (같은 요청에 즉시 반영)
-        String currentCalling = conversationDAO.selectCallingName(convId);
+        String currentCalling = ctx.callingName();
         String newCalling = callingNameExtractor.extract(message, currentCalling);
         if (newCalling != null
                 && !newCalling.isBlank()
                 && !"빈 응답입니다.".equalsIgnoreCase(newCalling)
                 && !"no response".equalsIgnoreCase(newCalling)) {
             conversationDAO.updateCallingName(convId, newCalling, userId);
+            ctx.callingName(newCalling);
             currentCalling = newCalling;
         }
 
         // 8) 시스템 프롬프트에 호칭 주입
-        String systemPrompt = buildSystemPrompt(
-                persona != null ? persona.getInstructionPrompt() : null,
-                currentCalling
-        );
-
-        // 9) LLM 컨텍스트용 히스토리 구성 (오래된→최신)
-        List<DialogueVO> recent = chatDAO.selectRecentDialogues(convId, 20); // 최신→오래된
-        Collections.reverse(recent); // 오래된→최신으로 정렬
-        if (!recent.isEmpty()) {
-            DialogueVO last = recent.get(recent.size() - 1);
-            if (last.getSender() == DialogueSender.USER && message.equals(last.getContent())) {
-                // 이번 턴의 유저 발화(방금 insert 한 것)는 컨텍스트에서 제외
-                recent.remove(recent.size() - 1);
-            }
+        String systemPrompt = buildSystemPrompt(ctx.personaPrompt(), currentCalling);
+
+        // 9) LLM 컨텍스트용 히스토리 (오래된→최신, 이번 발화 포함 최근 N개 기준이므로 직전 N-1개)
+        int keep = contextCache.recentSize() - 1;
+        if (recent.size() > keep) {
+            recent = new ArrayList<>(recent.subList(recent.size() - keep, recent.size()));
         }
 
-        // 10) LLM 호출 직전에 메모리 조회
-        String summaryText = fetchConversationSummarySafe(convId);
-        List<GeminiClientSdkImpl.MemoryItem> memories = fetchTopMemoriesSafe(userId, characterId);
+        // 10) 요약/장기기억 (요약 파이프라인이 갱신한 항목만 다시 조회)
+        if (ctx.summaryStale()) ctx.summary(fetchConversationSummarySafe(convId));
+        if (ctx.memoriesStale()) ctx.memories(fetchMemoriesSafe(userId, characterId));
+        String summaryText = ctx.summary();
+        List<GeminiClientSdkImpl.MemoryItem> memories = toMemoryItems(ctx.memories());
 
         // ▶ 공통 주입용 텍스트 생성 (Gemini 미사용/폴백 대비)
         String memoryPrefix = buildMemoryContext(summaryText, memories);
@@ -123,38 +182,63 @@ public class ChatServiceImpl implements ChatService {
                 ? systemPrompt
                 : systemPrompt + "\n\n" + memoryPrefix;
 
-        // 11) LLM 호출 (요약/장기기억 주입 가능 시 사용, 아니면 폴백)
-        String reply;
-        try {
-            if (llmClient instanceof GeminiClientSdkImpl gem) {
-                // Gemini는 네이티브 메서드 사용
-                reply = gem.chatWithMemory(
-                        systemPrompt,
-                        summaryText,
-                        memories,
-                        recent,
-                        message
-                );
-            } else {
-                // 폴백 모델은 systemPrompt에 메모리 프리픽스를 합쳐서 전달
-                reply = llmClient.chatWithHistory(systemPromptWithMemory, recent, message);
-            }
-            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
-        } catch (Exception e) {
-            log.error("Gemini error userId={}, characterId={}", userId, characterId, e);
-            reply = "AI 응답 생성 중 오류가 발생했습니다.";
+        return new PreparedTurn(ctx, convId, systemPrompt, systemPromptWithMemory, summaryText, memories, recent);
+    }
+
+    /** 캐시된 컨텍스트, 없으면 DB 에서 적재해 등록 */
+    private ConversationContextCache.Context loadContext(String userId, Integer characterId) {
+        ConversationContextCache.Context cached = contextCache.get(userId, characterId);
+        if (cached != null) return cached;
+
+        // 1) 대화방 확보
+        Integer convId = chatDAO.findLatestConversationId(userId, characterId);
+        if (convId == null) {
+            chatDAO.createConversation(userId, characterId, userId);
+            convId = chatDAO.findLatestConversationId(userId, characterId);
         }
 
-        // 11) 캐릭터 발화 저장
-        chatDAO.insertDialogue(DialogueVO.builder()
-                .conversationId(convId)
+        // 2) 자정 지연 삭제 플래그 처리(요약 성공 시 로그 클린)
+        cleanupIfDelayed(convId, userId);
+
+        // 3) 페르소나 확보
+        PersonaVO persona = personaDAO.selectPersonaByCharacterId(characterId);
+        if (persona == null) {
+            persona = personaService.ensurePersona(characterId, userId);
+        }
+
+        // 첫만남 플래그 / 호칭
+        ConversationVO conv = conversationDAO.selectConversationByUserAndCharacter(userId, characterId);
+        boolean firstMeet = conv != null && Boolean.TRUE.equals(conv.getIsFirstMeet());
+        String calling = (conv != null && convId.equals(conv.getConversationId()))
+                ? conv.getCallingName()
+                : conversationDAO.selectCallingName(convId);
+
+        // 최근 대화 (최신→오래된 -> 오래된→최신)
+        List<DialogueVO> recent = chatDAO.selectRecentDialogues(convId, contextCache.recentSize());
+        Collections.reverse(recent);
+
+        ConversationContextCache.Context loaded = new ConversationContextCache.Context(
+                convId,
+                persona != null ? persona.getInstructionPrompt() : null,
+                calling,
+                firstMeet,
+                fetchConversationSummarySafe(convId),
+                fetchMemoriesSafe(userId, characterId),
+                recent,
+                contextCache.recentSize());
+        return contextCache.put(userId, characterId, loaded);
+    }
+
+    private void saveCharacterReply(PreparedTurn turn, String userId, String reply) {
+        DialogueVO line = DialogueVO.builder()
+                .conversationId(turn.convId())
                 .sender(DialogueSender.CHARACTER)
                 .content(reply)
                 .createdBy(userId)
                 .updatedBy(userId)
-                .build());
-
-        return reply;
+                .build();
+        chatDAO.insertDialogue(line);
+        turn.context().append(line);
     }
 
     private String buildSystemPrompt(String personaPrompt, String callingName) {
@@ -207,43 +291,48 @@ public class ChatServiceImpl implements ChatService {
     }
 
     /**
-     * 상위 N개 장기기억을 안전하게 가져와 Gemini 주입용 DTO로 변환. 없으면 빈 리스트.
+     * 장기기억 후보를 안전하게 가져옴. 없으면 빈 리스트.
      * LongMemoryDAO.selectListByUserAndCharacter(userId, characterId, limit)를 사용.
      * (정렬/필터는 Mapper에서: 최근 사용순/유효건 위주로 구현되어 있다고 가정)
      */
-    private List<GeminiClientSdkImpl.MemoryItem> fetchTopMemoriesSafe(String userId, Integer characterId) {
+    private List<LongMemoryVO> fetchMemoriesSafe(String userId, Integer characterId) {
         try {
-            int limit = 12; // 넉넉히 읽고 아래서 필터 + 상위 6개만 사용
+            int limit = 12; // 넉넉히 읽고 toMemoryItems 에서 필터 + 상위 6개만 사용
             List<LongMemoryVO> raw = longMemoryDAO.selectListByUserAndCharacter(userId, characterId, limit);
-            if (raw == null || raw.isEmpty()) return Collections.emptyList();
-
-            var now = java.time.LocalDateTime.now();
-            List<GeminiClientSdkImpl.MemoryItem> out = new ArrayList<>();
-            for (LongMemoryVO m : raw) {
-                // 1) confidence 필터 (0.65 이상)
-                if (m.getConfidence()!=null && m.getConfidence() < 0.65) continue;
-                // 2) 만료 스케줄 제외
-                if (m.getDueAt()!=null && m.getDueAt().isBefore(now)) continue;
-                // 3) 카테고리 화이트리스트 (원하면 추가)
-                String cat = (m.getCategory()==null? "": m.getCategory().toUpperCase());
-                if (!cat.equals("FAVORITE") && !cat.equals("DISLIKE") && !cat.equals("SCHEDULE")) continue;
-
-                out.add(GeminiClientSdkImpl.MemoryItem.builder()
-                        .category(nz(m.getCategory()))
-                        .subject(nz(m.getSubject()))
-                        .value(nz(m.getValue()))
-                        .dueAt(m.getDueAt()==null ? null : m.getDueAt().toString())
-                        .build());
-
-                if (out.size() >= 6) break; // 최종 주입 수 제한
-            }
-            return out;
+            return raw == null ? Collections.emptyList() : raw;
         } catch (Exception e) {
-            log.warn("[Chat] fetchTopMemoriesSafe failed userId={} charId={}", userId, characterId, e);
+            log.warn("[Chat] fetchMemoriesSafe failed userId={} charId={}", userId, characterId, e);
             return Collections.emptyList();
         }
     }
 
+    /** 장기기억 후보를 필터링해 Gemini 주입용 DTO로 변환 (만료 판단은 매 턴 현재 시각 기준) */
+    private List<GeminiClientSdkImpl.MemoryItem> toMemoryItems(List<LongMemoryVO> raw) {
+        if (raw == null || raw.isEmpty()) return Collections.emptyList();
+
+        var now = java.time.LocalDateTime.now();
+        List<GeminiClientSdkImpl.MemoryItem> out = new ArrayList<>();
+        for (LongMemoryVO m : raw) {
+            // 1) confidence 필터 (0.65 이상)
+            if (m.getConfidence()!=null && m.getConfidence() < 0.65) continue;
+            // 2) 만료 스케줄 제외
+            if (m.getDueAt()!=null && m.getDueAt().isBefore(now)) continue;
+            // 3) 카테고리 화이트리스트 (원하면 추가)
+            String cat = (m.getCategory()==null? "": m.getCategory().toUpperCase());
+            if (!cat.equals("FAVORITE") && !cat.equals("DISLIKE") && !cat.equals("SCHEDULE")) continue;
+
+            out.add(GeminiClientSdkImpl.MemoryItem.builder()
+                    .category(nz(m.getCategory()))
+                    .subject(nz(m.getSubject()))
+                    .value(nz(m.getValue()))
+                    .dueAt(m.getDueAt()==null ? null : m.getDueAt().toString())
+                    .build());
+
+            if (out.size() >= 6) break; // 최종 주입 수 제한
+        }
+        return out;
+    }
+
     private String buildMemoryContext(String summary, List<GeminiClientSdkImpl.MemoryItem> mems) {
         StringBuilder sb = new StringBuilder();
         if (summary != null && !summary.isBlank()) {
@@ -0,0 +1,159 @@
+package com.project.gmaking.chat.service;
+
+import com.project.gmaking.aiLog.service.ChatUsageLogSevice;
+import com.project.gmaking.chat.llm.LlmContext;
+import com.project.gmaking.chat.llm.QuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 응답 SSE 스트리밍
+ * - 요청 스레드는 SseEmitter 만 반환하고, LLM 스트리밍은 전용 스레드에서 진행
+ * - 이벤트: delta({"text"}) 조각마다, done({"reply","characterId"}) 저장 완료 후, error({"error"}) 실패 시
+ * - 브라우저가 연결을 끊으면 다음 조각 전송 시점에 LLM 호출을 중단 (그때까지 받은 응답은 저장)
+ * - 동시 스트림 수는 스레드 수 + 대기열로 제한, 넘치면 바로 error 이벤트로 거절
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatStreamService {
+
+    private static final String DEFAULT_MODEL = "gemini-2.0-flash";
+
+    private final ChatService chatService;
+    private final ChatUsageLogSevice chatUsageLogService;
+    private final MeterRegistry meterRegistry;
+
+    // 동시에 진행하는 스트리밍 응답 수 (스트림 하나가 스레드 하나를 끝까지 점유)
+    @Value("${chat.stream.threads:16}")
+    private int threads;
+
+    // 스레드가 모두 사용 중일 때 대기할 수 있는 요청 수
+    @Value("${chat.stream.max-queued:64}")
+    private int maxQueued;
+
+    // SSE 연결 유지 시간 (넘으면 연결 종료)
+    @Value("${chat.stream.timeout-ms:120000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejectedCounter;
+    private Counter cancelledCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        int n = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueued)), r -> {
+            Thread t = new Thread(r, "chat-stream-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("chat.stream.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("진행 중인 채팅 스트리밍 응답 수")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("chat.stream.rejected")
+                .description("대기열 초과로 거절한 채팅 스트리밍 요청 수")
+                .register(meterRegistry);
+        cancelledCounter = Counter.builder("chat.stream.cancelled")
+                .description("클라이언트 연결 종료로 중단된 채팅 스트리밍 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+    }
+
+    public SseEmitter open(String userId, Integer characterId, String message) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean closed = new AtomicBoolean(false);
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+
+        try {
+            executor.execute(() -> stream(emitter, closed, userId, characterId, message));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("[ChatStream] 대기열 초과로 거절 userId={}, characterId={}", userId, characterId);
+            sendError(emitter, "요청이 많아 잠시 후 다시 시도해 주세요.");
+        }
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean closed, String userId, Integer characterId, String message) {
+        String usageStatus = "success";
+        String errorMessage = null;
+        try {
+            String reply = chatService.sendStream(userId, characterId, message, delta -> {
+                if (closed.get()) {
+                    throw new CancellationException("client closed: userId=" + userId);
+                }
+                try {
+                    send(emitter, "delta", Map.of("text", delta));
+                } catch (UncheckedIOException e) {
+                    // 전송 실패 = 연결 끊김 (onError 콜백보다 먼저 알게 되는 경우)
+                    closed.set(true);
+                    throw new CancellationException("client closed: userId=" + userId);
+                }
+            });
+
+            if (closed.get()) {
+                cancelledCounter.increment();
+                log.info("[ChatStream] 클라이언트 종료 userId={}, characterId={}", userId, characterId);
+            } else {
+                send(emitter, "done", Map.of("reply", reply, "characterId", characterId));
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            usageStatus = e instanceof QuotaExceededException ? "quota_exceeded" : "error";
+            errorMessage = e.getMessage();
+            log.error("[ChatStream] 오류 userId={}, characterId={}", userId, characterId, e);
+            if (!closed.get()) sendError(emitter, "오류 발생!");
+        } finally {
+            String modelName = LlmContext.get() != null ? LlmContext.get() : DEFAULT_MODEL;
+            int inputTokens = LlmContext.inputTokens();
+            int outputTokens = LlmContext.outputTokens();
+            LlmContext.clear();
+            chatUsageLogService.recordUsage(userId, "chat", modelName, usageStatus, errorMessage, userId,
+                    inputTokens, outputTokens);
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, Map<String, Object> data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("error", message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class ConversationCleanupService {
     private final ConversationDAO conversationDAO;
     private final ChatDAO chatDAO;
     private final ConversationSummaryService conversationSummaryService;
+    private final ConversationContextCache contextCache;
 
 
     /** 한 번 실행에 한 페이지만 처리 */
@@ -68,6 +69,7 @@ public class ConversationCleanupService {
         // 로그 삭제 후 ARCHIVED 전환
         chatDAO.deleteDialoguesByConversationId(convId);
         conversationDAO.updateStatus(convId, ConversationStatus.ARCHIVED, "system@cleaner");
+        contextCache.invalidateConversation(convId);
         log.info("[Cleaner] archived convId={}", convId);
         return true;
     }
@@ -75,6 +77,8 @@ public class ConversationCleanupService {
     @Transactional
     public int markOpenForDelay() {
         int updated = conversationDAO.markDelayLogCleanForOpen();
+        // 열린 대화방 전체의 지연 삭제 플래그가 켜졌으므로 다음 전송에서 다시 적재(지연 삭제 처리 포함)
+        contextCache.invalidateAll();
         log.info("[Cleaner] open marked delay_log_clean=1 -> {}", updated);
         return updated;
     }
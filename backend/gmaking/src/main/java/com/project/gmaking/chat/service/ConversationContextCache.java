@@ -0,0 +1,263 @@
+package com.project.gmaking.chat.service;
+
+import com.project.gmaking.chat.vo.DialogueVO;
+import com.project.gmaking.chat.vo.LongMemoryVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (유저, 캐릭터)별 채팅 컨텍스트 메모리 캐시
+ * - 대화방 ID, 페르소나 프롬프트, 호칭, 첫만남 플래그, 롤링 요약, 장기기억, 최근 대화(링 버퍼)를 보관
+ * - 채팅 한 턴에서 바뀌는 값(발화/호칭/첫만남)은 DB 에 쓴 직후 여기에도 반영 (write-through)
+ * - 다른 경로에서 바뀌는 값은 무효화로 처리
+ *   · 요약/장기기억: 요약 파이프라인이 저장하면 해당 항목만 stale 표시 -> 다음 턴에 그 항목만 다시 조회
+ *   · 입장/퇴장/정리 배치/자정 지연 삭제 표시: 컨텍스트 전체 제거 -> 다음 턴에 전부 다시 적재
+ * - idle-ms 동안 사용하지 않은 컨텍스트는 주기적으로 제거, max-entries 를 넘으면 새 컨텍스트는 캐시하지 않음
+ * - 서버 인스턴스 로컬 캐시 (다른 인스턴스의 변경은 보지 못하므로 단일 인스턴스 기준)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationContextCache {
+
+    private final MeterRegistry meterRegistry;
+
+    // 마지막 사용 후 이 시간이 지나면 제거
+    @Value("${chat.context.idle-ms:1800000}")
+    private long idleMs;
+
+    // 캐시할 최대 (유저, 캐릭터) 수
+    @Value("${chat.context.max-entries:10000}")
+    private int maxEntries;
+
+    // 최근 대화 링 버퍼 크기 (LLM 히스토리 조회 개수와 같게)
+    @Value("${chat.context.recent-size:20}")
+    private int recentSize;
+
+    private final Map<Key, Context> contexts = new ConcurrentHashMap<>();
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    private record Key(String userId, Integer characterId) {}
+
+    /**
+     * 한 (유저, 캐릭터)의 채팅 컨텍스트
+     * - 가변 필드는 this 잠금 안에서만 읽고 씀
+     */
+    public static final class Context {
+        private final Integer convId;
+        private final String personaPrompt;
+        private final int recentSize;
+        private final ArrayDeque<DialogueVO> recent;
+        private String callingName;
+        private boolean firstMeet;
+        private String summary;
+        private boolean summaryStale;
+        private List<LongMemoryVO> memories;
+        private boolean memoriesStale;
+        private volatile long lastAccessMs = System.currentTimeMillis();
+
+        /** recentChrono: 오래된 -> 최신 순 */
+        public Context(Integer convId, String personaPrompt, String callingName, boolean firstMeet,
+                       String summary, List<LongMemoryVO> memories, List<DialogueVO> recentChrono, int recentSize) {
+            this.convId = convId;
+            this.personaPrompt = personaPrompt;
+            this.callingName = callingName;
+            this.firstMeet = firstMeet;
+            this.summary = summary;
+            this.memories = memories == null ? List.of() : List.copyOf(memories);
+            this.recentSize = Math.max(1, recentSize);
+            this.recent = new ArrayDeque<>(this.recentSize);
+            if (recentChrono != null) recentChrono.forEach(this::append);
+        }
+
+        public Integer convId() {
+            return convId;
+        }
+
+        public String personaPrompt() {
+            return personaPrompt;
+        }
+
+        public synchronized String callingName() {
+            return callingName;
+        }
+
+        public synchronized void callingName(String callingName) {
+            this.callingName = callingName;
+        }
+
+        /** 첫만남이면 플래그를 내리고 true (한 번만 true) */
+        public synchronized boolean clearFirstMeet() {
+            boolean was = firstMeet;
+            firstMeet = false;
+            return was;
+        }
+
+        public synchronized boolean summaryStale() {
+            return summaryStale;
+        }
+
+        public synchronized String summary() {
+            return summary;
+        }
+
+        public synchronized void summary(String summary) {
+            this.summary = summary;
+            this.summaryStale = false;
+        }
+
+        public synchronized boolean memoriesStale() {
+            return memoriesStale;
+        }
+
+        public synchronized List<LongMemoryVO> memories() {
+            return memories;
+        }
+
+        public synchronized void memories(List<LongMemoryVO> memories) {
+            this.memories = memories == null ? List.of() : List.copyOf(memories);
+            this.memoriesStale = false;
+        }
+
+        /** 저장한 발화를 링 버퍼 끝에 추가 (가득 차면 가장 오래된 발화 제거) */
+        public synchronized void append(DialogueVO dialogue) {
+            if (recent.size() == recentSize) recent.removeFirst();
+            recent.addLast(dialogue);
+        }
+
+        /** 최근 대화 복사본 (오래된 -> 최신) */
+        public synchronized List<DialogueVO> recent() {
+            return new ArrayList<>(recent);
+        }
+
+        private synchronized void markSummaryStale() {
+            summaryStale = true;
+        }
+
+        private synchronized void markMemoriesStale() {
+            memoriesStale = true;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("chat.context.size", contexts, Map::size)
+                .description("캐시된 채팅 컨텍스트 수")
+                .register(meterRegistry);
+        hitCounter = Counter.builder("chat.context.lookup").tag("result", "hit")
+                .description("채팅 컨텍스트 캐시 조회 수")
+                .register(meterRegistry);
+        missCounter = Counter.builder("chat.context.lookup").tag("result", "miss")
+                .description("채팅 컨텍스트 캐시 조회 수")
+                .register(meterRegistry);
+    }
+
+    public int recentSize() {
+        return recentSize;
+    }
+
+    /** 캐시된 컨텍스트 (없으면 null, 호출 측이 DB 에서 적재 후 put) */
+    public Context get(String userId, Integer characterId) {
+        Context ctx = contexts.get(new Key(userId, characterId));
+        if (ctx == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        ctx.lastAccessMs = System.currentTimeMillis();
+        return ctx;
+    }
+
+    /**
+     * 적재한 컨텍스트 등록
+     * - 동시에 다른 요청이 먼저 등록했으면 그쪽을 반환 (같은 대화에 대한 두 버퍼가 생기지 않도록)
+     * - 상한을 넘으면 등록하지 않고 적재한 컨텍스트를 이번 요청에만 사용
+     */
+    public Context put(String userId, Integer characterId, Context ctx) {
+        if (contexts.size() >= maxEntries) return ctx;
+        Context prev = contexts.putIfAbsent(new Key(userId, characterId), ctx);
+        return prev != null ? prev : ctx;
+    }
+
+    /** 컨텍스트 제거 (커밋 이후) */
+    public void invalidate(String userId, Integer characterId) {
+        afterCommit(() -> contexts.remove(new Key(userId, characterId)));
+    }
+
+    /** 현재 트랜잭션이 롤백되면 제거 (write-through 로 먼저 반영한 값이 DB 와 어긋나지 않도록) */
+    public void evictOnRollback(String userId, Integer characterId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) contexts.remove(new Key(userId, characterId));
+            }
+        });
+    }
+
+    /** 대화방 기준 제거 (배치 정리 등 userId 를 모르는 경로, 커밋 이후) */
+    public void invalidateConversation(Integer convId) {
+        afterCommit(() -> contexts.values().removeIf(c -> c.convId().equals(convId)));
+    }
+
+    /** 전체 제거 (자정 지연 삭제 표시처럼 모든 대화방이 바뀌는 경우, 커밋 이후) */
+    public void invalidateAll() {
+        afterCommit(contexts::clear);
+    }
+
+    /** 롤링 요약이 저장됨 -> 다음 턴에 요약만 다시 조회 (커밋 이후) */
+    public void summaryChanged(Integer convId) {
+        afterCommit(() -> contexts.values().forEach(c -> {
+            if (c.convId().equals(convId)) c.markSummaryStale();
+        }));
+    }
+
+    /** 장기기억이 바뀜 -> 다음 턴에 장기기억만 다시 조회 (커밋 이후) */
+    public void memoriesChanged(String userId, Integer characterId) {
+        afterCommit(() -> {
+            Context ctx = contexts.get(new Key(userId, characterId));
+            if (ctx != null) ctx.markMemoriesStale();
+        });
+    }
+
+    /** 주기적으로 유휴 컨텍스트 제거 */
+    @Scheduled(fixedDelayString = "${chat.context.sweep-interval-ms:60000}")
+    public void scheduledEvict() {
+        long deadline = System.currentTimeMillis() - idleMs;
+        int before = contexts.size();
+        contexts.values().removeIf(c -> c.lastAccessMs < deadline);
+        int evicted = before - contexts.size();
+        if (evicted > 0) {
+            log.debug("[ChatContext] idle evicted={}, remain={}", evicted, contexts.size());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+}
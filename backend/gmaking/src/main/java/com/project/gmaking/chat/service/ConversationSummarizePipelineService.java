@@ -6,10 +6,12 @@ import com.project.gmaking.chat.dao.ConversationDAO;
 import com.project.gmaking.chat.dao.ConversationSummaryDAO;
 import com.project.gmaking.chat.dao.LongMemoryDAO;
 import com.project.gmaking.chat.llm.LlmClient;
+import com.project.gmaking.chat.llm.LlmContext;
 import com.project.gmaking.chat.llm.SummarizeResult;
 import com.project.gmaking.chat.vo.ConversationSummaryVO;
 import com.project.gmaking.chat.vo.DialogueVO;
 import com.project.gmaking.chat.vo.LongMemoryVO;
+import com.project.gmaking.common.llm.LlmPriority;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -45,6 +47,7 @@ public class ConversationSummarizePipelineService {
     private final ConversationSummaryDAO conversationSummaryDAO;
     private final LongMemoryDAO longMemoryDAO;
     private final LlmClient llmClient;
+    private final ConversationContextCache contextCache;
 
     /**
      * 마지막 요약 이후 누적 길이 기준으로 요약/롱메모리 추출 수행.
@@ -116,10 +119,16 @@ public class ConversationSummarizePipelineService {
             SummarizeResult result;
             try {
                 String existing = (saved == null || saved.getRollingSummary() == null) ? "" : saved.getRollingSummary();
+                // 기다리는 사용자가 없는 작업 -> 공급자 한도의 남는 용량만 사용
+                LlmPriority.set(LlmPriority.BACKGROUND);
+                LlmContext.feature("summarize");
                 result = llmClient.summarizeAndExtract(existing, patch, "ko");
             } catch (Exception e) {
                 log.error("[SummaryPipeline] LLM failed convId={}", convId, e);
                 return false;
+            } finally {
+                LlmPriority.clear();
+                LlmContext.clear();
             }
 
             // 4) 요약 저장 (빈 요약은 저장 금지)
@@ -145,6 +154,7 @@ public class ConversationSummarizePipelineService {
 
             // 성공시에만 upsert
             conversationSummaryDAO.upsertRollingSummary(vo);
+            contextCache.summaryChanged(convId);
 
             // 5) 장기 기억 저장(업서트) — 반드시 "사용자 발화" 근거만
             if (result.getMemories() != null && !result.getMemories().isEmpty()) {
@@ -205,6 +215,7 @@ public class ConversationSummarizePipelineService {
                         }
 
                         longMemoryDAO.upsertSlot(mem);
+                        contextCache.memoriesChanged(userId, characterId);
                         kept++;
                         if (kept >= 4) break; // 한 번에 최대 4개만 저장
                     } catch (Exception ex) {
@@ -0,0 +1,155 @@
+package com.project.gmaking.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 롤링 요약/장기기억 추출 백그라운드 실행기
+ * - 채팅 응답 경로에서는 요청만 등록하고 바로 반환 (요약 LLM 호출을 기다리지 않음)
+ * - 대화방당 대기 작업은 최대 1개: 대기/실행 중에 같은 대화방 요청이 또 오면 최신 요청으로 덮어쓰고,
+ *   실행 중이었다면 끝난 뒤 한 번만 다시 실행 (파이프라인이 "마지막 요약 이후" 대화만 보므로 최신 요청 하나면 충분)
+ * - 대기 대화방 수가 max-pending 에 도달하면 새 대화방 요청은 버림 (backpressure)
+ *   -> 요약 대상 대화는 DB 에 그대로 남아 있으므로, 해당 대화방의 다음 발화에서 누적분을 함께 요약
+ * - 트랜잭션 안에서 등록하면 커밋 이후에 실행 (방금 저장한 발화가 보이도록)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationSummarizeWorker {
+
+    private final ConversationSummarizePipelineService pipeline;
+    private final MeterRegistry meterRegistry;
+
+    // 요약 실행 스레드 수 (동시에 진행하는 요약 LLM 호출 수)
+    @Value("${chat.summary.worker-threads:2}")
+    private int workerThreads;
+
+    // 대기(실행 중 포함) 대화방 수 상한
+    @Value("${chat.summary.max-pending:1000}")
+    private int maxPending;
+
+    private ExecutorService executor;
+    private Counter coalescedCounter;
+    private Counter droppedCounter;
+
+    // 대화방별 대기/실행 중인 요약 (필드는 slots.compute 안에서만 변경)
+    private final Map<Integer, Slot> slots = new ConcurrentHashMap<>();
+
+    private record Request(Integer convId, String userId, Integer characterId, String actor) {}
+
+    private static final class Slot {
+        Request latest;
+        boolean dirty; // 마지막으로 꺼낸 뒤 새 요청이 들어왔는지
+
+        Slot(Request latest) {
+            this.latest = latest;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, workerThreads), r -> {
+            Thread t = new Thread(r, "chat-summary-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("chat.summary.pending", slots, Map::size)
+                .description("요약 대기/실행 중인 대화방 수")
+                .register(meterRegistry);
+        coalescedCounter = Counter.builder("chat.summary.coalesced")
+                .description("같은 대화방의 대기 요약에 합쳐진 요청 수")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("chat.summary.dropped")
+                .description("대기 상한 초과로 버린 요약 요청 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+    }
+
+    /** 임계치 기반 요약 요청 (즉시 반환, 실행 여부는 파이프라인이 임계치로 판단) */
+    public void request(Integer convId, String userId, Integer characterId, String actor) {
+        Request req = new Request(convId, userId, characterId, actor);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(req);
+                }
+            });
+            return;
+        }
+        enqueue(req);
+    }
+
+    private void enqueue(Request req) {
+        boolean[] created = {false};
+        Slot slot = slots.compute(req.convId(), (k, s) -> {
+            if (s != null) {
+                s.latest = req;
+                s.dirty = true;
+                return s;
+            }
+            if (slots.size() >= maxPending) return null;
+            created[0] = true;
+            return new Slot(req);
+        });
+
+        if (slot == null) {
+            droppedCounter.increment();
+            log.warn("[SummaryWorker] pending full({}), skip convId={} (다음 발화에서 누적분 요약)", maxPending, req.convId());
+            return;
+        }
+        if (!created[0]) {
+            coalescedCounter.increment();
+            return;
+        }
+
+        try {
+            executor.execute(() -> drain(req.convId()));
+        } catch (RejectedExecutionException e) {
+            slots.remove(req.convId());
+        }
+    }
+
+    // 대화방 하나의 요약을 최신 요청 기준으로 실행, 실행 중 새 요청이 왔으면 한 번 더
+    private void drain(Integer convId) {
+        while (true) {
+            Request[] taken = new Request[1];
+            slots.computeIfPresent(convId, (k, s) -> {
+                taken[0] = s.latest;
+                s.dirty = false;
+                return s;
+            });
+            if (taken[0] == null) return;
+
+            Request req = taken[0];
+            try {
+                pipeline.maybeSummarizeAndExtract(req.convId(), null, req.userId(), req.characterId(), req.actor(), false);
+            } catch (Exception e) {
+                log.warn("[SummaryPipeline] background run failed convId={} user={} charId={}",
+                        req.convId(), req.userId(), req.characterId(), e);
+            }
+
+            if (slots.computeIfPresent(convId, (k, s) -> s.dirty ? s : null) == null) return;
+        }
+    }
+}
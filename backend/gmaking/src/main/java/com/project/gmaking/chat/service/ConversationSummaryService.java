@@ -4,6 +4,7 @@ import com.project.gmaking.chat.dao.ChatDAO;
 import com.project.gmaking.chat.dao.ConversationDAO;
 import com.project.gmaking.chat.dao.ConversationSummaryDAO;
 import com.project.gmaking.chat.llm.LlmClient;
+import com.project.gmaking.chat.llm.LlmContext;
 import com.project.gmaking.chat.vo.ConversationSummaryVO;
 import com.project.gmaking.chat.vo.DialogueVO;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class ConversationSummaryService {
     private final ConversationDAO conversationDAO;
     private final LlmClient llmClient;
     private final ConversationSummaryDAO conversationSummaryDAO;
+    private final ConversationContextCache contextCache;
 
     /**
      * 현재 저장된 롤링 요약 텍스트를 반환.
@@ -74,11 +76,15 @@ public class ConversationSummaryService {
         String textBlock = buildPlainText(logs);
 
         String summary;
+        String prevFeature = LlmContext.feature();
+        LlmContext.feature("summary");
         try {
             summary = llmClient.chat(systemPrompt, textBlock);
         } catch (Exception e) {
             log.error("ConversationSummary: LLM summarize failed. convId={}", convId, e);
             return false;
+        } finally {
+            LlmContext.feature(prevFeature);
         }
 
         if (summary == null || summary.isBlank()) {
@@ -101,6 +107,7 @@ public class ConversationSummaryService {
             log.error("ConversationSummary: upsert failed. convId={}, rows={}", convId, affected);
             return false;
         }
+        contextCache.summaryChanged(convId);
         return true;
     }
 
@@ -0,0 +1,158 @@
+package com.project.gmaking.common.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 전투 종료 이벤트 버스 (프로세스 내부)
+ * - 전투 종료 처리(요청 스레드)는 결과 저장까지만 하고 이벤트를 발행, 후속 처리는 구독자별로 전용 스레드에서 실행
+ * - 구독자마다 독립 실행: 한 구독자가 실패해도 다른 구독자에는 영향 없음
+ * - 실패 시 retry-delay-ms 부터 두 배씩 늘려 가며 max-attempts 회까지 재시도, 끝내 실패하면 로그 + battle.event.failed 카운터
+ * - 대기 작업이 max-pending 을 넘으면 발행 스레드에서 바로 실행 (유실 대신 호출자를 늦추는 방식으로 backpressure)
+ * - 트랜잭션 안에서 발행하면 커밋 이후에 전달 (롤백되면 전달하지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BattleEventBus {
+
+    private final List<BattleFinishedSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+
+    // 구독자 실행 스레드 수
+    @Value("${battle.event.threads:2}")
+    private int threads;
+
+    // 구독자별 최대 시도 횟수 (첫 시도 포함)
+    @Value("${battle.event.max-attempts:4}")
+    private int maxAttempts;
+
+    // 첫 재시도 대기 시간 (이후 두 배씩 증가)
+    @Value("${battle.event.retry-delay-ms:500}")
+    private long retryDelayMs;
+
+    // 실행/재시도 대기 중인 작업 상한 (넘으면 발행 스레드에서 직접 실행)
+    @Value("${battle.event.max-pending:10000}")
+    private int maxPending;
+
+    private ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private Counter inlineCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "battle-event-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("battle.event.pending", pending, AtomicInteger::get)
+                .description("실행/재시도 대기 중인 전투 후속 처리 수")
+                .register(meterRegistry);
+        inlineCounter = Counter.builder("battle.event.inline")
+                .description("대기 작업 상한 초과로 발행 스레드에서 직접 실행한 후속 처리 수")
+                .register(meterRegistry);
+
+        log.info("[전투 이벤트] 구독자 {}개: {}", subscribers.size(),
+                subscribers.stream().map(BattleFinishedSubscriber::name).toList());
+    }
+
+    /** 종료 시 대기 중인 후속 처리(재시도 포함)를 잠시 기다린 뒤 정리 */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("[전투 이벤트] 종료 시 미처리 후속 작업 {}건 폐기", pending.get());
+            executor.shutdownNow();
+        }
+    }
+
+    /** 전투 종료 이벤트 발행 (즉시 반환) */
+    public void publish(BattleFinishedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+        dispatch(event);
+    }
+
+    private void dispatch(BattleFinishedEvent event) {
+        for (BattleFinishedSubscriber subscriber : subscribers) {
+            Delivery delivery = new Delivery(subscriber, event);
+            if (pending.incrementAndGet() > maxPending) {
+                inlineCounter.increment();
+                delivery.run();
+                continue;
+            }
+            try {
+                executor.execute(delivery);
+            } catch (RejectedExecutionException e) {
+                // 종료 중이면 발행 스레드에서 한 번만 시도
+                delivery.run();
+            }
+        }
+    }
+
+    /** 구독자 하나에 이벤트 하나를 전달하는 작업 (실패 시 자기 자신을 지연 재등록) */
+    private final class Delivery implements Runnable {
+        private final BattleFinishedSubscriber subscriber;
+        private final BattleFinishedEvent event;
+        private int attempt = 1;
+
+        Delivery(BattleFinishedSubscriber subscriber, BattleFinishedEvent event) {
+            this.subscriber = subscriber;
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            try {
+                subscriber.onBattleFinished(event);
+                pending.decrementAndGet();
+            } catch (Exception e) {
+                if (attempt < maxAttempts && retry()) {
+                    log.warn("[전투 이벤트] {} 실패, 재시도 예정 ({}/{}): battleId={}, 이유={}",
+                            subscriber.name(), attempt - 1, maxAttempts, event.battleId(), e.getMessage());
+                    return;
+                }
+                pending.decrementAndGet();
+                meterRegistry.counter("battle.event.failed", "subscriber", subscriber.name()).increment();
+                log.error("[전투 이벤트] {} 최종 실패: type={}, battleId={}, userId={}",
+                        subscriber.name(), event.battleType(), event.battleId(), event.userId(), e);
+            }
+        }
+
+        private boolean retry() {
+            long delay = retryDelayMs << Math.min(attempt - 1, 10);
+            attempt++;
+            try {
+                executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.gmaking.common.event;
+
+import com.project.gmaking.character.vo.CharacterVO;
+
+/**
+ * 전투 종료 이벤트 (전투에 직접 참여한 유저 한 명 기준)
+ * - 전투 결과/턴 로그 저장이 끝난 뒤 발행하며, 퀘스트/알림/통계 같은 후속 처리는 구독자가 비동기로 수행
+ * - 실시간 PVP 처럼 두 유저가 모두 참여한 전투는 유저마다 한 건씩 발행
+ *
+ * @param battleType     "PVE" / "PVP"
+ * @param character      내 캐릭터 (스탯 포함)
+ * @param opponentId     상대 ID (PVE = 몬스터 ID, PVP = 상대 캐릭터 ID)
+ * @param opponentUserId PVP 상대 유저 ID (PVE 는 null)
+ * @param opponent       PVP 상대 캐릭터 (PVE 는 null)
+ * @param live           실시간 PVP 여부 (결과를 화면에서 바로 보므로 결과 알림 생략)
+ * @param questProgress  일일 퀘스트 진행 반영 여부 (REST PVE 는 기존처럼 반영하지 않음)
+ */
+public record BattleFinishedEvent(
+        String battleType,
+        Integer battleId,
+        String userId,
+        CharacterVO character,
+        Integer opponentId,
+        String opponentUserId,
+        CharacterVO opponent,
+        boolean win,
+        long turnCount,
+        boolean live,
+        boolean questProgress
+) {
+
+    public static BattleFinishedEvent pve(Integer battleId, String userId, CharacterVO character,
+                                          Integer monsterId, boolean win, long turnCount, boolean questProgress) {
+        return new BattleFinishedEvent("PVE", battleId, userId, character, monsterId,
+                null, null, win, turnCount, false, questProgress);
+    }
+
+    public static BattleFinishedEvent pvp(Integer battleId, CharacterVO character, CharacterVO opponent,
+                                          boolean win, long turnCount, boolean live) {
+        return new BattleFinishedEvent("PVP", battleId, character.getUserId(), character,
+                opponent.getCharacterId(), opponent.getUserId(), opponent, win, turnCount, live, true);
+    }
+
+    public boolean isPve() {
+        return "PVE".equals(battleType);
+    }
+
+    public boolean isPvp() {
+        return "PVP".equals(battleType);
+    }
+
+    public Integer characterId() {
+        return character != null ? character.getCharacterId() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.gmaking.common.event;
+
+/**
+ * 전투 종료 이벤트 구독자
+ * - BattleEventBus 가 구독자마다 따로 비동기 실행하고, 예외가 나면 일정 간격을 두고 재시도
+ * - 재시도될 수 있으므로 한 구독자는 되도록 한 가지 작업만 수행 (앞 단계가 성공한 뒤 뒤 단계가 실패하면 앞 단계가 중복 실행됨)
+ */
+public interface BattleFinishedSubscriber {
+
+    /** 로그/지표 태그용 이름 */
+    String name();
+
+    void onBattleFinished(BattleFinishedEvent event) throws Exception;
+}
@@ -0,0 +1,35 @@
+package com.project.gmaking.common.event;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 전투 종료 -> 운영 지표
+ * - battle.finished{type, result}: 유저 기준 전투 종료 수
+ * - battle.turns{type}: 전투당 턴 수 분포
+ */
+@Component
+@RequiredArgsConstructor
+public class BattleStatsSubscriber implements BattleFinishedSubscriber {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public void onBattleFinished(BattleFinishedEvent event) {
+        meterRegistry.counter("battle.finished",
+                "type", event.battleType(),
+                "result", event.win() ? "win" : "lose").increment();
+        DistributionSummary.builder("battle.turns")
+                .description("전투당 턴 수")
+                .tag("type", event.battleType())
+                .register(meterRegistry)
+                .record(event.turnCount());
+    }
+}
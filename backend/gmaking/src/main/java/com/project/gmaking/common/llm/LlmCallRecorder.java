@@ -0,0 +1,146 @@
+package com.project.gmaking.common.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LLM 호출 계측 (기능/공급자/모델별)
+ * - 호출 하나 = Call 하나: start 로 시작 -> retry/firstToken/tokens 기록 -> success 또는 fail 로 종료 (한 번만 집계)
+ * - llm.call.latency: 전체 응답 시간 히스토그램 (status 태그: success | quota_exceeded | rate_limited | cancelled | error)
+ * - llm.call.first-token: 스트리밍 첫 조각까지 시간
+ * - llm.call.tokens: 공급자가 돌려준 입력/출력 토큰 수 (응답에 사용량이 없으면 기록하지 않음)
+ * - llm.call.payload: 요청/응답 본문 길이(문자 수)
+ * - llm.call.retries: 공급자 내부 재시도 횟수
+ * - 공급자 전환/헤지 횟수는 라우터 지표(llm.router.failover / llm.router.hedge)에 기능 태그로 기록
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LlmCallRecorder {
+
+    private final MeterRegistry meterRegistry;
+
+    /** 진행 중인 호출 하나의 계측 (비동기 호출은 HTTP 클라이언트 스레드 등 여러 스레드에서 기록될 수 있음) */
+    public final class Call {
+        private final String feature;
+        private final String provider;
+        private final String model;
+        private final long startNs = System.nanoTime();
+        private volatile int requestChars;
+        private volatile int inputTokens = -1;
+        private volatile int outputTokens = -1;
+        private final AtomicBoolean firstToken = new AtomicBoolean(false);
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+
+        private Call(String feature, String provider, String model, int requestChars) {
+            this.feature = feature;
+            this.provider = provider;
+            this.model = model;
+            this.requestChars = requestChars;
+        }
+
+        public void retry() {
+            Counter.builder("llm.call.retries")
+                    .tags("feature", feature, "provider", provider, "model", model)
+                    .description("LLM 공급자 내부 재시도 횟수")
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        /** 스트리밍 첫 조각 도착 (두 번째부터는 무시) */
+        public void firstToken() {
+            if (!firstToken.compareAndSet(false, true)) return;
+            Timer.builder("llm.call.first-token")
+                    .tags("feature", feature, "provider", provider, "model", model)
+                    .description("LLM 스트리밍 첫 조각까지 시간")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNs, TimeUnit.NANOSECONDS);
+        }
+
+        /** 공급자 응답의 사용량 (없으면 음수로 두고 호출하지 않아도 됨) */
+        public void tokens(int input, int output) {
+            this.inputTokens = input;
+            this.outputTokens = output;
+        }
+
+        public void requestChars(int chars) {
+            this.requestChars = chars;
+        }
+
+        public int inputTokens() {
+            return Math.max(0, inputTokens);
+        }
+
+        public int outputTokens() {
+            return Math.max(0, outputTokens);
+        }
+
+        public void success(int responseChars) {
+            finish("success", responseChars);
+        }
+
+        public void fail(Throwable e) {
+            finish(classify(e), 0);
+        }
+
+        /** 공급자가 쿼터/요청 한도 초과(429)를 돌려줌 */
+        public void quotaExceeded() {
+            finish("quota_exceeded", 0);
+        }
+
+        private void finish(String status, int responseChars) {
+            if (!finished.compareAndSet(false, true)) return;
+
+            Timer.builder("llm.call.latency")
+                    .tags("feature", feature, "provider", provider, "model", model, "status", status)
+                    .description("LLM 호출 응답 시간")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNs, TimeUnit.NANOSECONDS);
+
+            if (inputTokens >= 0) tokenSummary("input").record(inputTokens);
+            if (outputTokens >= 0) tokenSummary("output").record(outputTokens);
+            payloadSummary("request").record(requestChars);
+            if (responseChars > 0) payloadSummary("response").record(responseChars);
+        }
+
+        private DistributionSummary tokenSummary(String direction) {
+            return DistributionSummary.builder("llm.call.tokens")
+                    .tags("feature", feature, "provider", provider, "model", model, "direction", direction)
+                    .baseUnit("tokens")
+                    .description("LLM 호출 토큰 수")
+                    .register(meterRegistry);
+        }
+
+        private DistributionSummary payloadSummary(String direction) {
+            return DistributionSummary.builder("llm.call.payload")
+                    .tags("feature", feature, "provider", provider, "direction", direction)
+                    .baseUnit("chars")
+                    .description("LLM 요청/응답 본문 길이")
+                    .register(meterRegistry);
+        }
+    }
+
+    public Call start(String feature, String provider, String model, int requestChars) {
+        return new Call(feature == null ? "other" : feature, provider, model, requestChars);
+    }
+
+    private static String classify(Throwable e) {
+        Throwable t = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (t instanceof LlmRateLimitedException) return "rate_limited";
+        if (t instanceof CancellationException || t instanceof InterruptedException) return "cancelled";
+        return "error";
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.gmaking.common.llm;
+
+/**
+ * LLM 호출 우선순위 (LlmRateLimiter 가 공급자 한도를 나눌 때 사용, 위쪽이 우선)
+ * - INTERACTIVE: 사용자가 화면에서 응답을 기다리는 호출 (채팅, 입장 인사, 호칭 판별, 캐릭터 배경 생성)
+ * - BATTLE: 전투/토론 진행 중 호출 (PVE/PVP 해설, 토론 발언, 심사)
+ * - BACKGROUND: 기다리는 사용자가 없는 호출 (롤링 요약/장기기억 추출, 자정 정리 배치)
+ * - LlmClient 처럼 우선순위 인자가 없는 경로는 스레드 단위로 지정 (지정하지 않으면 INTERACTIVE)
+ */
+public enum LlmPriority {
+    INTERACTIVE,
+    BATTLE,
+    BACKGROUND;
+
+    private static final ThreadLocal<LlmPriority> CURRENT = new ThreadLocal<>();
+
+    public static LlmPriority current() {
+        LlmPriority p = CURRENT.get();
+        return p != null ? p : INTERACTIVE;
+    }
+
+    public static void set(LlmPriority priority) { CURRENT.set(priority); }
+    public static void clear() { CURRENT.remove(); }
+}
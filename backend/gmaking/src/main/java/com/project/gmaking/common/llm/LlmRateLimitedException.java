@@ -0,0 +1,11 @@
+package com.project.gmaking.common.llm;
+
+/**
+ * 로컬 한도(LlmRateLimiter)로 호출을 보내지 못함 (대기열 초과/대기 시간 초과)
+ * - 공급자가 돌려준 쿼터 초과(QuotaExceededException)와 달리 공급자 상태와는 무관
+ */
+public class LlmRateLimitedException extends RuntimeException {
+    public LlmRateLimitedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,329 @@
+package com.project.gmaking.common.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 공급자/모델별 LLM 호출 한도 (토큰 버킷 + 우선순위 대기열)
+ * - 버킷: (공급자, 모델)마다 하나, 분당 rpm 속도로 채워지고 최대 burst 개까지 쌓임, 호출 1건 = 토큰 1개
+ * - 우선순위: INTERACTIVE > BATTLE > BACKGROUND, 높은 쪽 대기열이 비어야 낮은 쪽에 토큰을 줌
+ * - 예약분: BATTLE/BACKGROUND 는 버킷에 burst * reserve 개 이상 남아 있을 때만 토큰을 가져감
+ *   -> 배치 작업은 남는 용량만 쓰고, 채팅이 몰려도 즉시 쓸 수 있는 토큰이 항상 남아 있음
+ * - 대기: 바로 못 받으면 우선순위별 대기열에서 기다리고, max-wait-ms 를 넘기거나 대기열이 가득 차면 LlmRateLimitedException
+ * - 대기열 처리는 전용 스레드 하나가 다음 토큰이 생기는 시점에 맞춰 수행 (대기자가 없으면 아무 일도 하지 않음)
+ * - rpm 을 0 이하로 두면 해당 공급자는 제한 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LlmRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${llm.limit.gemini.rpm:60}")
+    private double geminiRpm;
+
+    @Value("${llm.limit.gemini.burst:10}")
+    private double geminiBurst;
+
+    @Value("${llm.limit.openai.rpm:500}")
+    private double openAiRpm;
+
+    @Value("${llm.limit.openai.burst:30}")
+    private double openAiBurst;
+
+    @Value("${llm.limit.interactive.max-wait-ms:3000}")
+    private long interactiveMaxWaitMs;
+
+    @Value("${llm.limit.battle.max-wait-ms:10000}")
+    private long battleMaxWaitMs;
+
+    @Value("${llm.limit.background.max-wait-ms:120000}")
+    private long backgroundMaxWaitMs;
+
+    // 버킷에 이 비율만큼은 남겨 두고 가져감 (0 = 예약 없음)
+    @Value("${llm.limit.battle.reserve:0.2}")
+    private double battleReserve;
+
+    @Value("${llm.limit.background.reserve:0.5}")
+    private double backgroundReserve;
+
+    // (공급자, 모델, 우선순위)별 최대 대기 수
+    @Value("${llm.limit.max-queued:200}")
+    private int maxQueued;
+
+    private static final LlmPriority[] PRIORITIES = LlmPriority.values();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private record Waiter(CompletableFuture<Void> future, long enqueuedNs, long deadlineNs) {}
+
+    /** (공급자, 모델) 버킷 - 가변 필드는 this 잠금 안에서만 */
+    private final class Bucket {
+        final String provider;
+        final String model;
+        final double capacity;
+        final double perNs;
+        final double[] minTokens = new double[PRIORITIES.length];
+        final long[] maxWaitNs = new long[PRIORITIES.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final ArrayDeque<Waiter>[] queues = new ArrayDeque[PRIORITIES.length];
+        final Timer[] waitTimers = new Timer[PRIORITIES.length];
+        final Counter[] rejected = new Counter[PRIORITIES.length];
+        final Counter[] expired = new Counter[PRIORITIES.length];
+        double tokens;
+        long lastNs = System.nanoTime();
+        // 예약된 대기열 처리와 그 실행 시각 (더 이른 시점이 필요해지면 다시 예약)
+        ScheduledFuture<?> drainTask;
+        long drainAtNs;
+
+        Bucket(String provider, String model, double rpm, double burst) {
+            this.provider = provider;
+            this.model = model;
+            this.capacity = Math.max(1, burst);
+            this.perNs = rpm / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            for (LlmPriority p : PRIORITIES) {
+                int i = p.ordinal();
+                queues[i] = new ArrayDeque<>();
+                minTokens[i] = Math.min(capacity, 1 + capacity * reserve(p));
+                maxWaitNs[i] = TimeUnit.MILLISECONDS.toNanos(maxWaitMs(p));
+                String tag = p.name().toLowerCase();
+                waitTimers[i] = Timer.builder("llm.limit.wait")
+                        .tags("provider", provider, "model", model, "priority", tag)
+                        .description("LLM 호출 한도 대기 시간")
+                        .register(meterRegistry);
+                rejected[i] = Counter.builder("llm.limit.rejected")
+                        .tags("provider", provider, "model", model, "priority", tag, "reason", "queue-full")
+                        .description("LLM 호출 한도로 거절한 요청 수")
+                        .register(meterRegistry);
+                expired[i] = Counter.builder("llm.limit.rejected")
+                        .tags("provider", provider, "model", model, "priority", tag, "reason", "deadline")
+                        .description("LLM 호출 한도로 거절한 요청 수")
+                        .register(meterRegistry);
+                Gauge.builder("llm.limit.queued", this, b -> b.queued(i))
+                        .tags("provider", provider, "model", model, "priority", tag)
+                        .description("LLM 호출 한도 대기 중인 요청 수")
+                        .register(meterRegistry);
+            }
+            Gauge.builder("llm.limit.tokens", this, Bucket::available)
+                    .tags("provider", provider, "model", model)
+                    .description("LLM 호출 한도 버킷에 남은 토큰 수")
+                    .register(meterRegistry);
+        }
+
+        synchronized int queued(int i) {
+            return queues[i].size();
+        }
+
+        synchronized double available() {
+            refill(System.nanoTime());
+            return tokens;
+        }
+
+        void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastNs) * perNs);
+            lastNs = now;
+        }
+
+        /** priority 이상 대기열에 기다리는 요청이 있는지 (새 요청이 앞질러 가지 않도록) */
+        boolean hasWaitersAtOrAbove(int priority) {
+            for (int i = 0; i <= priority; i++) {
+                if (!queues[i].isEmpty()) return true;
+            }
+            return false;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "llm-limit-seq");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) scheduler.shutdownNow();
+    }
+
+    /** 현재 스레드 우선순위(LlmPriority.current)로 토큰 1개를 받을 때까지 대기 */
+    public void acquire(String provider, String model) {
+        acquire(provider, model, LlmPriority.current());
+    }
+
+    /**
+     * 토큰 1개를 받을 때까지 대기 (블로킹 호출부용)
+     * - 대기 중 인터럽트되면 대기를 취소하고 인터럽트 플래그를 복원한 뒤 LlmRateLimitedException
+     */
+    public void acquire(String provider, String model, LlmPriority priority) {
+        CompletableFuture<Void> f = acquireAsync(provider, model, priority);
+        try {
+            f.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new LlmRateLimitedException(e.getCause().toString());
+        } catch (InterruptedException e) {
+            f.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new LlmRateLimitedException("interrupted while waiting for " + provider + ":" + model);
+        }
+    }
+
+    /**
+     * 토큰 1개를 받으면 완료되는 future (sendAsync 호출부용)
+     * - 한도 대기 스레드에서 완료되므로 이어지는 단계는 가볍게 유지 (요청 전송 정도)
+     * - 거절/대기 초과 시 LlmRateLimitedException 으로 실패, 호출 측이 cancel 하면 대기열에서 빠짐
+     */
+    public CompletableFuture<Void> acquireAsync(String provider, String model, LlmPriority priority) {
+        Bucket b = bucket(provider, model);
+        if (b == null) return CompletableFuture.completedFuture(null);
+
+        int p = priority.ordinal();
+        synchronized (b) {
+            long now = System.nanoTime();
+            b.refill(now);
+            if (!b.hasWaitersAtOrAbove(p) && b.tokens >= b.minTokens[p]) {
+                b.tokens -= 1;
+                b.waitTimers[p].record(0, TimeUnit.NANOSECONDS);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (b.queues[p].size() >= maxQueued) {
+                b.rejected[p].increment();
+                log.warn("[LlmLimit] queue full {}:{} priority={}", provider, model, priority);
+                return CompletableFuture.failedFuture(new LlmRateLimitedException(
+                        "LLM rate limit queue full: " + provider + ":" + model + " (" + priority + ")"));
+            }
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            b.queues[p].addLast(new Waiter(f, now, now + b.maxWaitNs[p]));
+            scheduleDrain(b, now);
+            return f;
+        }
+    }
+
+    private Bucket bucket(String provider, String model) {
+        double rpm = switch (provider) {
+            case "gemini" -> geminiRpm;
+            case "openai" -> openAiRpm;
+            default -> 0;
+        };
+        if (rpm <= 0) return null;
+        double burst = "gemini".equals(provider) ? geminiBurst : openAiBurst;
+        return buckets.computeIfAbsent(provider + ":" + model, k -> new Bucket(provider, model, rpm, burst));
+    }
+
+    /**
+     * 대기열 처리: 만료된 대기 제거 -> 우선순위 순으로 토큰 지급
+     * - 앞선 우선순위의 선두가 토큰을 못 받으면 뒤 우선순위도 지급하지 않음 (낮은 쪽이 필요한 토큰이 더 많음)
+     * - 대기자가 남으면 다음 토큰이 생기는 시점(또는 가장 이른 만료 시점)에 다시 처리
+     */
+    private void drain(Bucket b) {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> timedOut = new ArrayList<>();
+        synchronized (b) {
+            long now = System.nanoTime();
+            // 더 이른 시점으로 다시 예약되면서 취소되지 못하고 실행된 경우, 새 예약은 그대로 둠
+            if (b.drainTask != null && b.drainTask.getDelay(TimeUnit.NANOSECONDS) <= 0) b.drainTask = null;
+            b.refill(now);
+
+            boolean blocked = false;
+            for (LlmPriority pr : PRIORITIES) {
+                int p = pr.ordinal();
+                ArrayDeque<Waiter> q = b.queues[p];
+                q.removeIf(w -> {
+                    if (w.future().isDone()) return true; // 호출 측이 취소
+                    if (now - w.deadlineNs() < 0) return false;
+                    timedOut.add(w);
+                    b.expired[p].increment();
+                    return true;
+                });
+                while (!blocked && !q.isEmpty()) {
+                    if (b.tokens < b.minTokens[p]) {
+                        blocked = true;
+                        break;
+                    }
+                    Waiter w = q.pollFirst();
+                    b.tokens -= 1;
+                    b.waitTimers[p].record(now - w.enqueuedNs(), TimeUnit.NANOSECONDS);
+                    granted.add(w);
+                }
+            }
+            scheduleDrain(b, now);
+        }
+
+        for (Waiter w : timedOut) {
+            w.future().completeExceptionally(new LlmRateLimitedException(
+                    "LLM rate limit wait timed out: " + b.provider + ":" + b.model));
+        }
+        for (Waiter w : granted) {
+            // 그사이 취소된 대기자는 토큰을 돌려받음
+            if (!w.future().complete(null)) {
+                synchronized (b) {
+                    b.tokens = Math.min(b.capacity, b.tokens + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * b 잠금 안에서 호출
+     * - 이미 예약된 처리가 있어도 새 대기자의 토큰 시점/만료 시점이 더 이르면 앞당겨 다시 예약
+     *   (낮은 우선순위가 잡아 둔 늦은 예약 때문에 높은 우선순위가 기다리다 만료되지 않도록)
+     */
+    private void scheduleDrain(Bucket b, long now) {
+        long nextNs = Long.MAX_VALUE;
+        for (LlmPriority pr : PRIORITIES) {
+            int p = pr.ordinal();
+            Waiter head = b.queues[p].peekFirst();
+            if (head == null) continue;
+            double missing = b.minTokens[p] - b.tokens;
+            long tokenNs = missing <= 0 ? 0 : (long) Math.ceil(missing / b.perNs);
+            // 같은 우선순위는 최대 대기 시간이 같으므로 선두가 가장 먼저 만료
+            nextNs = Math.min(nextNs, Math.min(tokenNs, head.deadlineNs() - now));
+        }
+        if (nextNs == Long.MAX_VALUE) return;
+
+        long delayNs = Math.max(TimeUnit.MILLISECONDS.toNanos(1), nextNs);
+        long atNs = now + delayNs;
+        if (b.drainTask != null) {
+            if (b.drainAtNs - atNs <= 0) return;
+            b.drainTask.cancel(false);
+        }
+        b.drainAtNs = atNs;
+        b.drainTask = scheduler.schedule(() -> drain(b), delayNs, TimeUnit.NANOSECONDS);
+    }
+
+    private double reserve(LlmPriority p) {
+        return switch (p) {
+            case INTERACTIVE -> 0;
+            case BATTLE -> battleReserve;
+            case BACKGROUND -> backgroundReserve;
+        };
+    }
+
+    private long maxWaitMs(LlmPriority p) {
+        return switch (p) {
+            case INTERACTIVE -> interactiveMaxWaitMs;
+            case BATTLE -> battleMaxWaitMs;
+            case BACKGROUND -> backgroundMaxWaitMs;
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.gmaking.common.llm;
+
+import com.google.genai.Client;
+import com.google.genai.types.HttpOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLM 공급자별 공용 HTTP 전송 계층
+ * - 호출마다 클라이언트를 새로 만들면 연결 풀/스레드가 매번 생기고 TLS 핸드셰이크를 다시 하므로,
+ *   공급자당 클라이언트 하나를 앱 수명 동안 재사용 (keep-alive 연결 재사용, HTTP/2 다중화)
+ * - OpenAI: java.net.http.HttpClient 하나 (동기/비동기/스트리밍 모두), RestTemplate 호출부도 같은 클라이언트 위에서 동작
+ * - Gemini: SDK Client 하나 (SDK 내부 연결 풀 재사용), 키가 없으면 첫 호출 시점에 예외
+ * - 요청별 응답 타임아웃은 호출부에서 지정하고, 여기서는 연결 타임아웃과 응답 처리 스레드만 관리
+ */
+@Slf4j
+@Component
+public class LlmTransport {
+
+    // 연결 수립 타임아웃 (공급자 공통)
+    @Value("${llm.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // 비동기 응답/스트림 처리 스레드 수 (OpenAI HttpClient)
+    @Value("${llm.http.threads:8}")
+    private int threads;
+
+    // RestTemplate 호출부의 응답 대기 타임아웃
+    @Value("${llm.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    @Value("${gemini.api.key:}")
+    private String geminiApiKey;
+
+    // Gemini SDK 요청 타임아웃
+    @Value("${gemini.http.timeout-ms:60000}")
+    private int geminiTimeoutMs;
+
+    private ExecutorService executor;
+    private HttpClient openAi;
+    private RestTemplate openAiRestTemplate;
+    private volatile Client gemini;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "llm-http-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        openAi = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(openAi);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        openAiRestTemplate = new RestTemplate(factory);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        Client g = gemini;
+        if (g != null) g.close();
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+    }
+
+    /** OpenAI 공용 HttpClient */
+    public HttpClient openAi() {
+        return openAi;
+    }
+
+    /** OpenAI 공용 HttpClient 위의 RestTemplate (Map 본문 등 기존 RestTemplate 호출부용) */
+    public RestTemplate openAiRestTemplate() {
+        return openAiRestTemplate;
+    }
+
+    /** Gemini 공용 SDK Client (첫 호출 시 생성) */
+    public Client gemini() {
+        Client g = gemini;
+        if (g != null) return g;
+        synchronized (this) {
+            if (gemini == null) {
+                if (geminiApiKey == null || geminiApiKey.isBlank()) {
+                    // 여기까지 오면 .env 로드/WD 문제이므로 명확히 터뜨려 원인 노출
+                    throw new IllegalStateException(
+                            "Gemini API key is missing. Check 'gemini.api.key' or env 'GEMINI_API_KEY'."
+                    );
+                }
+                gemini = Client.builder()
+                        .apiKey(geminiApiKey)
+                        .httpOptions(HttpOptions.builder()
+                                .apiVersion("v1")
+                                .timeout(geminiTimeoutMs)
+                                .build())
+                        .build();
+                log.info("[LlmTransport] Gemini client created (timeout={}ms)", geminiTimeoutMs);
+            }
+            return gemini;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.gmaking.common.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 스트리밍(전투/토론) 연출용 지연 전송기
+ * - Thread.sleep 으로 작업 스레드를 붙잡는 대신, 작은 스케줄러에 타이머만 걸어 둔다.
+ * - delay() 가 돌려주는 future 에 다음 단계를 이어 붙이면 대기 중에는 어떤 스레드도 점유하지 않는다.
+ * - 같은 세션에 대한 전송은 호출 측에서 future 체인으로 순서를 보장한다. (WebSocketSession 은 동시 전송 불가)
+ */
+@Slf4j
+@Component
+public class PacedMessageSender {
+
+    @Value("${stream.pacing.threads:2}")
+    private int pacingThreads;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(1, pacingThreads), r -> {
+            Thread t = new Thread(r, "stream-pacing-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /** delayMs 뒤에 완료되는 future (0 이하면 즉시 완료) */
+    public CompletableFuture<Void> delay(long delayMs) {
+        if (delayMs <= 0) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        ScheduledFuture<?> scheduled = scheduler.schedule(() -> timer.complete(null), delayMs, TimeUnit.MILLISECONDS);
+        // 체인이 취소되면 걸어 둔 타이머도 같이 제거
+        timer.whenComplete((v, e) -> {
+            if (e != null) scheduled.cancel(false);
+        });
+        return timer;
+    }
+
+    /** 즉시 전송 (IOException 은 CompletionException 으로 감싸 체인으로 전달) */
+    public void send(WebSocketSession session, String payload) {
+        try {
+            session.sendMessage(new TextMessage(payload));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /** delayMs 뒤에 전송 */
+    public CompletableFuture<Void> sendAfter(WebSocketSession session, String payload, long delayMs) {
+        return delay(delayMs).thenRun(() -> send(session, payload));
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.gmaking.config;
+
+import com.project.gmaking.common.event.BattleFinishedSubscriber;
+import com.project.gmaking.notification.facade.NotificationFacade;
+import com.project.gmaking.notification.facade.PvpResultNotificationSubscriber;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 전투 종료 이벤트 구독자 중 같은 클래스를 여러 개 등록해야 하는 구독자
+ * (나머지 구독자는 각 모듈에서 @Component 로 등록)
+ */
+@Configuration
+public class BattleEventConfig {
+
+    @Bean
+    public BattleFinishedSubscriber pvpResultPlayerNotifier(NotificationFacade notificationFacade) {
+        return new PvpResultNotificationSubscriber(notificationFacade, false);
+    }
+
+    @Bean
+    public BattleFinishedSubscriber pvpResultOpponentNotifier(NotificationFacade notificationFacade) {
+        return new PvpResultNotificationSubscriber(notificationFacade, true);
+    }
+}
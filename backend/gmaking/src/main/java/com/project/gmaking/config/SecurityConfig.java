@@ -93,6 +93,8 @@ public class SecurityConfig {
                         .requestMatchers("/mypage/profile/**").authenticated()
                         .requestMatchers("/mypage/account").authenticated()
                         .requestMatchers("/api/shop/**").authenticated()
+                        // 자동 전투: 토큰의 사용자 기준으로 소유 캐릭터만 진행
+                        .requestMatchers("/api/pve/battle/auto").authenticated()
 
                         // /api/** 전체 허용 (이 한 줄로 다 처리됨)
                         .requestMatchers("/api/**").permitAll()
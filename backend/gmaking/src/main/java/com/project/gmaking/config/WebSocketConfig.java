@@ -8,6 +8,7 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 import com.project.gmaking.security.JwtHandshakeInterceptor;
 
 import com.project.gmaking.pve.websocket.BattleWebSocketHandler;
+import com.project.gmaking.pvp.websocket.PvpLiveWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -17,6 +18,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     private final BattleWebSocketHandler battleWebSocketHandler;
     private final DebateWebSocketHandler debateWebSocketHandler;
+    private final PvpLiveWebSocketHandler pvpLiveWebSocketHandler;
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
 
     @Override
@@ -28,5 +30,9 @@ public class WebSocketConfig implements WebSocketConfigurer {
         registry.addHandler(debateWebSocketHandler, "/debate")
                 .addInterceptors(jwtHandshakeInterceptor)
                 .setAllowedOrigins("http://localhost:3000", "http://192.168.1.107:3000");
+
+        registry.addHandler(pvpLiveWebSocketHandler, "/pvp-live")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins("http://localhost:3000");
     }
 }
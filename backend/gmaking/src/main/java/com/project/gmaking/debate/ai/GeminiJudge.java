@@ -2,36 +2,39 @@ package com.project.gmaking.debate.ai;
 
 import com.project.gmaking.debate.vo.DebateLineVO;
 import com.project.gmaking.debate.vo.JudgeResultVO;
+import com.google.genai.types.GenerateContentResponse;
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmPriority;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
-@SuppressWarnings("unchecked") // 경고 제거
 public class GeminiJudge implements Judge {
 
-    @Value("${gemini.api.key}")
-    private String geminiKey;
+    @Value("${gemini.model.name:gemini-2.0-flash}")
+    private String modelName;
 
-    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1/models/gemini-2.0-flash:generateContent}")
-    private String geminiUrl;
+    // 공용 Gemini Client (연결 풀 재사용)
+    private final LlmTransport transport;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Gemini 호출 한도 (심사는 BATTLE 우선순위)
+    private final LlmRateLimiter limiter;
+
+    // 호출 계측 (기능 태그 judge)
+    private final LlmCallRecorder recorder;
 
     @Override
     public String name() { return "gemini"; }
 
     @Override
     public JudgeResultVO judge(String topic, List<DebateLineVO> dialogue) {
-        String url = geminiUrl + "?key=" + geminiKey;
-
         // 대화 내용 연결
         String conv = dialogue.stream()
                 .map(d -> d.getSpeaker() + ": " + d.getLine())
@@ -49,51 +52,15 @@ public class GeminiJudge implements Judge {
             %s
             """.formatted(topic, conv);
 
-        // Gemini 2.0 Flash 요청 형식
-        Map<String, Object> req = Map.of(
-                "contents", List.of(
-                        Map.of(
-                                "role", "user",
-                                "parts", List.of(Map.of("text", prompt))
-                        )
-                )
-        );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
+        LlmCallRecorder.Call call = recorder.start("judge", "gemini", modelName, prompt.length());
         try {
             // 응답 요청
-            ResponseEntity<Map<String, Object>> res = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    new HttpEntity<>(req, headers),
-                    (Class<Map<String, Object>>)(Class<?>)Map.class
-            );
-
-            Map<String, Object> body = res.getBody();
-            if (body == null || !body.containsKey("candidates")) {
-                return new JudgeResultVO("UNKNOWN", "Gemini 응답 본문 없음");
-            }
-
-            List<Map<String, Object>> candidates = (List<Map<String, Object>>) body.get("candidates");
-            if (candidates == null || candidates.isEmpty()) {
-                return new JudgeResultVO("UNKNOWN", "Gemini 응답 후보 없음");
-            }
-
-            Map<String, Object> first = candidates.get(0);
-            Map<String, Object> content = (Map<String, Object>) first.get("content");
-            if (content == null || !content.containsKey("parts")) {
-                return new JudgeResultVO("UNKNOWN", "Gemini content 구조 이상");
-            }
-
-            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
-            if (parts == null || parts.isEmpty()) {
-                return new JudgeResultVO("UNKNOWN", "Gemini parts 비어있음");
-            }
-
-            Map<String, Object> p = parts.get(0);
-            String text = (String) p.get("text");
+            limiter.acquire("gemini", modelName, LlmPriority.BATTLE);
+            GenerateContentResponse res = transport.gemini().models.generateContent(modelName, prompt, null);
+            res.usageMetadata().ifPresent(u -> call.tokens(
+                    u.promptTokenCount().orElse(0), u.candidatesTokenCount().orElse(0)));
+            String text = res.text();
+            call.success(text == null ? 0 : text.length());
             if (text == null || text.isBlank()) {
                 return new JudgeResultVO("UNKNOWN", "Gemini text 비어있음");
             }
@@ -104,6 +71,7 @@ public class GeminiJudge implements Judge {
             );
 
         } catch (Exception e) {
+            call.fail(e);
             e.printStackTrace();
             return new JudgeResultVO("UNKNOWN", "Gemini 호출 실패");
         }
@@ -33,7 +33,7 @@ public class GptJudge implements Judge {
                 {"winner":"<캐릭터명>","comment":"<이유 한 문장>"}
                 """.formatted(topic, conv);
 
-        String out = openAi.chat(sys, user).trim();
+        String out = openAi.chat("judge", sys, user).trim();
         String winner = extract(out, "winner");
         String comment = extract(out, "comment");
         return new JudgeResultVO(winner, comment);
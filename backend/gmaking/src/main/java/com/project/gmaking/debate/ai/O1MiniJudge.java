@@ -45,7 +45,7 @@ public class O1MiniJudge implements Judge {
 
         try {
             // system 프롬프트는 비워두고 user 프롬프트만 전달
-            String output = openAi.chat("", prompt).trim();
+            String output = openAi.chat("judge", "", prompt).trim();
 
             String winner = extract(output, "winner");
             String comment = extract(output, "comment");
@@ -1,17 +1,29 @@
 package com.project.gmaking.debate.ai;
 
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmPriority;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 import java.util.*;
 
 @Component
 @RequiredArgsConstructor
 public class OpenAiClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 공용 OpenAI 전송 계층 (연결 풀 재사용)
+    private final LlmTransport transport;
+
+    // OpenAI 호출 한도 (토론 발언/심사는 BATTLE 우선순위)
+    private final LlmRateLimiter limiter;
+
+    // 호출 계측 (기능 태그: 토론 발언 debate, 심사 judge)
+    private final LlmCallRecorder recorder;
 
     @Value("${openai.api.key}")
     private String apiKey;
@@ -20,6 +32,10 @@ public class OpenAiClient {
     private String chatModel;
 
     public String chat(String systemPrompt, String userPrompt) {
+        return chat("debate", systemPrompt, userPrompt);
+    }
+
+    public String chat(String feature, String systemPrompt, String userPrompt) {
         String url = "https://api.openai.com/v1/chat/completions";
 
         Map<String,Object> body = new HashMap<>();
@@ -36,12 +52,31 @@ public class OpenAiClient {
         headers.setBearerAuth(apiKey);
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        ResponseEntity<Map> res = restTemplate.exchange(
-                url, HttpMethod.POST, new HttpEntity<>(body, headers), Map.class);
+        LlmCallRecorder.Call call = recorder.start(feature, "openai", chatModel,
+                systemPrompt.length() + userPrompt.length());
+        try {
+            limiter.acquire("openai", chatModel, LlmPriority.BATTLE);
+            ResponseEntity<Map<String, Object>> res = transport.openAiRestTemplate().exchange(
+                    url, HttpMethod.POST, new HttpEntity<>(body, headers),
+                    new ParameterizedTypeReference<Map<String, Object>>() {});
 
-        List choices = (List) res.getBody().get("choices");
-        Map first = (Map) choices.get(0);
-        Map msg = (Map) first.get("message");
-        return (String) msg.get("content");
+            if (res.getBody().get("usage") instanceof Map<?, ?> usage
+                    && usage.get("prompt_tokens") instanceof Number prompt
+                    && usage.get("completion_tokens") instanceof Number completion) {
+                call.tokens(prompt.intValue(), completion.intValue());
+            }
+            List<?> choices = (List<?>) res.getBody().get("choices");
+            Map<?, ?> first = (Map<?, ?>) choices.get(0);
+            Map<?, ?> msg = (Map<?, ?>) first.get("message");
+            String content = (String) msg.get("content");
+            call.success(content == null ? 0 : content.length());
+            return content;
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            call.quotaExceeded();
+            throw e;
+        } catch (RuntimeException e) {
+            call.fail(e);
+            throw e;
+        }
     }
 }
@@ -1,17 +1,24 @@
 package com.project.gmaking.debate.websocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.character.vo.CharacterPersonalityVO;
+import com.project.gmaking.common.websocket.PacedMessageSender;
 import com.project.gmaking.debate.service.DebateService;
 import com.project.gmaking.debate.vo.*;
 import com.project.gmaking.quest.service.QuestService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
@@ -20,13 +27,43 @@ public class DebateWebSocketHandler implements WebSocketHandler {
 
     private final DebateService debateService;
     private final QuestService questService; // 퀘스트 직접 주입
+    private final PacedMessageSender pacedMessageSender;
     private final ObjectMapper mapper = new ObjectMapper();
 
+    // 발언 사이 연출 간격
+    @Value("${debate.line-interval-ms:800}")
+    private long lineIntervalMs;
+
+    // 발언 생성/심사(블로킹 LLM 호출) 전용 풀 크기
+    @Value("${debate.worker-threads:8}")
+    private int workerThreads;
+
+    private ExecutorService debateExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        debateExecutor = Executors.newFixedThreadPool(Math.max(1, workerThreads), r -> {
+            Thread t = new Thread(r, "debate-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        debateExecutor.shutdownNow();
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         log.info("[Debate] WebSocket connected: {}", session.getId());
     }
 
+    /**
+     * 컨테이너 스레드는 요청만 받고 바로 반환한다.
+     * - 발언 생성(블로킹 LLM 호출)은 토론 전용 풀에서, 발언 사이 연출 대기는 타이머(PacedMessageSender)로 처리
+     */
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) {
         try {
@@ -37,43 +74,49 @@ public class DebateWebSocketHandler implements WebSocketHandler {
             String topic = (req.getTopic() == null || req.getTopic().isBlank())
                     ? "누가 더 설득력 있는 영웅인가?" : req.getTopic();
 
-            CharacterVO a = debateService.getCharacter(req.getCharacterAId());
-            CharacterVO b = debateService.getCharacter(req.getCharacterBId());
-            CharacterPersonalityVO aP = debateService.getPersonality(a.getCharacterPersonalityId());
-            CharacterPersonalityVO bP = debateService.getPersonality(b.getCharacterPersonalityId());
-
-            List<DebateLineVO> dialogue = new ArrayList<>();
-            String lastLine = "";
-
-            // 턴마다 실시간 진행
-            for (int turn = 1; turn <= req.getTurnsPerSide(); turn++) {
-                boolean firstTurn = (turn == 1);
-
-                // A 발언
-                String aLine = debateService.generateLine(
-                        a.getCharacterName(), aP.getPersonalityDescription(),
-                        b.getCharacterName(), lastLine, topic, firstTurn
-                );
-                if (aLine == null || aLine.isBlank())
-                    aLine = a.getCharacterName() + "이(가) 첫 발언을 던진다!";
-                dialogue.add(new DebateLineVO(a.getCharacterName(), aLine));
-                sendJson(session, Map.of("type", "line", "speaker", a.getCharacterName(), "line", aLine));
-                lastLine = aLine;
-                Thread.sleep(800);
-
-                // B 발언
-                String bLine = debateService.generateLine(
-                        b.getCharacterName(), bP.getPersonalityDescription(),
-                        a.getCharacterName(), lastLine, topic, false
-                );
-                if (bLine == null || bLine.isBlank())
-                    bLine = b.getCharacterName() + "이(가) 반박한다.";
-                dialogue.add(new DebateLineVO(b.getCharacterName(), bLine));
-                sendJson(session, Map.of("type", "line", "speaker", b.getCharacterName(), "line", bLine));
-                lastLine = bLine;
-                Thread.sleep(800);
-            }
+            CompletableFuture.supplyAsync(() -> runDebate(session, req, topic), debateExecutor)
+                    .thenCompose(debate -> debate)
+                    .exceptionally(e -> {
+                        Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+                        if (cause instanceof CancellationException) {
+                            log.info("[Debate] 세션 종료로 토론 중단: {}", session.getId());
+                        } else {
+                            sendError(session, cause);
+                        }
+                        return null;
+                    });
 
+        } catch (Exception e) {
+            sendError(session, e);
+        }
+    }
+
+    private CompletableFuture<Void> runDebate(WebSocketSession session, DebateRequestVO req, String topic) {
+        CharacterVO a = debateService.getCharacter(req.getCharacterAId());
+        CharacterVO b = debateService.getCharacter(req.getCharacterBId());
+        CharacterPersonalityVO aP = debateService.getPersonality(a.getCharacterPersonalityId());
+        CharacterPersonalityVO bP = debateService.getPersonality(b.getCharacterPersonalityId());
+
+        // 체인 단계가 순서대로 실행되므로 동기화 없이 사용
+        List<DebateLineVO> dialogue = new ArrayList<>();
+
+        // 턴마다 실시간 진행 (A 발언 -> 대기 -> B 발언 -> 대기)
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int turn = 1; turn <= req.getTurnsPerSide(); turn++) {
+            boolean firstTurn = (turn == 1);
+
+            chain = chain
+                    // A 발언
+                    .thenCompose(v -> speak(session, dialogue, topic, firstTurn,
+                            a.getCharacterName(), aP.getPersonalityDescription(), b.getCharacterName(),
+                            a.getCharacterName() + "이(가) 첫 발언을 던진다!"))
+                    // B 발언
+                    .thenCompose(v -> speak(session, dialogue, topic, false,
+                            b.getCharacterName(), bP.getPersonalityDescription(), a.getCharacterName(),
+                            b.getCharacterName() + "이(가) 반박한다."));
+        }
+
+        return chain.thenRunAsync(() -> {
             // 오버레이 출력을 위한 end 메시지 전송
             sendJson(session, Map.of("type", "end"));
 
@@ -92,17 +135,41 @@ public class DebateWebSocketHandler implements WebSocketHandler {
                     "votes", verdict.get("votes"),
                     "comments", verdict.get("comments")
             ));
+        }, debateExecutor);
+    }
 
-        } catch (Exception e) {
-            log.error("[Debate] handleMessage error", e);
-            try {
-                sendJson(session, Map.of("type", "error", "message", "서버 오류"));
-            } catch (Exception ignore) {}
+    /** 발언 하나 생성(토론 풀) -> 전송 -> lineIntervalMs 대기(타이머) */
+    private CompletableFuture<Void> speak(WebSocketSession session, List<DebateLineVO> dialogue, String topic, boolean firstTurn,
+                                          String speaker, String personality, String opponent, String fallbackLine) {
+        if (!session.isOpen()) {
+            return CompletableFuture.failedFuture(new CancellationException("토론 중단: sessionId=" + session.getId()));
         }
+        String lastLine = dialogue.isEmpty() ? "" : dialogue.get(dialogue.size() - 1).getLine();
+
+        return CompletableFuture
+                .supplyAsync(() -> debateService.generateLine(speaker, personality, opponent, lastLine, topic, firstTurn),
+                        debateExecutor)
+                .thenCompose(line -> {
+                    if (line == null || line.isBlank()) line = fallbackLine;
+                    dialogue.add(new DebateLineVO(speaker, line));
+                    sendJson(session, Map.of("type", "line", "speaker", speaker, "line", line));
+                    return pacedMessageSender.delay(lineIntervalMs);
+                });
     }
 
-    private void sendJson(WebSocketSession session, Map<String, ?> data) throws Exception {
-        session.sendMessage(new TextMessage(mapper.writeValueAsString(data)));
+    private void sendError(WebSocketSession session, Throwable e) {
+        log.error("[Debate] handleMessage error", e);
+        try {
+            sendJson(session, Map.of("type", "error", "message", "서버 오류"));
+        } catch (Exception ignore) {}
+    }
+
+    private void sendJson(WebSocketSession session, Map<String, ?> data) {
+        try {
+            pacedMessageSender.send(session, mapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
     }
 
     @Override public void handleTransportError(WebSocketSession session, Throwable exception) { }
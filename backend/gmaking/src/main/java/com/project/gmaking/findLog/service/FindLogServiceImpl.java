@@ -2,9 +2,12 @@ package com.project.gmaking.findLog.service;
 
 import com.project.gmaking.character.dao.CharacterDAO;
 import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pve.dao.BattleReplayDAO;
 import com.project.gmaking.pve.dao.PveBattleDAO;
-import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.pve.replay.BattleReplayCodec;
+import com.project.gmaking.pve.replay.BattleReplayRenderer;
 import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pve.vo.TurnLogSourceVO;
 import com.project.gmaking.pve.vo.TurnLogVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,7 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FindLogServiceImpl implements FindLogService{
 
-    private final TurnLogDAO turnLogDAO;
+    private final BattleReplayDAO battleReplayDAO;
     private final PveBattleDAO battleDAO;
     private final CharacterDAO characterDAO;
 
@@ -42,8 +45,30 @@ public class FindLogServiceImpl implements FindLogService{
         return result;
     }
 
+    /**
+     * 특정 배틀의 턴 로그
+     * - 한 번의 조회로 저장 방식 판별: 압축 기록(TB_BATTLE_REPLAY)이 있으면 그 한 행, 없으면 TB_TURN_LOG 행들
+     * - 압축 기록은 문장을 생성해 반환
+     */
     @Override
     public List<TurnLogVO> getTurnLogsByBattleId(Integer battleId) {
-        return turnLogDAO.selectTurnLogsByBattleId(battleId);
+        List<TurnLogSourceVO> rows = battleReplayDAO.selectTurnLogSource(battleId);
+        if (rows.isEmpty() || rows.get(0).getPayload() == null) {
+            List<TurnLogVO> turnLogs = new ArrayList<>(rows.size());
+            for (TurnLogSourceVO row : rows) {
+                turnLogs.add(new TurnLogVO(row.getTurnLogId(), row.getBattleId(), row.getTurnNumber(),
+                        row.getActionDetail(), row.getCreatedDate()));
+            }
+            return turnLogs;
+        }
+
+        TurnLogSourceVO replay = rows.get(0);
+        List<String> lines = BattleReplayRenderer.render(BattleReplayCodec.decode(replay.getPayload()));
+        List<TurnLogVO> turnLogs = new ArrayList<>(lines.size());
+        int turnNumber = 1;
+        for (String line : lines) {
+            turnLogs.add(new TurnLogVO(null, battleId, turnNumber++, line, replay.getCreatedDate()));
+        }
+        return turnLogs;
     }
 }
@@ -0,0 +1,55 @@
+package com.project.gmaking.notification.facade;
+
+import com.project.gmaking.character.vo.CharacterStatVO;
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.common.event.BattleFinishedEvent;
+import com.project.gmaking.common.event.BattleFinishedSubscriber;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * PVP 결과 알림 (REST PVP 종료 시)
+ * - 수신자 한 명당 구독자 하나 (BattleEventConfig 에서 나 / 상대 두 개 등록)
+ *   -> 한쪽 알림이 실패해 재시도돼도 이미 보낸 쪽 알림이 중복 발송되지 않음
+ * - 실시간 PVP 는 결과를 화면에서 바로 보므로 알림 생략
+ */
+@RequiredArgsConstructor
+public class PvpResultNotificationSubscriber implements BattleFinishedSubscriber {
+
+    private final NotificationFacade notificationFacade;
+    // true 면 상대(공격받은 캐릭터의 주인)에게, false 면 전투를 건 유저에게
+    private final boolean toOpponent;
+
+    @Override
+    public String name() {
+        return toOpponent ? "pvp-notify-opponent" : "pvp-notify-player";
+    }
+
+    @Override
+    public void onBattleFinished(BattleFinishedEvent event) {
+        if (!event.isPvp() || event.live()) return;
+
+        CharacterVO me = toOpponent ? event.opponent() : event.character();
+        CharacterVO other = toOpponent ? event.character() : event.opponent();
+        boolean isWin = toOpponent != event.win();
+        CharacterStatVO otherStat = (other != null) ? other.getCharacterStat() : null;
+
+        // 수신자 기준으로 상대 정보를 opponent*, 재대결 seed 는 수신자 본인
+        notificationFacade.pvpResult(
+                me != null ? me.getUserId() : null,
+                isWin,
+                other != null ? other.getUserId() : null,
+                other != null ? other.getCharacterName() : null,
+                event.battleId(),
+                other != null ? other.getCharacterId() : null,      // opponentCharacterId
+                other != null ? other.getImageUrl() : null,         // opponentImageUrl
+                me != null ? me.getUserId() : null,                 // requesterUserId (수신자=나)
+                me != null ? me.getCharacterId() : null,            // requesterCharacterId
+                otherStat != null ? otherStat.getCharacterHp()      : null,
+                otherStat != null ? otherStat.getCharacterAttack()  : null,
+                otherStat != null ? otherStat.getCharacterDefense() : null,
+                otherStat != null ? otherStat.getCharacterSpeed()   : null,
+                otherStat != null ? otherStat.getCriticalRate()     : null,
+                "system"
+        );
+    }
+}
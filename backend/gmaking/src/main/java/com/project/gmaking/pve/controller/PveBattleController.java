@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
@@ -20,9 +21,13 @@ import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.bind.annotation.PathVariable;
 
+import com.project.gmaking.pve.service.AutoBattleService;
+import com.project.gmaking.pve.service.BattleSimulationService;
 import com.project.gmaking.pve.service.PveBattleService;
 import com.project.gmaking.pve.vo.MonsterVO;
+import com.project.gmaking.pve.vo.AutoBattleResultVO;
 import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pve.vo.WinProbabilityVO;
 import com.project.gmaking.map.vo.MapVO;
 import com.project.gmaking.character.vo.CharacterVO;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -40,6 +45,8 @@ public class PveBattleController {
 
     private final PveBattleService pveBattleService;
     private final CharacterService characterService;
+    private final BattleSimulationService battleSimulationService;
+    private final AutoBattleService autoBattleService;
 
     // 맵 목록 조회
     @GetMapping("/maps")
@@ -86,10 +93,44 @@ public class PveBattleController {
     public ResponseEntity<BattleLogVO> startBattle(
             @RequestParam Integer characterId,
             @RequestParam Integer mapId,
-            @RequestParam String userId) {
+            @RequestParam String userId,
+            @RequestParam(defaultValue = "false") boolean pipelined,
+            @RequestParam(defaultValue = "COMIC") String noteStyle) {
 
         MonsterVO monster = pveBattleService.encounterMonster(mapId);
-        BattleLogVO result = pveBattleService.startBattle(characterId, monster, userId);
+        BattleLogVO result = pipelined
+                ? pveBattleService.startBattlePipelined(characterId, monster, userId, noteStyle)
+                : pveBattleService.startBattle(characterId, monster, userId);
         return ResponseEntity.ok(result);
     }
+
+    // 자동 전투 (해설 없이 count 회 연속 전투, 결과 일괄 반영)
+    @PostMapping("/battle/auto")
+    public ResponseEntity<AutoBattleResultVO> autoBattle(
+            @RequestParam Integer characterId,
+            @RequestParam Integer mapId,
+            @RequestParam(defaultValue = "10") int count,
+            Authentication auth) {
+        // 소유자 확인은 요청 파라미터가 아닌 인증된 사용자 기준
+        String userId = auth.getName();
+        return ResponseEntity.ok(autoBattleService.autoBattle(characterId, mapId, userId, count));
+    }
+
+    // 승률 시뮬레이션 (monsterId 또는 monsterType 중 하나 지정)
+    @GetMapping("/simulate")
+    public ResponseEntity<WinProbabilityVO> simulate(
+            @RequestParam Integer characterId,
+            @RequestParam(required = false) Integer monsterId,
+            @RequestParam(required = false) String monsterType,
+            @RequestParam(defaultValue = "10000") int runs,
+            @RequestParam(required = false) Long seed) {
+
+        if (monsterId != null) {
+            return ResponseEntity.ok(battleSimulationService.simulateVsMonster(characterId, monsterId, runs, seed));
+        }
+        if (monsterType != null && !monsterType.isBlank()) {
+            return ResponseEntity.ok(battleSimulationService.simulateVsMonsterType(characterId, monsterType, runs, seed));
+        }
+        throw new IllegalArgumentException("monsterId 또는 monsterType 이 필요합니다.");
+    }
 }
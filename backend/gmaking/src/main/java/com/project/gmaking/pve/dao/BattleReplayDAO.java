@@ -0,0 +1,17 @@
+package com.project.gmaking.pve.dao;
+
+import com.project.gmaking.pve.vo.BattleReplayVO;
+import com.project.gmaking.pve.vo.TurnLogSourceVO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface BattleReplayDAO {
+    // 전투 한 건의 압축 기록 저장
+    void insertReplay(BattleReplayVO replay);
+    // 여러 전투의 압축 기록을 한 번의 INSERT 로 저장
+    void insertReplays(List<BattleReplayVO> replays);
+    // 전투 한 건의 턴 로그를 한 번에 조회 (압축 기록 한 행, 없으면 TB_TURN_LOG 행들)
+    List<TurnLogSourceVO> selectTurnLogSource(Integer battleId);
+}
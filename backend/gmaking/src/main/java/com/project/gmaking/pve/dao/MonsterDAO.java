@@ -4,9 +4,13 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import com.project.gmaking.pve.vo.MonsterVO;
 
+import java.util.List;
+
 @Mapper
 public interface MonsterDAO {
     MonsterVO getRandomMonsterByType(String type);
     // 타입(NORMAL, BOSS)에 따라 랜덤 몬스터 1마리 조회
     MonsterVO selectRandomMonster(@Param("monsterType") String monsterType);
+    // 조우 카탈로그 적재용 전체 몬스터 (이미지 포함)
+    List<MonsterVO> selectAllMonstersForEncounter();
 }
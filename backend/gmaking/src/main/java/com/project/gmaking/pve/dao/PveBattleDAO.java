@@ -8,6 +8,8 @@ import java.util.List;
 public interface PveBattleDAO {
 
     void insertBattleLog(BattleLogVO battleLog);
+    // 여러 전투 기록을 한 번의 INSERT 로 저장 (생성된 battleId 는 각 VO 에 채워짐)
+    void insertBattleLogs(List<BattleLogVO> battleLogs);
     void updateBattleLogResult(BattleLogVO battleLog);
 
     // 캐릭터 ID로 배틀 로그 조회
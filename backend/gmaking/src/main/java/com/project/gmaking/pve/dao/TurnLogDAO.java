@@ -2,10 +2,17 @@ package com.project.gmaking.pve.dao;
 
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import com.project.gmaking.pve.vo.TurnLogVO;
 
 @Mapper
 public interface TurnLogDAO {
     void insertTurnLog(TurnLogVO turnLog);
+    // 여러 턴 로그를 한 번의 INSERT 로 저장
+    void insertTurnLogs(List<TurnLogVO> turnLogs);
     List<TurnLogVO> selectTurnLogsByBattleId(Integer battleId);
+    // 이미 저장된 턴 로그 내용 교체 (비동기 해설 반영)
+    int updateTurnLogDetail(@Param("battleId") Integer battleId,
+                            @Param("turnNumber") Integer turnNumber,
+                            @Param("actionDetail") String actionDetail);
 }
@@ -0,0 +1,69 @@
+package com.project.gmaking.pve.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 가중치 기반 O(1) 샘플링 (Walker/Vose alias method)
+ * - 생성 시 O(n) 으로 확률/별칭 배열을 미리 계산
+ * - sample() 은 난수 두 번과 배열 조회 두 번으로 끝남
+ * - 생성 후 불변이므로 여러 스레드에서 동시에 사용 가능
+ */
+public final class AliasTable {
+
+    private final double[] prob;
+    private final int[] alias;
+
+    /**
+     * @param weights 음수가 아닌 가중치 (합이 0 보다 커야 함)
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("가중치가 비어 있습니다.");
+
+        double sum = 0;
+        for (double w : weights) {
+            if (w < 0 || Double.isNaN(w)) throw new IllegalArgumentException("가중치는 0 이상이어야 합니다: " + w);
+            sum += w;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("가중치 합이 0 입니다.");
+
+        prob = new double[n];
+        alias = new int[n];
+
+        // 평균이 1 이 되도록 스케일링 후 1 미만(small) / 이상(large) 으로 분류
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0, largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1.0) small[smallSize++] = i;
+            else large[largeSize++] = i;
+        }
+
+        // small 칸의 빈 공간을 large 칸에서 채움
+        while (smallSize > 0 && largeSize > 0) {
+            int s = small[--smallSize];
+            int l = large[--largeSize];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[smallSize++] = l;
+            else large[largeSize++] = l;
+        }
+
+        // 부동소수 오차로 남은 칸은 확률 1
+        while (largeSize > 0) prob[large[--largeSize]] = 1.0;
+        while (smallSize > 0) prob[small[--smallSize]] = 1.0;
+    }
+
+    /** 가중치에 비례하는 인덱스 하나를 뽑음 */
+    public int sample(RandomGenerator rng) {
+        int column = rng.nextInt(prob.length);
+        return rng.nextDouble() < prob[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return prob.length;
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.gmaking.pve.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * PVE 전투 계산 엔진 (순수 함수, DB/GPT/문자열 생성 없음)
+ * - 속도가 같거나 빠른 쪽이 선공, 이후 번갈아 공격
+ * - 데미지 = max(1, (크리티컬이면 공격력 x2) - 방어력)
+ * - RandomGenerator 를 주입받으므로 같은 시드면 같은 전투가 재현됨
+ */
+public final class BattleEngine {
+
+    private BattleEngine() {
+    }
+
+    /**
+     * 한쪽 HP 가 0 이하가 될 때까지 전투를 진행하고 턴 이벤트를 out 에 기록
+     *
+     * @return 플레이어 승리 여부
+     */
+    public static boolean simulate(BattleStats player, BattleStats monster, RandomGenerator rng, TurnEventBuffer out) {
+        out.clear();
+
+        int playerHp = player.hp;
+        int monsterHp = monster.hp;
+        boolean playerFirst = player.speed >= monster.speed;
+
+        int turn = 1;
+        while (playerHp > 0 && monsterHp > 0) {
+            boolean isPlayerAttack = (turn % 2 == 1) == playerFirst;
+            int atk = isPlayerAttack ? player.attack : monster.attack;
+            int def = isPlayerAttack ? monster.defense : player.defense;
+            int critRate = isPlayerAttack ? player.criticalRate : monster.criticalRate;
+
+            boolean critical = rng.nextDouble() * 100 < critRate;
+            int damage = damage(atk, def, critical);
+
+            if (isPlayerAttack) monsterHp -= damage;
+            else playerHp -= damage;
+
+            out.add(isPlayerAttack, damage, critical, playerHp, monsterHp);
+            turn++;
+        }
+        return monsterHp <= 0;
+    }
+
+    /** 한 번의 공격 데미지 */
+    public static int damage(int attack, int defense, boolean critical) {
+        return Math.max(1, (critical ? attack * 2 : attack) - defense);
+    }
+}
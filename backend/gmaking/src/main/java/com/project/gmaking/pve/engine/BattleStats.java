@@ -0,0 +1,51 @@
+package com.project.gmaking.pve.engine;
+
+import com.project.gmaking.character.vo.CharacterStatVO;
+import com.project.gmaking.pve.vo.MonsterVO;
+
+/**
+ * 전투 계산용 스탯 (primitive 필드만 사용)
+ * - VO 의 Integer 필드를 매 턴 언박싱하지 않도록 전투 시작 시 한 번만 변환
+ */
+public final class BattleStats {
+
+    public final int hp;
+    public final int attack;
+    public final int defense;
+    public final int speed;
+    public final int criticalRate;
+
+    public BattleStats(int hp, int attack, int defense, int speed, int criticalRate) {
+        this.hp = hp;
+        this.attack = attack;
+        this.defense = defense;
+        this.speed = speed;
+        this.criticalRate = criticalRate;
+    }
+
+    /** 캐릭터 스탯 변환 (null 이면 1) */
+    public static BattleStats of(CharacterStatVO stat) {
+        return new BattleStats(
+                nz(stat.getCharacterHp(), 1),
+                nz(stat.getCharacterAttack(), 1),
+                nz(stat.getCharacterDefense(), 1),
+                nz(stat.getCharacterSpeed(), 1),
+                nz(stat.getCriticalRate(), 1)
+        );
+    }
+
+    /** 몬스터 스탯 변환 (HP 는 null 이면 1, 나머지는 0) */
+    public static BattleStats of(MonsterVO monster) {
+        return new BattleStats(
+                nz(monster.getMonsterHp(), 1),
+                nz(monster.getMonsterAttack(), 0),
+                nz(monster.getMonsterDefense(), 0),
+                nz(monster.getMonsterSpeed(), 0),
+                nz(monster.getMonsterCriticalRate(), 0)
+        );
+    }
+
+    private static int nz(Integer value, int fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.gmaking.pve.engine;
+
+import java.util.Arrays;
+
+/**
+ * 한 전투의 턴 이벤트 기록 (재사용 가능한 배열 버퍼)
+ * - 턴마다 객체/문자열을 만들지 않고 병렬 배열에 기록
+ * - clear() 후 다시 쓰면 한 번 늘어난 배열을 그대로 재사용
+ * - 스레드 간 공유 금지 (스레드마다 하나씩 사용)
+ */
+public final class TurnEventBuffer {
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private boolean[] playerAttack;
+    private int[] damage;
+    private boolean[] critical;
+    private int[] playerHp;
+    private int[] monsterHp;
+    private int size;
+
+    public TurnEventBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TurnEventBuffer(int capacity) {
+        int cap = Math.max(1, capacity);
+        playerAttack = new boolean[cap];
+        damage = new int[cap];
+        critical = new boolean[cap];
+        playerHp = new int[cap];
+        monsterHp = new int[cap];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    void add(boolean isPlayerAttack, int dmg, boolean crit, int pHp, int mHp) {
+        if (size == damage.length) grow();
+        playerAttack[size] = isPlayerAttack;
+        damage[size] = dmg;
+        critical[size] = crit;
+        playerHp[size] = pHp;
+        monsterHp[size] = mHp;
+        size++;
+    }
+
+    private void grow() {
+        int cap = damage.length * 2;
+        playerAttack = Arrays.copyOf(playerAttack, cap);
+        damage = Arrays.copyOf(damage, cap);
+        critical = Arrays.copyOf(critical, cap);
+        playerHp = Arrays.copyOf(playerHp, cap);
+        monsterHp = Arrays.copyOf(monsterHp, cap);
+    }
+
+    /** 기록된 턴 수 */
+    public int size() {
+        return size;
+    }
+
+    /** i번째 턴(0부터)의 공격자가 플레이어인지 */
+    public boolean isPlayerAttack(int i) {
+        return playerAttack[i];
+    }
+
+    public int damage(int i) {
+        return damage[i];
+    }
+
+    public boolean critical(int i) {
+        return critical[i];
+    }
+
+    /** i번째 턴 종료 후 플레이어 HP */
+    public int playerHp(int i) {
+        return playerHp[i];
+    }
+
+    /** i번째 턴 종료 후 몬스터 HP */
+    public int monsterHp(int i) {
+        return monsterHp[i];
+    }
+
+    /** 마지막 턴 기준 플레이어 승리 여부 */
+    public boolean playerWon() {
+        return size > 0 && monsterHp[size - 1] <= 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.gmaking.pve.engine;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 몬테카를로 승률 시뮬레이터 (BattleEngine 을 그대로 반복 실행)
+ * - runs 회를 LEAF_SIZE 단위로 나눠 fork/join 으로 코어마다 병렬 실행
+ * - 구간마다 (seed, 시작 인덱스)로 난수를 만들므로 같은 seed 면 풀 크기와 관계없이 같은 결과
+ * - 구간마다 TurnEventBuffer 하나를 재사용, 루프 안에서 DB/GPT/문자열 생성 없음
+ */
+public final class WinProbabilitySimulator {
+
+    // 한 작업이 순차로 돌리는 전투 수 (결과 재현성을 위해 고정)
+    static final int LEAF_SIZE = 512;
+    // 데미지 분포 배열 최대 길이 (이 이상은 마지막 칸에 합산)
+    static final int MAX_DAMAGE_BUCKETS = 4096;
+
+    private WinProbabilitySimulator() {
+    }
+
+    /**
+     * @param monsters 상대 후보 (2마리 이상이면 전투마다 균등 확률로 하나 선택)
+     */
+    public static Summary run(BattleStats player, BattleStats[] monsters, int runs, long seed, ForkJoinPool pool) {
+        if (monsters.length == 0) throw new IllegalArgumentException("상대 몬스터 없음");
+        if (runs <= 0) return new Summary(0);
+
+        int maxAttack = player.attack;
+        for (BattleStats m : monsters) maxAttack = Math.max(maxAttack, m.attack);
+        int buckets = (int) Math.min(MAX_DAMAGE_BUCKETS, Math.max(2L, maxAttack * 2L + 1));
+
+        return pool.invoke(new SimulationTask(player, monsters, seed, buckets, 0, runs));
+    }
+
+    /** 시뮬레이션 집계 결과 */
+    public static final class Summary {
+        private int runs;
+        private int wins;
+        private long totalTurns;
+        private int minTurns = Integer.MAX_VALUE;
+        private int maxTurns;
+        private long[] playerDamage;   // 인덱스 = 플레이어 공격 1회 데미지, 값 = 횟수
+        private long[] monsterDamage;  // 인덱스 = 몬스터 공격 1회 데미지, 값 = 횟수
+
+        Summary(int buckets) {
+            playerDamage = new long[buckets];
+            monsterDamage = new long[buckets];
+        }
+
+        public int runs() {
+            return runs;
+        }
+
+        public int wins() {
+            return wins;
+        }
+
+        public double winRate() {
+            return runs == 0 ? 0.0 : (double) wins / runs;
+        }
+
+        public double averageTurns() {
+            return runs == 0 ? 0.0 : (double) totalTurns / runs;
+        }
+
+        public int minTurns() {
+            return runs == 0 ? 0 : minTurns;
+        }
+
+        public int maxTurns() {
+            return maxTurns;
+        }
+
+        /** 플레이어 공격 데미지 분포 (데미지 -> 횟수, 0회는 제외) */
+        public Map<Integer, Long> playerDamageDistribution() {
+            return toMap(playerDamage);
+        }
+
+        /** 몬스터 공격 데미지 분포 (데미지 -> 횟수, 0회는 제외) */
+        public Map<Integer, Long> monsterDamageDistribution() {
+            return toMap(monsterDamage);
+        }
+
+        private void record(boolean won, TurnEventBuffer events) {
+            int turns = events.size();
+            runs++;
+            if (won) wins++;
+            totalTurns += turns;
+            if (turns < minTurns) minTurns = turns;
+            if (turns > maxTurns) maxTurns = turns;
+
+            int last = playerDamage.length - 1;
+            for (int i = 0; i < turns; i++) {
+                int dmg = Math.min(events.damage(i), last);
+                if (events.isPlayerAttack(i)) playerDamage[dmg]++;
+                else monsterDamage[dmg]++;
+            }
+        }
+
+        private Summary merge(Summary other) {
+            runs += other.runs;
+            wins += other.wins;
+            totalTurns += other.totalTurns;
+            minTurns = Math.min(minTurns, other.minTurns);
+            maxTurns = Math.max(maxTurns, other.maxTurns);
+            for (int i = 0; i < playerDamage.length; i++) {
+                playerDamage[i] += other.playerDamage[i];
+                monsterDamage[i] += other.monsterDamage[i];
+            }
+            return this;
+        }
+
+        private static Map<Integer, Long> toMap(long[] histogram) {
+            Map<Integer, Long> map = new TreeMap<>();
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] > 0) map.put(i, histogram[i]);
+            }
+            return map;
+        }
+    }
+
+    private static final class SimulationTask extends RecursiveTask<Summary> {
+        private final BattleStats player;
+        private final BattleStats[] monsters;
+        private final long seed;
+        private final int buckets;
+        private final int from;
+        private final int to;
+
+        SimulationTask(BattleStats player, BattleStats[] monsters, long seed, int buckets, int from, int to) {
+            this.player = player;
+            this.monsters = monsters;
+            this.seed = seed;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= LEAF_SIZE) return simulateRange();
+
+            // LEAF_SIZE 경계로 나눠 구간별 난수 시작점이 분할 방식과 무관하도록 유지
+            int leaves = (to - from + LEAF_SIZE - 1) / LEAF_SIZE;
+            int mid = from + (leaves / 2) * LEAF_SIZE;
+            SimulationTask left = new SimulationTask(player, monsters, seed, buckets, from, mid);
+            SimulationTask right = new SimulationTask(player, monsters, seed, buckets, mid, to);
+            left.fork();
+            Summary result = right.compute();
+            return result.merge(left.join());
+        }
+
+        private Summary simulateRange() {
+            SplittableRandom rng = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+            TurnEventBuffer events = new TurnEventBuffer();
+            Summary summary = new Summary(buckets);
+
+            for (int i = from; i < to; i++) {
+                BattleStats monster = monsters.length == 1 ? monsters[0] : monsters[rng.nextInt(monsters.length)];
+                boolean won = BattleEngine.simulate(player, monster, rng, events);
+                summary.record(won, events);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.gmaking.pve.replay;
+
+import java.util.List;
+
+/**
+ * 전투 한 건의 구조화된 기록 (문장은 저장하지 않고 조회 시 BattleReplayRenderer 로 생성)
+ * - 이름/몬스터 스탯은 한 번만, 턴마다는 공격자/데미지/크리티컬/HP/해설만 보관
+ */
+public record BattleReplay(
+        String playerName,
+        String monsterName,
+        int monsterHp,
+        int monsterAttack,
+        int monsterDefense,
+        int monsterSpeed,
+        int monsterCriticalRate,
+        boolean win,
+        List<Turn> turns
+) {
+
+    /** 한 턴의 결과 (playerHp/monsterHp 는 턴 종료 후 남은 HP) */
+    public record Turn(boolean playerAttack, int damage, boolean critical, int playerHp, int monsterHp, String note) {}
+}
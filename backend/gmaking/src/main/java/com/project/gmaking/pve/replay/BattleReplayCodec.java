@@ -0,0 +1,138 @@
+package com.project.gmaking.pve.replay;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * BattleReplay <-> 압축 바이트 변환
+ *
+ * 형식 (FORMAT_VERSION = 1)
+ * - 1바이트 버전 (비압축) + 이하 DEFLATE 압축 본문
+ * - 헤더: playerName, monsterName, 몬스터 스탯 5개, win, 턴 수
+ * - 턴: flags(1바이트: 공격자/크리티컬) + damage, playerHp, monsterHp (zigzag varint) + note
+ * - 문자열은 varint 길이 + UTF-8, 정수는 대부분 1~2바이트
+ */
+public final class BattleReplayCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int FLAG_PLAYER_ATTACK = 1;
+    private static final int FLAG_CRITICAL = 1 << 1;
+
+    private BattleReplayCodec() {
+    }
+
+    public static byte[] encode(BattleReplay replay) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        bytes.write(FORMAT_VERSION);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            writeString(out, replay.playerName());
+            writeString(out, replay.monsterName());
+            writeInt(out, replay.monsterHp());
+            writeInt(out, replay.monsterAttack());
+            writeInt(out, replay.monsterDefense());
+            writeInt(out, replay.monsterSpeed());
+            writeInt(out, replay.monsterCriticalRate());
+            out.writeBoolean(replay.win());
+
+            List<BattleReplay.Turn> turns = replay.turns();
+            writeInt(out, turns.size());
+            for (BattleReplay.Turn t : turns) {
+                int flags = (t.playerAttack() ? FLAG_PLAYER_ATTACK : 0) | (t.critical() ? FLAG_CRITICAL : 0);
+                out.writeByte(flags);
+                writeInt(out, t.damage());
+                writeInt(out, t.playerHp());
+                writeInt(out, t.monsterHp());
+                writeString(out, t.note());
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream 에 쓰므로 발생하지 않음
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    public static BattleReplay decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            throw new IllegalArgumentException("빈 전투 기록");
+        }
+        int version = payload[0];
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 전투 기록 형식: " + version);
+        }
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(payload, 1, payload.length - 1)))) {
+            String playerName = readString(in);
+            String monsterName = readString(in);
+            int monsterHp = readInt(in);
+            int monsterAttack = readInt(in);
+            int monsterDefense = readInt(in);
+            int monsterSpeed = readInt(in);
+            int monsterCriticalRate = readInt(in);
+            boolean win = in.readBoolean();
+
+            int count = readInt(in);
+            List<BattleReplay.Turn> turns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int flags = in.readUnsignedByte();
+                turns.add(new BattleReplay.Turn(
+                        (flags & FLAG_PLAYER_ATTACK) != 0,
+                        readInt(in),
+                        (flags & FLAG_CRITICAL) != 0,
+                        readInt(in),
+                        readInt(in),
+                        readString(in)
+                ));
+            }
+            return new BattleReplay(playerName, monsterName, monsterHp, monsterAttack, monsterDefense,
+                    monsterSpeed, monsterCriticalRate, win, turns);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("손상된 전투 기록", e);
+        }
+    }
+
+    // ===== varint / 문자열 =====
+
+    private static void writeInt(DataOutput out, int value) throws IOException {
+        int v = (value << 1) ^ (value >> 31); // zigzag (음수 HP 대비)
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readInt(DataInput in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return (v >>> 1) ^ -(v & 1);
+        }
+        throw new IOException("varint 범위 초과");
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] utf8 = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        writeInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readInt(in);
+        if (length < 0) throw new IOException("잘못된 문자열 길이: " + length);
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
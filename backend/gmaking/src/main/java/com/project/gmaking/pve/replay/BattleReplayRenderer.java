@@ -0,0 +1,43 @@
+package com.project.gmaking.pve.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BattleReplay -> 화면용 로그 문장 (조회 시점에 생성)
+ * - REST 전투가 TB_TURN_LOG 에 남기던 문장과 같은 모양: 조우 문장, 턴 문장들, 종료 문장
+ */
+public final class BattleReplayRenderer {
+
+    private BattleReplayRenderer() {
+    }
+
+    public static List<String> render(BattleReplay replay) {
+        List<String> lines = new ArrayList<>(replay.turns().size() + 2);
+
+        lines.add(String.format("%s(HP:%d, 공격:%d, 방어:%d, 속도:%d, 크리티컬:%d)을 마주쳤다!",
+                replay.monsterName(),
+                replay.monsterHp(),
+                replay.monsterAttack(),
+                replay.monsterDefense(),
+                replay.monsterSpeed(),
+                replay.monsterCriticalRate()));
+
+        int turnNumber = 1;
+        for (BattleReplay.Turn t : replay.turns()) {
+            lines.add(String.format(
+                    "턴 %d: %s가 공격으로 %d 데미지를 입힘%s %s%n(플레이어HP:%d, 몬스터HP:%d)%n",
+                    turnNumber++,
+                    t.playerAttack() ? replay.playerName() : replay.monsterName(),
+                    t.damage(),
+                    t.critical() ? " 크리티컬 히트!" : "",
+                    t.note(),
+                    t.playerHp(),
+                    t.monsterHp()
+            ));
+        }
+
+        lines.add(replay.win() ? "승리! 전투 종료!" : "패배... 다음에 다시 도전하세요!");
+        return lines;
+    }
+}
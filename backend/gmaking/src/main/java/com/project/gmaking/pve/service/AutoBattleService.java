@@ -0,0 +1,9 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.pve.vo.AutoBattleResultVO;
+
+public interface AutoBattleService {
+
+    // 자동 전투: count 회 전투를 해설 없이(템플릿 문장) 한 번에 진행하고 결과를 일괄 반영
+    AutoBattleResultVO autoBattle(Integer characterId, Integer mapId, String userId, int count);
+}
@@ -0,0 +1,177 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.character.dao.CharacterDAO;
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pve.dao.BattleReplayDAO;
+import com.project.gmaking.pve.dao.PveBattleDAO;
+import com.project.gmaking.pve.engine.BattleEngine;
+import com.project.gmaking.pve.engine.BattleStats;
+import com.project.gmaking.pve.engine.TurnEventBuffer;
+import com.project.gmaking.pve.replay.BattleReplay;
+import com.project.gmaking.pve.replay.BattleReplayCodec;
+import com.project.gmaking.pve.replay.BattleReplayRenderer;
+import com.project.gmaking.pve.vo.AutoBattleResultVO;
+import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pve.vo.BattleReplayVO;
+import com.project.gmaking.pve.vo.MonsterVO;
+import com.project.gmaking.pve.vo.TurnLogVO;
+import com.project.gmaking.quest.service.QuestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PVE 자동 전투 (반복 사냥)
+ * - 전투 계산은 BattleEngine 으로 메모리에서 모두 끝낸 뒤, DB 반영은 한 트랜잭션에서 일괄 처리
+ *   (전투 기록 multi-row INSERT 1회 + 턴 기록 일괄 저장 + 스테이지 클리어/퀘스트 각 1회)
+ * - GPT 해설 없이 템플릿 문장만 사용
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutoBattleServiceImpl implements AutoBattleService {
+
+    private static final String NOTE_HIT = "공격이 적중했다.";
+    private static final String NOTE_CRITICAL = "급소를 정확히 노린 강력한 일격!";
+    private static final String NOTE_WIN = "적이 쓰러졌다. 승리!";
+    private static final String NOTE_LOSE = "힘이 다해 쓰러졌다. 패배!";
+
+    private final CharacterDAO characterDAO;
+    private final PveBattleDAO battleDAO;
+    private final BattleReplayDAO battleReplayDAO;
+    private final TurnLogWriter turnLogWriter;
+    private final EncounterCatalog encounterCatalog;
+    private final QuestService questService;
+
+    // 요청 한 번에 허용하는 최대 전투 수
+    @Value("${pve.auto-battle.max-count:100}")
+    private int maxCount;
+
+    // 턴 로그 저장 방식 (PveBattleServiceImpl 과 동일 설정 사용)
+    @Value("${pve.turn-log.storage:ROWS}")
+    private String turnLogStorage;
+
+    @Override
+    @Transactional
+    public AutoBattleResultVO autoBattle(Integer characterId, Integer mapId, String userId, int count) {
+        CharacterVO character = characterDAO.selectCharacterById(characterId);
+        if (character == null || character.getCharacterStat() == null) {
+            throw new IllegalArgumentException("캐릭터를 찾을 수 없습니다: " + characterId);
+        }
+        if (userId == null || !userId.equals(character.getUserId())) {
+            throw new IllegalArgumentException("본인 캐릭터만 자동 전투할 수 있습니다.");
+        }
+        int battleCount = Math.max(1, Math.min(count, maxCount));
+
+        // 1. 전투 계산 (DB/GPT 호출 없음)
+        BattleStats player = BattleStats.of(character.getCharacterStat());
+        TurnEventBuffer events = new TurnEventBuffer();
+        List<MonsterVO> monsters = new ArrayList<>(battleCount);
+        List<BattleReplay> replays = new ArrayList<>(battleCount);
+        List<BattleLogVO> battleLogs = new ArrayList<>(battleCount);
+        int wins = 0;
+        long totalTurns = 0;
+
+        for (int i = 0; i < battleCount; i++) {
+            MonsterVO monster = encounterCatalog.sample(mapId);
+            if (monster == null) throw new IllegalStateException("조우 가능한 몬스터가 없습니다.");
+
+            BattleStats m = BattleStats.of(monster);
+            boolean win = BattleEngine.simulate(player, m, ThreadLocalRandom.current(), events);
+            if (win) wins++;
+            totalTurns += events.size();
+
+            monsters.add(monster);
+            replays.add(toReplay(character, monster, m, win, events));
+
+            BattleLogVO battleLog = new BattleLogVO();
+            battleLog.setCharacterId(characterId);
+            battleLog.setOpponentId(monster.getMonsterId());
+            battleLog.setBattleType("PVE");
+            battleLog.setIsWin(win ? "Y" : "N");
+            battleLog.setTurnCount((long) events.size());
+            battleLog.setCreatedBy(userId);
+            battleLogs.add(battleLog);
+        }
+
+        // 2. 전투 기록 일괄 저장 (생성된 battleId 가 각 VO 에 채워짐)
+        battleDAO.insertBattleLogs(battleLogs);
+
+        // 3. 턴 기록 일괄 저장
+        saveTurnRecords(battleLogs, replays);
+
+        // 4. 스테이지 클리어 / 퀘스트 한 번에 반영
+        if (wins > 0) {
+            characterDAO.incrementStageClearBy(characterId, wins);
+            questService.updateQuestProgress(userId, "PVE", wins);
+        }
+
+        log.info("[자동 전투] characterId={}, userId={}, {}전 {}승", characterId, userId, battleCount, wins);
+
+        AutoBattleResultVO result = new AutoBattleResultVO();
+        result.setCharacterId(characterId);
+        result.setMapId(mapId);
+        result.setBattleCount(battleCount);
+        result.setWins(wins);
+        result.setLosses(battleCount - wins);
+        result.setTotalTurns(totalTurns);
+        result.setStageClearsAdded(wins);
+
+        List<AutoBattleResultVO.BattleSummary> summaries = new ArrayList<>(battleCount);
+        for (int i = 0; i < battleCount; i++) {
+            MonsterVO monster = monsters.get(i);
+            BattleLogVO battleLog = battleLogs.get(i);
+            summaries.add(new AutoBattleResultVO.BattleSummary(
+                    battleLog.getBattleId(), monster.getMonsterId(), monster.getMonsterName(), monster.getMonsterType(),
+                    battleLog.getIsWin(), battleLog.getTurnCount().intValue()));
+        }
+        result.setBattles(summaries);
+        return result;
+    }
+
+    /** 압축 기록 모드면 전투당 한 행, 아니면 템플릿 문장을 턴 로그 행으로 일괄 저장 */
+    private void saveTurnRecords(List<BattleLogVO> battleLogs, List<BattleReplay> replays) {
+        if ("REPLAY".equalsIgnoreCase(turnLogStorage)) {
+            List<BattleReplayVO> rows = new ArrayList<>(replays.size());
+            for (int i = 0; i < replays.size(); i++) {
+                rows.add(new BattleReplayVO(battleLogs.get(i).getBattleId(), BattleReplayCodec.FORMAT_VERSION,
+                        BattleReplayCodec.encode(replays.get(i)), null));
+            }
+            battleReplayDAO.insertReplays(rows);
+            return;
+        }
+
+        List<TurnLogVO> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < replays.size(); i++) {
+            Integer battleId = battleLogs.get(i).getBattleId();
+            int turnNumber = 1;
+            for (String line : BattleReplayRenderer.render(replays.get(i))) {
+                rows.add(new TurnLogVO(null, battleId, turnNumber++, line, now));
+            }
+        }
+        turnLogWriter.insertAll(rows);
+    }
+
+    private BattleReplay toReplay(CharacterVO character, MonsterVO monster, BattleStats m, boolean win, TurnEventBuffer events) {
+        int last = events.size() - 1;
+        List<BattleReplay.Turn> turns = new ArrayList<>(events.size());
+        for (int t = 0; t < events.size(); t++) {
+            String note;
+            if (t == last) note = win ? NOTE_WIN : NOTE_LOSE;
+            else note = events.critical(t) ? NOTE_CRITICAL : NOTE_HIT;
+
+            turns.add(new BattleReplay.Turn(events.isPlayerAttack(t), events.damage(t), events.critical(t),
+                    events.playerHp(t), events.monsterHp(t), note));
+        }
+        return new BattleReplay(character.getCharacterName(), monster.getMonsterName(),
+                m.hp, m.attack, m.defense, m.speed, m.criticalRate, win, turns);
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.pve.vo.WinProbabilityVO;
+
+public interface BattleSimulationService {
+
+    // 캐릭터 vs 특정 몬스터 승률 (seed 가 null 이면 임의 seed)
+    WinProbabilityVO simulateVsMonster(Integer characterId, Integer monsterId, int runs, Long seed);
+
+    // 캐릭터 vs 몬스터 타입(NORMAL, BOSS) 승률
+    WinProbabilityVO simulateVsMonsterType(Integer characterId, String monsterType, int runs, Long seed);
+}
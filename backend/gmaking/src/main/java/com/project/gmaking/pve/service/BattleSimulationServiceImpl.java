@@ -0,0 +1,90 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.character.dao.CharacterDAO;
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pve.engine.BattleStats;
+import com.project.gmaking.pve.engine.WinProbabilitySimulator;
+import com.project.gmaking.pve.vo.MonsterVO;
+import com.project.gmaking.pve.vo.WinProbabilityVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PVE 승률 시뮬레이션
+ * - 캐릭터 1회 조회 + 몬스터는 조우 카탈로그(메모리)에서 가져온 뒤, 시뮬레이션 루프는 순수 계산만 수행
+ * - UI 승률 표시 / 몬스터 밸런스 조정용
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BattleSimulationServiceImpl implements BattleSimulationService {
+
+    private final CharacterDAO characterDAO;
+    private final EncounterCatalog encounterCatalog;
+
+    // 요청 한 번에 허용하는 최대 시뮬레이션 횟수
+    @Value("${pve.simulation.max-runs:100000}")
+    private int maxRuns;
+
+    @Override
+    public WinProbabilityVO simulateVsMonster(Integer characterId, Integer monsterId, int runs, Long seed) {
+        MonsterVO monster = encounterCatalog.findMonster(monsterId);
+        if (monster == null) throw new IllegalArgumentException("몬스터를 찾을 수 없습니다: " + monsterId);
+
+        WinProbabilityVO result = simulate(characterId, List.of(monster), runs, seed);
+        result.setMonsterId(monsterId);
+        return result;
+    }
+
+    @Override
+    public WinProbabilityVO simulateVsMonsterType(Integer characterId, String monsterType, int runs, Long seed) {
+        List<MonsterVO> monsters = encounterCatalog.findByType(monsterType);
+        if (monsters.isEmpty()) throw new IllegalArgumentException("해당 타입의 몬스터가 없습니다: " + monsterType);
+
+        WinProbabilityVO result = simulate(characterId, monsters, runs, seed);
+        result.setMonsterType(monsterType.toUpperCase());
+        return result;
+    }
+
+    private WinProbabilityVO simulate(Integer characterId, List<MonsterVO> monsters, int runs, Long seed) {
+        CharacterVO character = characterDAO.selectCharacterById(characterId);
+        if (character == null || character.getCharacterStat() == null) {
+            throw new IllegalArgumentException("캐릭터 스탯을 찾을 수 없습니다: " + characterId);
+        }
+
+        int clampedRuns = Math.max(1, Math.min(runs, maxRuns));
+        long actualSeed = (seed != null) ? seed : ThreadLocalRandom.current().nextLong();
+
+        BattleStats player = BattleStats.of(character.getCharacterStat());
+        BattleStats[] opponents = monsters.stream().map(BattleStats::of).toArray(BattleStats[]::new);
+
+        long start = System.nanoTime();
+        WinProbabilitySimulator.Summary summary =
+                WinProbabilitySimulator.run(player, opponents, clampedRuns, actualSeed, ForkJoinPool.commonPool());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        WinProbabilityVO result = new WinProbabilityVO();
+        result.setCharacterId(characterId);
+        result.setMonsterCount(monsters.size());
+        result.setRuns(summary.runs());
+        result.setSeed(actualSeed);
+        result.setWins(summary.wins());
+        result.setWinRate(summary.winRate());
+        result.setAverageTurns(summary.averageTurns());
+        result.setMinTurns(summary.minTurns());
+        result.setMaxTurns(summary.maxTurns());
+        result.setPlayerDamageDistribution(summary.playerDamageDistribution());
+        result.setMonsterDamageDistribution(summary.monsterDamageDistribution());
+        result.setElapsedMs(elapsedMs);
+
+        log.info("[승률 시뮬레이션] characterId={}, 상대 {}마리, {}회, 승률 {}, {}ms",
+                characterId, monsters.size(), summary.runs(), summary.winRate(), elapsedMs);
+        return result;
+    }
+}
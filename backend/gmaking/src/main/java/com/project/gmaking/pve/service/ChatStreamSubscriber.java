@@ -0,0 +1,98 @@
+package com.project.gmaking.pve.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * chat-completions 스트리밍(SSE) 응답을 줄 단위로 받아 delta 텍스트를 전달하는 구독자
+ * - "data: {...}" 줄의 choices[0].delta.content 만 사용하고, 그 외 줄(빈 줄, 주석, 오류 본문)은 무시
+ * - "data: [DONE]" 또는 스트림 종료 시 누적 텍스트로 result() 완료
+ * - stream_options.include_usage 로 받은 마지막 usage 청크의 토큰 수를 보관 (없으면 -1)
+ * - onDelta 가 예외를 던지면(세션 종료 등) 구독을 취소하고 result() 를 그 예외로 완료
+ */
+final class ChatStreamSubscriber implements Flow.Subscriber<String> {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+
+    private final ObjectMapper mapper;
+    private final Consumer<String> onDelta;
+    private final StringBuilder text = new StringBuilder();
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private int promptTokens = -1;
+    private int completionTokens = -1;
+
+    ChatStreamSubscriber(ObjectMapper mapper, Consumer<String> onDelta) {
+        this.mapper = mapper;
+        this.onDelta = onDelta;
+    }
+
+    /** 스트림이 끝나면 전체 텍스트로 완료 */
+    CompletableFuture<String> result() {
+        return result;
+    }
+
+    /** usage 청크의 입력 토큰 수 (result() 완료 후 조회, 받지 못했으면 -1) */
+    int promptTokens() {
+        return promptTokens;
+    }
+
+    int completionTokens() {
+        return completionTokens;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+        if (result.isDone() || !line.startsWith(DATA_PREFIX)) return;
+
+        String data = line.substring(DATA_PREFIX.length()).trim();
+        if (DONE.equals(data)) {
+            result.complete(text.toString());
+            return;
+        }
+
+        String delta;
+        try {
+            JsonNode node = mapper.readTree(data);
+            JsonNode usage = node.path("usage");
+            if (usage.isObject()) {
+                promptTokens = usage.path("prompt_tokens").asInt(0);
+                completionTokens = usage.path("completion_tokens").asInt(0);
+            }
+            delta = node.path("choices").path(0).path("delta").path("content").asText("");
+        } catch (Exception e) {
+            // 깨진 청크 하나 때문에 전체 해설을 버리지 않음
+            return;
+        }
+        if (delta.isEmpty()) return;
+
+        text.append(delta);
+        try {
+            onDelta.accept(delta);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(text.toString());
+    }
+}
@@ -0,0 +1,145 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.pve.dao.EncounterRateDAO;
+import com.project.gmaking.pve.dao.MonsterDAO;
+import com.project.gmaking.pve.engine.AliasTable;
+import com.project.gmaking.pve.vo.EncounterRateVO;
+import com.project.gmaking.pve.vo.MonsterVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 몬스터 조우 카탈로그 (메모리 캐시)
+ * - TB_MONSTER / TB_ENCOUNTER_RATE 를 한 번 읽어 몬스터별 조우 확률로 alias table 을 만들어 둠
+ * - 조우 1회 = 난수 두 번, DB 조회 없음
+ * - 관리자 몬스터 등록/수정/삭제 시 refresh() 로 즉시 갱신, 그 외 변경(SQL 직접 수정 등)은 주기적으로 반영
+ * - 현재 스키마에는 맵별 몬스터 구분이 없어 모든 맵이 같은 테이블을 사용
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EncounterCatalog {
+
+    private static final double DEFAULT_NORMAL_RATE = 98.0;
+
+    private final EncounterRateDAO encounterRateDAO;
+    private final MonsterDAO monsterDAO;
+
+    // 조회는 락 없이 스냅샷 참조만 읽고, 갱신은 새 스냅샷으로 통째로 교체
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(MonsterVO[] monsters, AliasTable table) {}
+
+    /**
+     * 맵에서 몬스터 한 마리 조우
+     * - NORMAL/BOSS 확률은 TB_ENCOUNTER_RATE 기준, 같은 타입 안에서는 균등
+     * - 조우 가능한 몬스터가 없으면 null
+     */
+    public MonsterVO sample(Integer mapId) {
+        Snapshot snap = current();
+        if (snap.table() == null) return null;
+
+        MonsterVO picked = snap.monsters()[snap.table().sample(ThreadLocalRandom.current())];
+        return copyOf(picked); // 캐시 원본이 호출 측에서 변경되지 않도록 복사본 반환
+    }
+
+    /** 몬스터 ID 로 조회 (카탈로그에 없으면 null) */
+    public MonsterVO findMonster(Integer monsterId) {
+        for (MonsterVO m : current().monsters()) {
+            if (m.getMonsterId().equals(monsterId)) return copyOf(m);
+        }
+        return null;
+    }
+
+    /** 타입(NORMAL, BOSS)에 속한 몬스터 전체 */
+    public List<MonsterVO> findByType(String monsterType) {
+        List<MonsterVO> result = new ArrayList<>();
+        for (MonsterVO m : current().monsters()) {
+            if (m.getMonsterType().equalsIgnoreCase(monsterType)) result.add(copyOf(m));
+        }
+        return result;
+    }
+
+    /** DB 에서 다시 읽어 스냅샷 교체 */
+    public synchronized void refresh() {
+        List<EncounterRateVO> rates = encounterRateDAO.getEncounterRates();
+        List<MonsterVO> all = monsterDAO.selectAllMonstersForEncounter();
+
+        double normalRate = rates.stream()
+                .filter(r -> "NORMAL".equalsIgnoreCase(r.getEncounterType()))
+                .mapToDouble(EncounterRateVO::getEncounterRate)
+                .findFirst()
+                .orElse(DEFAULT_NORMAL_RATE);
+        double bossRate = 100.0 - normalRate;
+
+        List<MonsterVO> normals = new ArrayList<>();
+        List<MonsterVO> bosses = new ArrayList<>();
+        for (MonsterVO m : all) {
+            if ("NORMAL".equalsIgnoreCase(m.getMonsterType())) normals.add(m);
+            else if ("BOSS".equalsIgnoreCase(m.getMonsterType())) bosses.add(m);
+        }
+
+        // 타입 확률을 타입 내 몬스터 수로 나눠 몬스터별 가중치로 변환
+        List<MonsterVO> monsters = new ArrayList<>(normals.size() + bosses.size());
+        List<Double> weights = new ArrayList<>(normals.size() + bosses.size());
+        addGroup(monsters, weights, normals, normalRate);
+        addGroup(monsters, weights, bosses, bossRate);
+
+        double[] w = weights.stream().mapToDouble(Double::doubleValue).toArray();
+        double sum = 0;
+        for (double v : w) sum += v;
+
+        AliasTable table = sum > 0 ? new AliasTable(w) : null;
+        snapshot = new Snapshot(monsters.toArray(new MonsterVO[0]), table);
+
+        log.info("[조우 카탈로그] 갱신 완료: NORMAL {}마리, BOSS {}마리, 보스 확률 {}%",
+                normals.size(), bosses.size(), bossRate);
+    }
+
+    /** 주기적 갱신 (실패 시 기존 스냅샷 유지) */
+    @Scheduled(fixedDelayString = "${pve.encounter.refresh-interval-ms:300000}",
+            initialDelayString = "${pve.encounter.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("[조우 카탈로그] 주기 갱신 실패, 기존 데이터 유지: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot snap = snapshot;
+        if (snap == null) {
+            synchronized (this) {
+                if (snapshot == null) refresh();
+                snap = snapshot;
+            }
+        }
+        return snap;
+    }
+
+    private static void addGroup(List<MonsterVO> monsters, List<Double> weights, List<MonsterVO> group, double rate) {
+        if (group.isEmpty() || rate <= 0) return;
+        double each = rate / group.size();
+        for (MonsterVO m : group) {
+            monsters.add(m);
+            weights.add(each);
+        }
+    }
+
+    private static MonsterVO copyOf(MonsterVO m) {
+        return new MonsterVO(
+                m.getMonsterId(), m.getImageId(), m.getImageUrl(), m.getImageOriginalName(),
+                m.getMonsterName(), m.getMonsterType(),
+                m.getMonsterHp(), m.getMonsterAttack(), m.getMonsterDefense(), m.getMonsterSpeed(),
+                m.getMonsterCriticalRate(),
+                m.getCreatedDate(), m.getCreatedBy(), m.getUpdatedDate(), m.getUpdatedBy()
+        );
+    }
+}
@@ -3,21 +3,42 @@ package com.project.gmaking.pve.service;
 import java.net.http.*;
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.gmaking.common.llm.LlmCallRecorder;
+import com.project.gmaking.common.llm.LlmPriority;
+import com.project.gmaking.common.llm.LlmRateLimiter;
+import com.project.gmaking.common.llm.LlmTransport;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class OpenAIService {
 
-    private static final String API_URL = "https://api.openai.com/v1/chat/completions";
+    // chat-completions 엔드포인트 (로컬 가짜 서버 등으로 교체 가능)
+    @Value("${pve.narration.api-url:https://api.openai.com/v1/chat/completions}")
+    private String apiUrl;
     private static final String MODEL = "gpt-4o-mini";
     private static final ObjectMapper mapper = new ObjectMapper();
-    private final HttpClient client = HttpClient.newHttpClient();
+    // 공용 OpenAI HttpClient (연결 풀/HTTP2 연결 재사용)
+    private final LlmTransport transport;
+    // OpenAI 호출 한도 (전투 해설은 BATTLE 우선순위, 토큰을 받은 뒤 요청 전송)
+    private final LlmRateLimiter limiter;
+    // 호출 계측 (지연/토큰/본문 길이, 기능별)
+    private final LlmCallRecorder recorder;
 
     // GPT 해설 스타일 정의
     private static final Map<String, String> STYLE_PROMPTS = Map.of(
@@ -42,8 +63,64 @@ public class OpenAIService {
     1. 절대 데미지 수치 언급 금지.
     2. 반드시 JSON 형식으로 {"note":"..."}만 반환하고, 코드 블록이나 서문 사용 금지.
     """;
+
+    // 여러 턴을 한 번에 요청할 때의 기본 규칙 (BASE_RULES 의 반환 형식만 배열로 바뀜)
+    private static final String BATCH_BASE_RULES = """
+    <필수 명령>
+    1. 절대 데미지 수치 언급 금지.
+    2. 반드시 JSON 배열 형식으로 [{"turn":번호,"note":"..."}, ...]만 반환하고, 코드 블록이나 서문 사용 금지.
+    3. <턴 목록>의 모든 턴에 대해 순서대로 정확히 하나씩 note를 작성하세요.
+    """;
+
+    // 스트리밍 요청의 기본 규칙 (조각을 그대로 화면에 붙이므로 JSON 대신 평문)
+    private static final String STREAM_BASE_RULES = """
+    <필수 명령>
+    1. 절대 데미지 수치 언급 금지.
+    2. note 본문만 평문으로 반환하고, JSON·따옴표·코드 블록·서문 사용 금지.
+    """;
+
+    // 배치 응답에서 특정 턴의 note를 얻지 못했을 때 사용하는 대체 문구
+    public static final String NOTE_FALLBACK = "[GPT 호출 실패]";
+
+    // 한도 대기/초과는 호출 실패와 같이 각 메서드의 대체 문구로 처리됨
+    private CompletableFuture<Void> acquire() {
+        return limiter.acquireAsync("openai", MODEL, LlmPriority.BATTLE);
+    }
+
+    /**
+     * 한도 대기 -> 전송 -> 계측(상태/지연/usage 토큰/본문 길이), 응답 해석은 호출 측 thenApply 에서 그대로
+     */
+    private CompletableFuture<HttpResponse<String>> send(String feature, HttpRequest req, int requestChars) {
+        LlmCallRecorder.Call call = recorder.start(feature, "openai", MODEL, requestChars);
+        return acquire()
+                .thenCompose(v -> transport.openAi().sendAsync(req, HttpResponse.BodyHandlers.ofString()))
+                .whenComplete((res, e) -> {
+                    if (e != null) {
+                        call.fail(e);
+                    } else if (res.statusCode() == 429) {
+                        call.quotaExceeded();
+                    } else if (res.statusCode() != 200) {
+                        call.fail(new IllegalStateException("HTTP " + res.statusCode()));
+                    } else {
+                        try {
+                            JsonNode usage = mapper.readTree(res.body()).path("usage");
+                            if (usage.isObject()) {
+                                call.tokens(usage.path("prompt_tokens").asInt(0), usage.path("completion_tokens").asInt(0));
+                            }
+                        } catch (Exception ignore) {
+                            // 본문 해석 실패는 호출 측에서 처리 (여기서는 토큰만 생략)
+                        }
+                        call.success(res.body().length());
+                    }
+                });
+    }
+
     // PVE 프롬프트 생성 함수 추가
     public String createPveNotePrompt(String styleKey, Map<String, Object> turnData, boolean isBattleOver) {
+        return createPveNotePrompt(styleKey, turnData, isBattleOver, BASE_RULES);
+    }
+
+    private String createPveNotePrompt(String styleKey, Map<String, Object> turnData, boolean isBattleOver, String baseRules) {
         String stylePromptHeader = STYLE_PROMPTS.getOrDefault(styleKey, STYLE_PROMPTS.get("COMIC"));
         String additionalRules = ADDITIONAL_RULES.getOrDefault(styleKey, "");
 
@@ -68,7 +145,7 @@ public class OpenAIService {
             전투 종료 여부 (IS_OVER): %b
             """,
                 stylePromptHeader,
-                BASE_RULES,
+                baseRules,
                 additionalRules,
                 terminationRule,
 
@@ -83,150 +160,435 @@ public class OpenAIService {
 
     /**
      * PVE 비동기 note 생성 (damage, critical 반영)
+     * - HttpClient.sendAsync 를 사용해 응답 대기 중 스레드를 점유하지 않음 (여러 턴을 동시에 요청해도 공용 풀이 막히지 않음)
      */
     public CompletableFuture<String> requestGPTNote(Map<String, Object> turnData, String styleKey, boolean isBattleOver) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String apiKey = System.getenv("OPENAI_API_KEY");
-                if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
-                String prompt = createPveNotePrompt(styleKey, turnData, isBattleOver);
-
-                Map<String, Object> body = Map.of(
-                        "model", MODEL,
-                        "messages", List.of(
-                                // system 역할 메시지 변경: 스타일을 동적으로 적용하므로 일반적인 해설자 역할로 유지
-                                Map.of("role", "system", "content", "You are a combat narrator who bases your commentary on the exact turn results (damage, critical, actor/target) following the user's stylistic instructions."),
-                                Map.of("role", "user", "content", prompt)
-                        ),
-                        "temperature", 0.4
-                );
-
-                String json = mapper.writeValueAsString(body);
-
-                HttpRequest req = HttpRequest.newBuilder()
-                        .uri(URI.create(API_URL))
-                        .timeout(Duration.ofSeconds(30))
-                        .header("Content-Type", "application/json")
-                        .header("Authorization", "Bearer " + apiKey)
-                        .POST(HttpRequest.BodyPublishers.ofString(json))
-                        .build();
-
-                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
-
-                // **응답 로그 출력**
-                System.out.println("[GPT 원본 응답] " + res.body());
-
-                if (res.statusCode() != 200) {
-                    System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
-                    return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
-                }
-
-                var node = mapper.readTree(res.body());
-                String content = node.path("choices").get(0).path("message").path("content").asText();
-
-                // **파싱 전 note 내용 확인**
-                System.out.println("[GPT 파싱 전 note] " + content);
-
-                return content;
+        HttpRequest req;
+        int requestChars;
+        try {
+            String apiKey = System.getenv("OPENAI_API_KEY");
+            if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+            String prompt = createPveNotePrompt(styleKey, turnData, isBattleOver);
+
+            Map<String, Object> body = Map.of(
+                    "model", MODEL,
+                    "messages", List.of(
+                            // system 역할 메시지 변경: 스타일을 동적으로 적용하므로 일반적인 해설자 역할로 유지
+                            Map.of("role", "system", "content", "You are a combat narrator who bases your commentary on the exact turn results (damage, critical, actor/target) following the user's stylistic instructions."),
+                            Map.of("role", "user", "content", prompt)
+                    ),
+                    "temperature", 0.4
+            );
+
+            String json = mapper.writeValueAsString(body);
+            requestChars = json.length();
+
+            req = HttpRequest.newBuilder()
+                    .uri(URI.create(apiUrl))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        } catch (Exception e) {
+            System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
+            return CompletableFuture.completedFuture("{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}");
+        }
+
+        return send("pve_note", req, requestChars)
+                .thenApply(res -> {
+                    // **응답 로그 출력**
+                    System.out.println("[GPT 원본 응답] " + res.body());
+
+                    if (res.statusCode() != 200) {
+                        System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
+                        return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
+                    }
+
+                    try {
+                        var node = mapper.readTree(res.body());
+                        String content = node.path("choices").get(0).path("message").path("content").asText();
+
+                        // **파싱 전 note 내용 확인**
+                        System.out.println("[GPT 파싱 전 note] " + content);
+
+                        return content;
+                    } catch (Exception e) {
+                        System.err.println("[GPT 응답 파싱 실패] 이유: " + e.getMessage());
+                        return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                    System.err.println("[GPT 호출 실패] 이유: " + cause.getMessage());
+                    return "{\"note\":\"[GPT 호출 실패: " + cause.getClass().getSimpleName() + "]\"}";
+                });
+    }
 
-            } catch (Exception e) {
-                System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
-                e.printStackTrace();
-                return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
-            }
+    /**
+     * PVE note 스트리밍 생성 (chat-completions stream 모드)
+     * - 토큰 조각이 도착할 때마다 onDelta 로 넘기고, 반환 future 는 전체 note(평문)로 완료
+     * - 호출/응답 실패 시 NOTE_FALLBACK 으로 완료, onDelta 가 CancellationException 을 던지면 그대로 전파
+     */
+    public CompletableFuture<String> requestGPTNoteStream(Map<String, Object> turnData, String styleKey, boolean isBattleOver,
+                                                          Consumer<String> onDelta) {
+        HttpRequest req;
+        int requestChars;
+        try {
+            String apiKey = System.getenv("OPENAI_API_KEY");
+            if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+            String prompt = createPveNotePrompt(styleKey, turnData, isBattleOver, STREAM_BASE_RULES);
+
+            Map<String, Object> body = Map.of(
+                    "model", MODEL,
+                    "messages", List.of(
+                            Map.of("role", "system", "content", "You are a combat narrator who bases your commentary on the exact turn results (damage, critical, actor/target) following the user's stylistic instructions."),
+                            Map.of("role", "user", "content", prompt)
+                    ),
+                    "temperature", 0.4,
+                    "stream", true,
+                    // 마지막 청크에 usage(토큰 수)를 받음 (계측용)
+                    "stream_options", Map.of("include_usage", true)
+            );
+            String json = mapper.writeValueAsString(body);
+            requestChars = json.length();
+
+            req = HttpRequest.newBuilder()
+                    .uri(URI.create(apiUrl))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        } catch (Exception e) {
+            log.warn("[GPT 스트리밍 호출 실패] 이유: {}", e.getMessage());
+            return CompletableFuture.completedFuture(NOTE_FALLBACK);
+        }
+
+        LlmCallRecorder.Call call = recorder.start("pve_note_stream", "openai", MODEL, requestChars);
+        ChatStreamSubscriber subscriber = new ChatStreamSubscriber(mapper, delta -> {
+            call.firstToken();
+            onDelta.accept(delta);
         });
+        acquire().thenCompose(v -> transport.openAi().sendAsync(req, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber)))
+                .whenComplete((res, e) -> {
+                    if (e != null) {
+                        call.fail(e);
+                        subscriber.result().completeExceptionally(e);
+                    } else if (res.statusCode() != 200) {
+                        // 오류 본문은 data: 줄이 아니므로 빈 텍스트로 끝나 대체 문구가 사용됨
+                        // (본문 구독이 응답 future 보다 먼저 끝나므로 계측은 상태 코드를 본 뒤 여기서만 기록)
+                        log.warn("[GPT 스트리밍 호출 실패] HTTP 상태: {}", res.statusCode());
+                        if (res.statusCode() == 429) call.quotaExceeded();
+                        else call.fail(new IllegalStateException("HTTP " + res.statusCode()));
+                    } else {
+                        subscriber.result().thenAccept(text -> {
+                            if (subscriber.promptTokens() >= 0) call.tokens(subscriber.promptTokens(), subscriber.completionTokens());
+                            call.success(text.length());
+                        });
+                    }
+                });
+
+        return subscriber.result()
+                .orTimeout(60, TimeUnit.SECONDS)
+                .thenApply(text -> text.isBlank() ? NOTE_FALLBACK : text.trim())
+                .exceptionally(e -> {
+                    Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+                    // 연결 종료로 인한 취소/시간 초과는 응답 future 가 끝나지 않을 수 있어 여기서 기록
+                    call.fail(cause);
+                    if (cause instanceof CancellationException) throw (CancellationException) cause;
+                    log.warn("[GPT 스트리밍 호출 실패] 이유: {}", cause.getMessage());
+                    return NOTE_FALLBACK;
+                });
     }
 
     /**
      * 비동기 PVP 턴 결과 요약 생성 (커맨드, 피해 반영)
+     * - HttpClient.sendAsync 로 요청하므로 응답을 기다리는 동안 스레드를 점유하지 않음
      */
     public CompletableFuture<String> requestGPTPvpNote(Map<String, Object> turnData) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String apiKey = System.getenv("OPENAI_API_KEY");
-                if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
-
-                // PVP 상황에 맞게 프롬프트와 입력 데이터를 수정합니다.
-                String prompt = String.format("""
-                        한 턴 PVP 전투에 대한 무협지스러운 note를 생성하세요.
-                        당신은 이 전투의 해설자입니다. 아래 <규칙>, <턴 정보>를 **절대적으로 따라** 로그를 생성해야 합니다.
-                        
-                        <규칙>
-                        - **행동 기반 묘사**: 플레이어 행동(%s)과 상대방 행동(%s)을 **반드시 그대로 묘사에 포함**하여 상호작용을 설명하세요. (예: '루루는 필살기를 시전하며', '가나는 방어 자세를 취했다')
-                        - **승패 결정**: 피해량 (0 또는 낮은 값 vs 높은 값)과 남은 HP를 기준으로 판단합니다.
-                        - **피해 수치**: 절대 언급 금지. ('치명적인 일격', '찰과상', '무위로 돌아감' 등으로 대체)
-                        
-                        <턴 정보>
-                        플레이어: %s (행동: %s)
-                        상대방: %s (행동: %s)
-                        플레이어 (턴 종료 후 남은) HP: %d
-                        상대방 (턴 종료 후 남은) HP: %d
-                        플레이어가 입은 피해: %d
-                        상대방이 입은 피해: %d
-                        
-                        <지시사항>
-                        1. **가장 중요**: 플레이어의 행동(%s)과 상대방의 행동(%s)을 묘사에 **필수적으로 포함**하세요.
-                        2. 피해 수치와 HP 수치는 언급 금지.
-                        3. 플레이어나 상대방 중 누군가의 HP가 **0 이하**라면, 맨 마지막에 **반드시 '전투 종료'와 승패를 언급**하세요. HP가 남아있다면 **'전투는 계속된다'**는 뉘앙스로 마무리하세요.
-                        4. note는 글자 수 150자 이내로 작성
-                        5. JSON 형식으로 {"note":"..."}만 반환
-                        """,
-                        turnData.get("playerCommand"), // 1. 규칙 내의 행동 기반 묘사에 사용
-                        turnData.get("enemyCommand"),  // 2. 규칙 내의 행동 기반 묘사에 사용
-                        turnData.get("player"),
-                        turnData.get("playerCommand"),
-                        turnData.get("enemy"),
-                        turnData.get("enemyCommand"),
-                        turnData.get("playerHp"),
-                        turnData.get("enemyHp"),
-                        turnData.get("playerDamage"),
-                        turnData.get("enemyDamage"),
-                        turnData.get("playerCommand"), // 3. 지시사항 1에 사용
-                        turnData.get("enemyCommand")   // 4. 지시사항 1에 사용
-                );
-
-                Map<String, Object> body = Map.of(
-                        "model", MODEL,
-                        "messages", List.of(
-                                Map.of("role", "system", "content", "You are a PVP combat narrator who focuses on action and command interaction."),
-                                Map.of("role", "user", "content", prompt)
-                        ),
-                        "temperature", 0.4
-                );
-
-                String json = mapper.writeValueAsString(body);
-
-                HttpRequest req = HttpRequest.newBuilder()
-                        .uri(URI.create(API_URL))
-                        .timeout(Duration.ofSeconds(30))
-                        .header("Content-Type", "application/json")
-                        .header("Authorization", "Bearer " + apiKey)
-                        .POST(HttpRequest.BodyPublishers.ofString(json))
-                        .build();
-
-                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
-
-                // **응답 로그 출력**
-                System.out.println("[GPT 원본 응답] " + res.body());
-
-                if (res.statusCode() != 200) {
-                    System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
-                    return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
-                }
+        int requestChars;
+        HttpRequest req;
+        try {
+            String apiKey = System.getenv("OPENAI_API_KEY");
+            if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+
+            // PVP 상황에 맞게 프롬프트와 입력 데이터를 수정합니다.
+            String prompt = String.format("""
+                    한 턴 PVP 전투에 대한 무협지스러운 note를 생성하세요.
+                    당신은 이 전투의 해설자입니다. 아래 <규칙>, <턴 정보>를 **절대적으로 따라** 로그를 생성해야 합니다.
+                    
+                    <규칙>
+                    - **행동 기반 묘사**: 플레이어 행동(%s)과 상대방 행동(%s)을 **반드시 그대로 묘사에 포함**하여 상호작용을 설명하세요. (예: '루루는 필살기를 시전하며', '가나는 방어 자세를 취했다')
+                    - **승패 결정**: 피해량 (0 또는 낮은 값 vs 높은 값)과 남은 HP를 기준으로 판단합니다.
+                    - **피해 수치**: 절대 언급 금지. ('치명적인 일격', '찰과상', '무위로 돌아감' 등으로 대체)
+                    
+                    <턴 정보>
+                    플레이어: %s (행동: %s)
+                    상대방: %s (행동: %s)
+                    플레이어 (턴 종료 후 남은) HP: %d
+                    상대방 (턴 종료 후 남은) HP: %d
+                    플레이어가 입은 피해: %d
+                    상대방이 입은 피해: %d
+                    
+                    <지시사항>
+                    1. **가장 중요**: 플레이어의 행동(%s)과 상대방의 행동(%s)을 묘사에 **필수적으로 포함**하세요.
+                    2. 피해 수치와 HP 수치는 언급 금지.
+                    3. 플레이어나 상대방 중 누군가의 HP가 **0 이하**라면, 맨 마지막에 **반드시 '전투 종료'와 승패를 언급**하세요. HP가 남아있다면 **'전투는 계속된다'**는 뉘앙스로 마무리하세요.
+                    4. note는 글자 수 150자 이내로 작성
+                    5. JSON 형식으로 {"note":"..."}만 반환
+                    """,
+                    turnData.get("playerCommand"), // 1. 규칙 내의 행동 기반 묘사에 사용
+                    turnData.get("enemyCommand"),  // 2. 규칙 내의 행동 기반 묘사에 사용
+                    turnData.get("player"),
+                    turnData.get("playerCommand"),
+                    turnData.get("enemy"),
+                    turnData.get("enemyCommand"),
+                    turnData.get("playerHp"),
+                    turnData.get("enemyHp"),
+                    turnData.get("playerDamage"),
+                    turnData.get("enemyDamage"),
+                    turnData.get("playerCommand"), // 3. 지시사항 1에 사용
+                    turnData.get("enemyCommand")   // 4. 지시사항 1에 사용
+            );
+
+            Map<String, Object> body = Map.of(
+                    "model", MODEL,
+                    "messages", List.of(
+                            Map.of("role", "system", "content", "You are a PVP combat narrator who focuses on action and command interaction."),
+                            Map.of("role", "user", "content", prompt)
+                    ),
+                    "temperature", 0.4
+            );
+
+            String json = mapper.writeValueAsString(body);
+            requestChars = json.length();
+
+            req = HttpRequest.newBuilder()
+                    .uri(URI.create(apiUrl))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        } catch (Exception e) {
+            System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
+            return CompletableFuture.completedFuture(pvpNoteFailure(e));
+        }
+
+        return send("pvp_note", req, requestChars)
+                .thenApply(res -> {
+                    if (res.statusCode() != 200) {
+                        System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
+                        return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
+                    }
+                    try {
+                        var node = mapper.readTree(res.body());
+                        return node.path("choices").get(0).path("message").path("content").asText();
+                    } catch (Exception e) {
+                        System.err.println("[GPT 응답 파싱 실패] 이유: " + e.getMessage());
+                        return pvpNoteFailure(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    System.err.println("[GPT 호출 실패] 이유: " + cause.getMessage());
+                    return pvpNoteFailure(cause);
+                });
+    }
+
+    private static String pvpNoteFailure(Throwable e) {
+        return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
+    }
+
+    /**
+     * PVE 다중 턴 note 일괄 생성 (한 번의 completion 으로 N턴)
+     * - turns 의 각 원소는 requestGPTNote 의 turnData 와 같은 키(actor, target, damage, critical)에 isBattleOver 를 더한 형태
+     * - 반환 리스트는 항상 turns 와 같은 길이이며, 누락/파싱 실패한 턴은 NOTE_FALLBACK 으로 채움
+     */
+    public CompletableFuture<List<String>> requestGPTNotesBatch(List<Map<String, Object>> turns, String styleKey) {
+        if (turns == null || turns.isEmpty()) return CompletableFuture.completedFuture(List.of());
+
+        String stylePromptHeader = STYLE_PROMPTS.getOrDefault(styleKey, STYLE_PROMPTS.get("COMIC"));
+        String additionalRules = ADDITIONAL_RULES.getOrDefault(styleKey, "");
+
+        StringBuilder turnLines = new StringBuilder();
+        for (int i = 0; i < turns.size(); i++) {
+            Map<String, Object> t = turns.get(i);
+            turnLines.append(String.format("%d) 공격자: %s / 방어자: %s / 데미지: %s / 크리티컬: %s / 전투 종료 여부 (IS_OVER): %s%n",
+                    i + 1, t.get("actor"), t.get("target"), t.get("damage"), t.get("critical"),
+                    t.getOrDefault("isBattleOver", false)));
+        }
+
+        String prompt = String.format("""
+            %s
+            아래 <턴 목록>의 각 턴마다 note를 하나씩 생성하세요. 아래 <규칙>을 **무조건 준수**하세요.
+
+            %s
+            %s
+            5. IS_OVER가 'true'인 턴은 묘사를 마무리하고 **'승리!', '패배!', 또는 '전투 종료'**를 명확히 포함하고, 'false'인 턴은 '다음 턴이 기대된다'는 뉘앙스로 마무리하세요.
+            6. 연속된 턴의 note는 서로 이어지는 이야기처럼 작성하되, 같은 표현을 반복하지 마세요.
+
+            <턴 목록>
+            %s
+            """,
+                stylePromptHeader,
+                BATCH_BASE_RULES,
+                additionalRules,
+                turnLines
+        );
 
-                var node = mapper.readTree(res.body());
-                String content = node.path("choices").get(0).path("message").path("content").asText();
+        return requestNoteArray(
+                "pve_note_batch",
+                "You are a combat narrator who bases your commentary on the exact turn results (damage, critical, actor/target) following the user's stylistic instructions. You always answer with a JSON array.",
+                prompt,
+                turns.size()
+        );
+    }
+
+    /**
+     * PVP 다중 턴 note 일괄 생성 (리플레이 등 턴 결과가 이미 확정된 경우)
+     * - turns 의 각 원소는 requestGPTPvpNote 의 turnData 와 같은 키(player, playerCommand, enemy, enemyCommand, playerHp, enemyHp, playerDamage, enemyDamage)
+     */
+    public CompletableFuture<List<String>> requestGPTPvpNotesBatch(List<Map<String, Object>> turns) {
+        if (turns == null || turns.isEmpty()) return CompletableFuture.completedFuture(List.of());
+
+        StringBuilder turnLines = new StringBuilder();
+        for (int i = 0; i < turns.size(); i++) {
+            Map<String, Object> t = turns.get(i);
+            turnLines.append(String.format("%d) 플레이어: %s (행동: %s) / 상대방: %s (행동: %s) / 남은 HP: 플레이어 %s, 상대방 %s / 입은 피해: 플레이어 %s, 상대방 %s%n",
+                    i + 1,
+                    t.get("player"), t.get("playerCommand"),
+                    t.get("enemy"), t.get("enemyCommand"),
+                    t.get("playerHp"), t.get("enemyHp"),
+                    t.get("playerDamage"), t.get("enemyDamage")));
+        }
+
+        String prompt = String.format("""
+                여러 턴의 PVP 전투에 대해 턴마다 무협지스러운 note를 생성하세요.
+                당신은 이 전투의 해설자입니다. 아래 <규칙>, <턴 목록>을 **절대적으로 따라** 로그를 생성해야 합니다.
+
+                <규칙>
+                - **행동 기반 묘사**: 각 턴의 플레이어 행동과 상대방 행동을 **반드시 그대로 묘사에 포함**하여 상호작용을 설명하세요.
+                - **승패 결정**: 피해량 (0 또는 낮은 값 vs 높은 값)과 남은 HP를 기준으로 판단합니다.
+                - **피해 수치**: 절대 언급 금지. ('치명적인 일격', '찰과상', '무위로 돌아감' 등으로 대체)
+
+                <지시사항>
+                1. 피해 수치와 HP 수치는 언급 금지.
+                2. 누군가의 HP가 **0 이하**인 턴은 맨 마지막에 **반드시 '전투 종료'와 승패를 언급**하고, 그렇지 않으면 **'전투는 계속된다'**는 뉘앙스로 마무리하세요.
+                3. 각 note는 글자 수 150자 이내로 작성
+                4. 반드시 JSON 배열 형식으로 [{"turn":번호,"note":"..."}, ...]만 반환하고, <턴 목록>의 모든 턴에 대해 정확히 하나씩 작성하세요.
+
+                <턴 목록>
+                %s
+                """,
+                turnLines
+        );
 
-                // **파싱 전 note 내용 확인**
-                System.out.println("[GPT 파싱 전 note] " + content);
+        return requestNoteArray(
+                "pvp_note_batch",
+                "You are a PVP combat narrator who focuses on action and command interaction. You always answer with a JSON array.",
+                prompt,
+                turns.size()
+        );
+    }
 
-                return content;
+    /** 한 번의 completion 으로 note 배열을 받아 expected 개의 note 로 매핑 */
+    private CompletableFuture<List<String>> requestNoteArray(String feature, String systemPrompt, String prompt, int expected) {
+        HttpRequest req;
+        int requestChars;
+        try {
+            String apiKey = System.getenv("OPENAI_API_KEY");
+            if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+
+            Map<String, Object> body = Map.of(
+                    "model", MODEL,
+                    "messages", List.of(
+                            Map.of("role", "system", "content", systemPrompt),
+                            Map.of("role", "user", "content", prompt)
+                    ),
+                    "temperature", 0.4
+            );
+            String json = mapper.writeValueAsString(body);
+            requestChars = json.length();
+
+            req = HttpRequest.newBuilder()
+                    .uri(URI.create(apiUrl))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        } catch (Exception e) {
+            log.warn("[GPT 일괄 호출 실패] 이유: {}", e.getMessage());
+            return CompletableFuture.completedFuture(fallbackNotes(expected));
+        }
+
+        return send(feature, req, requestChars)
+                .thenApply(res -> {
+                    if (res.statusCode() != 200) {
+                        log.warn("[GPT 일괄 호출 실패] HTTP 상태: {}", res.statusCode());
+                        return fallbackNotes(expected);
+                    }
+                    try {
+                        String content = mapper.readTree(res.body())
+                                .path("choices").get(0).path("message").path("content").asText();
+                        log.debug("[GPT 일괄 note] {}", content);
+                        return parseNoteArray(content, expected);
+                    } catch (Exception e) {
+                        log.warn("[GPT 일괄 응답 파싱 실패] 이유: {}", e.getMessage());
+                        return fallbackNotes(expected);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                    log.warn("[GPT 일괄 호출 실패] 이유: {}", cause.getMessage());
+                    return fallbackNotes(expected);
+                });
+    }
 
-            } catch (Exception e) {
-                System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
-                e.printStackTrace();
-                return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
+    /**
+     * 모델이 돌려준 note 배열을 턴 순서에 매핑
+     * - [{"turn":1,"note":"..."}] / ["...", "..."] / {"notes":[...]} 형태 모두 허용
+     * - turn 번호가 있으면 번호 기준, 없으면 배열 순서 기준
+     */
+    private List<String> parseNoteArray(String content, int expected) {
+        String[] notes = new String[expected];
+        try {
+            String cleaned = content.replaceAll("(?s)^```(?:json)?\\s*(.*?)\\s*```$", "$1").trim();
+            JsonNode root = mapper.readTree(cleaned);
+            if (root.isObject()) root = root.has("notes") ? root.get("notes") : root.path("turns");
+
+            if (root.isArray()) {
+                for (int i = 0; i < root.size(); i++) {
+                    JsonNode item = root.get(i);
+                    int idx = i;
+                    String note;
+                    if (item.isTextual()) {
+                        note = item.asText();
+                    } else {
+                        note = item.path("note").asText("");
+                        int turn = item.path("turn").asInt(0);
+                        if (turn >= 1 && turn <= expected) idx = turn - 1;
+                    }
+                    if (idx < expected && notes[idx] == null && note != null && !note.isBlank()) {
+                        notes[idx] = note;
+                    }
+                }
             }
-        });
+        } catch (Exception e) {
+            log.warn("[GPT 일괄 note 파싱 실패] 이유: {}", e.getMessage());
+        }
+
+        List<String> result = new ArrayList<>(expected);
+        for (String note : notes) result.add(note != null ? note : NOTE_FALLBACK);
+        return result;
+    }
+
+    private static List<String> fallbackNotes(int expected) {
+        String[] notes = new String[expected];
+        Arrays.fill(notes, NOTE_FALLBACK);
+        return Arrays.asList(notes);
     }
 }
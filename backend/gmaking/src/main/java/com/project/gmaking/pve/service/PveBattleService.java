@@ -1,6 +1,7 @@
 package com.project.gmaking.pve.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.project.gmaking.map.vo.MapVO;
 import com.project.gmaking.pve.vo.BattleLogVO;
 import com.project.gmaking.pve.vo.MonsterVO;
@@ -18,5 +19,14 @@ public interface PveBattleService {
     // 전투
     BattleLogVO startBattle(Integer characterId, MonsterVO monster, String userId);
 
-    void startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle);
+    // WebSocket 전투는 비동기로 진행되며, 반환된 future 는 전투 종료(취소/오류 처리 포함) 시 완료
+    CompletableFuture<Void> startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle);
+
+    // 토큰 스트리밍 모드 (해설 조각을 delta 프레임으로 전송)
+    CompletableFuture<Void> startBattleWebSocketStreaming(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle);
+
+    // 파이프라인 모드 (전투 선계산 + 해설 동시 생성)
+    BattleLogVO startBattlePipelined(Integer characterId, MonsterVO monster, String userId, String noteStyle);
+
+    CompletableFuture<Void> startBattleWebSocketPipelined(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle);
 }
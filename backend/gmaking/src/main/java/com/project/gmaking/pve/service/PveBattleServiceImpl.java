@@ -3,17 +3,26 @@ package com.project.gmaking.pve.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.project.gmaking.character.dao.CharacterDAO;
-import com.project.gmaking.character.vo.CharacterStatVO;
 import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.common.event.BattleEventBus;
+import com.project.gmaking.common.event.BattleFinishedEvent;
+import com.project.gmaking.common.websocket.PacedMessageSender;
 import com.project.gmaking.map.dao.MapDAO;
 import com.project.gmaking.map.vo.MapVO;
 import com.project.gmaking.pve.dao.*;
+import com.project.gmaking.pve.engine.BattleEngine;
+import com.project.gmaking.pve.engine.BattleStats;
+import com.project.gmaking.pve.engine.TurnEventBuffer;
+import com.project.gmaking.pve.replay.BattleReplay;
+import com.project.gmaking.pve.replay.BattleReplayCodec;
 import com.project.gmaking.pve.vo.*;
-import com.project.gmaking.quest.service.QuestService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
@@ -22,24 +31,77 @@ import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PveBattleServiceImpl implements PveBattleService {
 
-    private final EncounterRateDAO encounterRateDAO;
-    private final MonsterDAO monsterDAO;
+    private final EncounterCatalog encounterCatalog;
     private final PveBattleDAO battleDAO;
     private final CharacterDAO characterDAO;
     private final MapDAO mapDAO;
     private final OpenAIService openAIService;
-    private final TurnLogDAO turnLogDAO;
-    private final QuestService questService;
+    private final TurnLogWriter turnLogWriter;
+    private final BattleReplayDAO battleReplayDAO;
+    private final BattleEventBus battleEventBus;
+    private final PacedMessageSender pacedMessageSender;
+
+    // 전투마다 새로 만들지 않고 공유 (ObjectMapper 는 thread-safe)
+    private static final ObjectMapper NOTE_MAPPER = new ObjectMapper();
+
+    // 파이프라인 모드에서 한 전투당 동시에 요청하는 GPT 해설 수
+    @Value("${pve.narration.concurrency:4}")
+    private int narrationConcurrency;
+
+    // 파이프라인 모드에서 GPT 호출 한 번에 묶는 턴 수 (1 이면 턴마다 개별 호출)
+    @Value("${pve.narration.batch-size:1}")
+    private int narrationBatchSize;
+
+    // 순차 모드 WebSocket 전투의 턴 간 연출 간격 (스레드를 재우지 않고 타이머로 대기)
+    @Value("${pve.battle.turn-interval-ms:1000}")
+    private long turnIntervalMs;
+
+    // 턴 로그 저장 방식: ROWS = 턴마다 문장 한 행 (TB_TURN_LOG), REPLAY = 전투당 압축 기록 한 행 (TB_BATTLE_REPLAY)
+    @Value("${pve.turn-log.storage:ROWS}")
+    private String turnLogStorage;
+
+    // WebSocket 전투 종료 처리(턴 로그/리플레이/결과 저장) 전용 스레드 수
+    // 연출 타이머 스레드(stream-pacing)에서 DB 를 기다리면 모든 진행 중 전투의 전송이 밀리므로 분리
+    @Value("${pve.battle.finish-threads:2}")
+    private int finishThreads;
+
+    private ExecutorService finishExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        finishExecutor = Executors.newFixedThreadPool(Math.max(1, finishThreads), r -> {
+            Thread t = new Thread(r, "pve-finish-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        finishExecutor.shutdown();
+        if (!finishExecutor.awaitTermination(5, TimeUnit.SECONDS)) finishExecutor.shutdownNow();
+    }
 
     /** 맵 목록 조회 */
     @Override
@@ -53,131 +115,176 @@ public class PveBattleServiceImpl implements PveBattleService {
         return mapDAO.selectMapById(mapId);
     }
 
-    /** 몬스터 조우 */
+    /** 몬스터 조우 (메모리 카탈로그에서 샘플링, DB 조회 없음) */
     @Override
     public MonsterVO encounterMonster(Integer mapId) {
-        List<EncounterRateVO> rates = encounterRateDAO.getEncounterRates();
-
-        double normalRate = rates.stream()
-                .filter(r -> r.getEncounterType().equalsIgnoreCase("NORMAL"))
-                .mapToDouble(EncounterRateVO::getEncounterRate)
-                .findFirst()
-                .orElse(98.0);
-
-        double bossRate = 100.0 - normalRate;
-        double random = Math.random() * 100;
-        String type = random < bossRate ? "BOSS" : "NORMAL";
-
-        return monsterDAO.getRandomMonsterByType(type);
+        return encounterCatalog.sample(mapId);
     }
 
     /** GPT 기반 전투 시뮬레이션 */
     @Override
     public BattleLogVO startBattle(Integer characterId, MonsterVO monster, String userId) {
         CharacterVO character = characterDAO.selectCharacterById(characterId);
-        CharacterStatVO stat = character.getCharacterStat();
+        List<ResolvedTurn> turns = resolveTurns(character, monster);
 
-        int playerHp = stat.getCharacterHp();
-        int monsterHp = monster.getMonsterHp();
-        int playerAtk = stat.getCharacterAttack();
-        int playerDef = stat.getCharacterDefense();
-        int playerSpeed = stat.getCharacterSpeed();
-        int playerCrit = stat.getCriticalRate();
+        List<String> logs = new ArrayList<>();
+        List<String> notes = new ArrayList<>(turns.size());
 
-        int monsterAtk = monster.getMonsterAttack();
-        int monsterDef = monster.getMonsterDefense();
-        int monsterSpeed = monster.getMonsterSpeed();
-        int monsterCrit = monster.getMonsterCriticalRate();
+        // 전투 시작 메시지
+        logs.add(encounterLine(monster));
 
-        boolean playerFirst = playerSpeed >= monsterSpeed;
+        for (ResolvedTurn t : turns) {
+            // GPT 호출 (턴 순서대로 하나씩)
+            String noteJson = openAIService.requestGPTNote(toNoteData(t), "COMIC", t.battleOver()).join();
 
-        List<String> logs = new ArrayList<>();
+            // 즉시 로그 출력
+            System.out.println("[턴 " + t.turn() + "] GPT note: " + noteJson);
 
-        // 전투 시작 메시지
-        logs.add(String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s, 크리티컬:%s)을 마주쳤다!",
-                monster.getMonsterName(),
-                String.valueOf(monster.getMonsterHp()),
-                String.valueOf(monster.getMonsterAttack()),
-                String.valueOf(monster.getMonsterDefense()),
-                String.valueOf(monster.getMonsterSpeed()),
-                String.valueOf(monster.getMonsterCriticalRate())));
-
-        int turn = 1;
-        ObjectMapper mapper = new ObjectMapper();
-
-        while (playerHp > 0 && monsterHp > 0) {
-            boolean isPlayerAttack = (turn % 2 == 1) ? playerFirst : !playerFirst;
-            String actor, target;
-            int atk, def, critRate;
-
-            if (isPlayerAttack) {
-                actor = character.getCharacterName(); target = monster.getMonsterName();
-                atk = playerAtk; def = monsterDef; critRate = playerCrit;
-            } else {
-                actor = monster.getMonsterName(); target = character.getCharacterName();
-                atk = monsterAtk; def = playerDef; critRate = monsterCrit;
-            }
+            String noteText = parseNote(noteJson);
+            notes.add(noteText);
+            logs.add(restTurnLine(t, noteText));
+        }
 
-            boolean critical = Math.random() * 100 < critRate;
-            int damage = Math.max(1, (critical ? atk * 2 : atk) - def);
+        return saveFinishedBattle(character, monster, userId, logs, turns, notes);
+    }
 
-            if (isPlayerAttack) monsterHp -= damage;
-            else playerHp -= damage;
+    /**
+     * 순차 모드 WebSocket 전투
+     * - 턴 사이 대기는 타이머(PacedMessageSender)로 처리해, 해설 응답/대기 중에는 스레드를 점유하지 않는다.
+     * - 반환된 future 는 전투가 끝나거나(취소 포함) 실패 처리까지 마치면 완료된다.
+     */
+    @Override
+    public CompletableFuture<Void> startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle) {
+        return streamSequentialBattle(session, characterId, monster, userId, noteStyle, false);
+    }
 
-            boolean isBattleOver = (playerHp <= 0 || monsterHp <= 0);
-            // GPT 호출
-            String noteJson = openAIService.requestGPTNote(Map.of(
-                            "actor", actor,
-                            "target", target,
-                            "damage", damage,
-                            "critical", critical
-                    ), "COMIC", isBattleOver //  기본 스타일 "COMIC"과 isBattleOver 전달
-            ).join();
+    /**
+     * 토큰 스트리밍 모드 WebSocket 전투
+     * - 순차 모드와 같되, 해설을 stream 모드로 요청해 도착하는 조각을 {"type":"delta","turn":N,"text":"..."} 프레임으로 바로 전송
+     * - 조각이 끝나면 기존과 같은 턴 로그 문장을 전송/저장하므로, delta 를 모르는 클라이언트도 그대로 동작
+     */
+    @Override
+    public CompletableFuture<Void> startBattleWebSocketStreaming(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle) {
+        return streamSequentialBattle(session, characterId, monster, userId, noteStyle, true);
+    }
 
-            // 즉시 로그 출력
-            System.out.println("[턴 " + turn + "] GPT note: " + noteJson);
+    private CompletableFuture<Void> streamSequentialBattle(WebSocketSession session, Integer characterId, MonsterVO monster,
+                                                           String userId, String noteStyle, boolean tokenStreaming) {
+        try {
+            CharacterVO character = characterDAO.selectCharacterById(characterId);
 
-            // 코드블록 제거
-            noteJson = noteJson.replaceAll("(?s)^```.*?```$", "").trim();
+            // 1. 몬스터 정보를 별도의 JSON 객체로 클라이언트에게 전송
+            //    프론트에서 이 정보를 받아 몬스터 스탯/이미지 영역을 업데이트합니다.
+            sendEncounter(session, monster);
+            log.info("클라이언트에게 몬스터 조우 정보 전송: {}", monster.getMonsterName());
 
-            // noteJson이 비어있으면 기본 메시지
-            if (noteJson.isEmpty()) noteJson = "{\"note\":\"[GPT 호출 실패]\"}";
+            // 전투 기록 DB
+            BattleLogVO battleLog = insertPendingBattleLog(characterId, monster, userId);
+            Integer battleId = battleLog.getBattleId();
 
-            // JSON 형식 강제화 (큰따옴표만 escape)
-            if (!noteJson.startsWith("{")) {
-                noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
+            // 2. 초기 로그 (일반 로그 형태로 몬스터 조우 메시지를 한 번 더 전송)
+            session.sendMessage(new TextMessage(streamEncounterLine(monster)));
+
+            // 데미지 계산은 해설과 무관하므로 엔진으로 먼저 확정
+            List<ResolvedTurn> turns = resolveTurns(character, monster);
+            List<String> notes = new ArrayList<>(turns.size());
+
+            // 턴마다: 해설 요청 -> 전송 -> DB 저장 -> turnIntervalMs 대기 (앞 턴이 끝나야 다음 턴 시작)
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (ResolvedTurn t : turns) {
+                chain = chain
+                        .thenCompose(v -> {
+                            ensureActive(session);
+                            return tokenStreaming
+                                    ? streamNote(session, t, noteStyle)
+                                    : openAIService.requestGPTNote(toNoteData(t), noteStyle, t.battleOver()).thenApply(this::parseNote);
+                        })
+                        .thenCompose(noteText -> {
+                            String actionLog = streamTurnLine(t, noteText);
+
+                            // 프론트로 전송
+                            pacedMessageSender.send(session, actionLog);
+
+                            // DB 저장
+                            recordStreamedTurn(battleId, t, noteText, actionLog, notes);
+
+                            return pacedMessageSender.delay(turnIntervalMs);
+                        });
             }
 
-            // 파싱
-            Map<String, Object> noteMap;
-            try {
-                noteMap = mapper.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
-            } catch (Exception e) {
-                e.printStackTrace();
-                noteMap = Map.of("note", "[GPT 호출 실패]");
-            }
+            return chain
+                    .thenRunAsync(() -> finishStreamedBattle(session, character, monster, userId, battleLog, turns, notes), finishExecutor)
+                    .exceptionally(e -> handleStreamFailure(session, userId, e));
+
+        } catch (Exception e) {
+            sendError(session, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /** 파이프라인 모드: 전투를 먼저 끝까지 계산한 뒤 해설을 동시에 생성 */
+    @Override
+    public BattleLogVO startBattlePipelined(Integer characterId, MonsterVO monster, String userId, String noteStyle) {
+        CharacterVO character = characterDAO.selectCharacterById(characterId);
+        List<ResolvedTurn> turns = resolveTurns(character, monster);
+
+        List<String> logs = new ArrayList<>();
+        List<String> notes = new ArrayList<>(turns.size());
+        logs.add(encounterLine(monster));
+        narrateInOrder(turns, noteStyle, (t, noteText) -> {
+            notes.add(noteText);
+            logs.add(restTurnLine(t, noteText));
+        }).join();
+
+        return saveFinishedBattle(character, monster, userId, logs, turns, notes);
+    }
+
+    /**
+     * 파이프라인 모드 WebSocket 전투
+     * - 데미지 계산은 해설과 무관하므로 먼저 전부 끝낸다.
+     * - 해설은 narrationConcurrency 개씩 동시에 요청하고, 준비되는 대로 턴 순서대로 전송한다.
+     */
+    @Override
+    public CompletableFuture<Void> startBattleWebSocketPipelined(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle) {
+        try {
+            CharacterVO character = characterDAO.selectCharacterById(characterId);
+
+            sendEncounter(session, monster);
+            log.info("클라이언트에게 몬스터 조우 정보 전송(파이프라인): {}", monster.getMonsterName());
+
+            // 전투 결과를 먼저 확정
+            List<ResolvedTurn> turns = resolveTurns(character, monster);
+            List<String> notes = new ArrayList<>(turns.size());
+
+            BattleLogVO battleLog = insertPendingBattleLog(characterId, monster, userId);
+            Integer battleId = battleLog.getBattleId();
 
+            session.sendMessage(new TextMessage(streamEncounterLine(monster)));
 
-            String noteText = noteMap.getOrDefault("note", "[GPT 호출 실패]").toString();
+            return narrateInOrder(turns, noteStyle, (t, noteText) -> {
+                        ensureActive(session);
+                        String actionLog = streamTurnLine(t, noteText);
+                        pacedMessageSender.send(session, actionLog);
+                        recordStreamedTurn(battleId, t, noteText, actionLog, notes);
+                    })
+                    .thenRunAsync(() -> finishStreamedBattle(session, character, monster, userId, battleLog, turns, notes), finishExecutor)
+                    .exceptionally(e -> handleStreamFailure(session, userId, e));
 
-            String line = String.format(
-                    "턴 %s: %s가 공격으로 %s 데미지를 입힘 %s%n(플레이어HP:%s, 몬스터HP:%s)%n",
-                    String.valueOf(turn),
-                    String.valueOf(actor),
-                    String.valueOf(damage),
-                    String.valueOf(noteText),
-                    String.valueOf(playerHp),
-                    String.valueOf(monsterHp)
-            );
-            logs.add(line);
-            turn++;
+        } catch (Exception e) {
+            sendError(session, e);
+            return CompletableFuture.completedFuture(null);
         }
+    }
+
+    // ===== 전투 기록 =====
 
-        boolean isWin = monsterHp <= 0;
+    /** REST 전투: 결과 + 전체 로그 일괄 저장 */
+    private BattleLogVO saveFinishedBattle(CharacterVO character, MonsterVO monster, String userId,
+                                           List<String> logs, List<ResolvedTurn> turns, List<String> notes) {
+        boolean isWin = isWin(turns);
 
         // 전투 종료 메시지
-        String resultMsg = isWin ? "승리! 전투 종료!" : "패배... 다음에 다시 도전하세요!";
-        logs.add(resultMsg);
+        logs.add(isWin ? "승리! 전투 종료!" : "패배... 다음에 다시 도전하세요!");
 
         // DB 기록
         BattleLogVO battleLog = new BattleLogVO();
@@ -185,189 +292,321 @@ public class PveBattleServiceImpl implements PveBattleService {
         battleLog.setOpponentId(monster.getMonsterId());
         battleLog.setBattleType("PVE");
         battleLog.setIsWin(isWin ? "Y" : "N");
-        battleLog.setTurnCount((long) (turn - 1));
+        battleLog.setTurnCount((long) turns.size());
         battleLog.setCreatedBy(userId);
         battleDAO.insertBattleLog(battleLog);
         Integer battleId = battleLog.getBattleId();
 
-        // 턴 로그 DB 기록
-        int turnNum = 1;
-        for (String log : logs) {
-            TurnLogVO turnLog = new TurnLogVO();
-            turnLog.setBattleId(battleId);
-            turnLog.setTurnNumber(turnNum++);
-            turnLog.setActionDetail(log);
-            turnLogDAO.insertTurnLog(turnLog);
+        // 턴 로그 DB 기록 (압축 기록 모드면 전투당 한 행, 아니면 문장 행을 한 번에 일괄 저장)
+        if (isReplayStorage()) {
+            saveReplay(battleId, character, monster, turns, notes);
+        } else {
+            List<TurnLogVO> turnLogs = new ArrayList<>(logs.size());
+            LocalDateTime now = LocalDateTime.now();
+            int turnNum = 1;
+            for (String line : logs) {
+                turnLogs.add(new TurnLogVO(null, battleId, turnNum++, line, now));
+            }
+            turnLogWriter.insertAll(turnLogs);
         }
 
-        // 승리 시 스테이지 클리어 증가
-        if (isWin) characterDAO.incrementStageClear(character.getCharacterId());
+        // 스테이지 클리어 / 통계는 이벤트 구독자가 비동기로 처리 (REST 전투는 기존처럼 퀘스트 미반영)
+        battleEventBus.publish(BattleFinishedEvent.pve(
+                battleId, userId, character, monster.getMonsterId(), isWin, turns.size(), false));
 
         battleLog.setTurnLogs(logs);
         return battleLog;
     }
 
-    @Override
-    public void startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle) {
+    /** 스트리밍 전투: 시작 시점에 결과 미정으로 먼저 기록 */
+    private BattleLogVO insertPendingBattleLog(Integer characterId, MonsterVO monster, String userId) {
+        BattleLogVO battleLog = new BattleLogVO();
+        battleLog.setCharacterId(characterId);
+        battleLog.setOpponentId(monster.getMonsterId());
+        battleLog.setBattleType("PVE");
+        battleLog.setCreatedBy(userId);
+        battleLog.setIsWin("N");
+        battleLog.setTurnCount(0L);
+        battleDAO.insertBattleLog(battleLog);
+        return battleLog;
+    }
+
+    /** 스트리밍 전투 종료: 결과 전송 + 기록 갱신 + 종료 이벤트 발행 */
+    private void finishStreamedBattle(WebSocketSession session, CharacterVO character, MonsterVO monster, String userId,
+                                      BattleLogVO battleLog, List<ResolvedTurn> turns, List<String> notes) {
+        boolean isWin = isWin(turns);
+
+        // 전투 종료 메시지 전송
+        Map<String, Object> result = Map.of(
+                "type", "end",
+                "result", isWin ? "win" : "lose"
+        );
+        pacedMessageSender.send(session, NOTE_MAPPER.valueToTree(result).toString());
+
+        // DB 기록 (턴 로그를 먼저 저장한 뒤 결과 갱신)
+        if (isReplayStorage()) saveReplay(battleLog.getBattleId(), character, monster, turns, notes);
+        else turnLogWriter.flush();
+        battleLog.setIsWin(isWin ? "Y" : "N");
+        battleLog.setTurnCount((long) turns.size());
+        battleDAO.updateBattleLogResult(battleLog);
+
+        battleEventBus.publish(BattleFinishedEvent.pve(
+                battleLog.getBattleId(), userId, character, monster.getMonsterId(), isWin, turns.size(), true));
+    }
+
+    /**
+     * 스트리밍 전투의 한 턴 기록
+     * - 문장 행 모드: write-behind 버퍼에 쌓고, 전투 종료 시 한 번에 저장
+     * - 압축 기록 모드: 해설만 모아 두었다가 전투 종료 시 한 행으로 저장 (중간에 끊긴 전투는 턴 기록 없음)
+     */
+    private void recordStreamedTurn(Integer battleId, ResolvedTurn t, String noteText, String actionLog, List<String> notes) {
+        notes.add(noteText);
+        if (!isReplayStorage()) turnLogWriter.append(battleId, t.turn(), actionLog);
+    }
+
+    private boolean isReplayStorage() {
+        return "REPLAY".equalsIgnoreCase(turnLogStorage);
+    }
+
+    /** 전투 한 건을 구조화된 턴 이벤트로 압축해 한 행으로 저장 (문장은 조회 시 생성) */
+    private void saveReplay(Integer battleId, CharacterVO character, MonsterVO monster,
+                            List<ResolvedTurn> turns, List<String> notes) {
+        List<BattleReplay.Turn> events = new ArrayList<>(turns.size());
+        for (int i = 0; i < turns.size(); i++) {
+            ResolvedTurn t = turns.get(i);
+            events.add(new BattleReplay.Turn(
+                    t.playerAttack(),
+                    t.damage(), t.critical(), t.playerHp(), t.monsterHp(),
+                    i < notes.size() ? notes.get(i) : OpenAIService.NOTE_FALLBACK));
+        }
+
+        BattleStats m = BattleStats.of(monster);
+        BattleReplay replay = new BattleReplay(
+                character.getCharacterName(), monster.getMonsterName(),
+                m.hp, m.attack, m.defense, m.speed, m.criticalRate,
+                isWin(turns), events);
+
+        battleReplayDAO.insertReplay(new BattleReplayVO(
+                battleId, BattleReplayCodec.FORMAT_VERSION, BattleReplayCodec.encode(replay), null));
+    }
+
+    // ===== WebSocket 전송 =====
+
+    private void sendEncounter(WebSocketSession session, MonsterVO monster) throws IOException {
+        Map<String, Object> encounterData = Map.ofEntries(
+                Map.entry("type", "encounter"),
+                Map.entry("monsterId", monster.getMonsterId()),
+                Map.entry("imageOriginalName", monster.getImageOriginalName()),
+                Map.entry("imageUrl", monster.getImageUrl()),
+                Map.entry("monsterName", monster.getMonsterName()),
+                Map.entry("imageId", monster.getImageId()),
+                Map.entry("monsterHp", monster.getMonsterHp()),
+                Map.entry("monsterAttack", monster.getMonsterAttack()),
+                Map.entry("monsterDefense", monster.getMonsterDefense()),
+                Map.entry("monsterSpeed", monster.getMonsterSpeed()),
+                Map.entry("monsterCriticalRate", monster.getMonsterCriticalRate())
+        );
+        session.sendMessage(new TextMessage(NOTE_MAPPER.writeValueAsString(encounterData)));
+    }
+
+    /** 해설 조각을 delta 프레임으로 전송하면서 전체 해설을 받음 */
+    private CompletableFuture<String> streamNote(WebSocketSession session, ResolvedTurn t, String noteStyle) {
+        return openAIService.requestGPTNoteStream(toNoteData(t), noteStyle, t.battleOver(), delta -> {
+            ensureActive(session);
+            Map<String, Object> frame = Map.of("type", "delta", "turn", t.turn(), "text", delta);
+            pacedMessageSender.send(session, NOTE_MAPPER.valueToTree(frame).toString());
+        });
+    }
+
+    /** 세션이 닫혔으면 전투 중단 (이후 단계는 체인에서 건너뜀) */
+    private void ensureActive(WebSocketSession session) {
+        if (!session.isOpen()) {
+            throw new CancellationException("전투 취소됨: sessionId=" + session.getId());
+        }
+    }
+
+    /** 스트리밍 전투 체인의 마지막 단계: 취소는 로그만, 그 외 오류는 클라이언트에 전달 */
+    private Void handleStreamFailure(WebSocketSession session, String userId, Throwable e) {
+        Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+        if (cause instanceof CancellationException) {
+            // 세션 종료 등으로 전투 취소 (결과 미반영, 기록은 미완료 상태로 남음)
+            log.info("[PVE] 전투 취소: sessionId={}, userId={}", session.getId(), userId);
+        } else {
+            log.error("[PVE] 스트리밍 전투 오류: sessionId={}, userId={}", session.getId(), userId, cause);
+            sendError(session, cause);
+        }
+        return null;
+    }
+
+    private void sendError(WebSocketSession session, Throwable e) {
         try {
-            CharacterVO character = characterDAO.selectCharacterById(characterId);
-            CharacterStatVO stat = character.getCharacterStat();
+            session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"" + e.getMessage() + "\"}"));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // ===== 로그 문장 =====
 
-            int playerHp = stat.getCharacterHp() != null ? stat.getCharacterHp() : 1;
-            int monsterHp = monster.getMonsterHp() != null ? monster.getMonsterHp() : 1;
-            int playerAtk = stat.getCharacterAttack() != null ? stat.getCharacterAttack() : 1;
-            int playerDef = stat.getCharacterDefense() != null ? stat.getCharacterDefense() : 1;
-            int playerSpeed = stat.getCharacterSpeed() != null ? stat.getCharacterSpeed() : 1;
-            int playerCrit = stat.getCriticalRate() != null ? stat.getCriticalRate() : 1;
+    private String encounterLine(MonsterVO monster) {
+        return String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s, 크리티컬:%s)을 마주쳤다!",
+                monster.getMonsterName(),
+                String.valueOf(monster.getMonsterHp()),
+                String.valueOf(monster.getMonsterAttack()),
+                String.valueOf(monster.getMonsterDefense()),
+                String.valueOf(monster.getMonsterSpeed()),
+                String.valueOf(monster.getMonsterCriticalRate()));
+    }
 
-            int monsterAtk = monster.getMonsterAttack() != null ? monster.getMonsterAttack() : 0;
-            int monsterDef = monster.getMonsterDefense() != null ? monster.getMonsterDefense() : 0;
-            int monsterSpeed = monster.getMonsterSpeed() != null ? monster.getMonsterSpeed() : 0;
-            int monsterCrit = monster.getMonsterCriticalRate() != null ? monster.getMonsterCriticalRate() : 0;
+    private String streamEncounterLine(MonsterVO monster) {
+        BattleStats m = BattleStats.of(monster);
+        return String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s)을(를) 마주쳤다!",
+                monster.getMonsterName(), m.hp, m.attack, m.defense, m.speed);
+    }
 
-            boolean playerFirst = playerSpeed >= monsterSpeed;
-            ObjectMapper mapper = new ObjectMapper();
+    private String restTurnLine(ResolvedTurn t, String noteText) {
+        return String.format(
+                "턴 %s: %s가 공격으로 %s 데미지를 입힘 %s%n(플레이어HP:%s, 몬스터HP:%s)%n",
+                String.valueOf(t.turn()),
+                String.valueOf(t.actor()),
+                String.valueOf(t.damage()),
+                String.valueOf(noteText),
+                String.valueOf(t.playerHp()),
+                String.valueOf(t.monsterHp())
+        );
+    }
 
-            // 1. 몬스터 정보를 별도의 JSON 객체로 클라이언트에게 전송
-            //    프론트에서 이 정보를 받아 몬스터 스탯/이미지 영역을 업데이트합니다.
-            Map<String, Object> encounterData = Map.ofEntries(
-                    Map.entry("type", "encounter"),
-                    Map.entry("monsterId", monster.getMonsterId()),
-                    Map.entry("imageOriginalName", monster.getImageOriginalName()),
-                    Map.entry("imageUrl", monster.getImageUrl()),
-                    Map.entry("monsterName", monster.getMonsterName()),
-                    Map.entry("imageId", monster.getImageId()),
-                    Map.entry("monsterHp", monster.getMonsterHp()),
-                    Map.entry("monsterAttack", monster.getMonsterAttack()),
-                    Map.entry("monsterDefense", monster.getMonsterDefense()),
-                    Map.entry("monsterSpeed", monster.getMonsterSpeed()),
-                    Map.entry("monsterCriticalRate", monster.getMonsterCriticalRate())
-            );
-            session.sendMessage(new TextMessage(mapper.writeValueAsString(encounterData)));
-            log.info("클라이언트에게 몬스터 조우 정보 전송: {}", monster.getMonsterName());
+    private String streamTurnLine(ResolvedTurn t, String noteText) {
+        return String.format(
+                "턴 %d: %s가 공격으로 %d 데미지를 입힘%s\n%s \n(플레이어HP:%d, 몬스터HP:%d)\n%s",
+                t.turn(),
+                t.actor(),
+                t.damage(),
+                t.critical() ? " 크리티컬 히트!" : "",
+                noteText,
+                t.playerHp(),
+                t.monsterHp(),
+                ""
+        );
+    }
 
-            // 전투 기록 DB
-            BattleLogVO battleLog = new BattleLogVO();
-            battleLog.setCharacterId(characterId);
-            battleLog.setOpponentId(monster.getMonsterId());
-            battleLog.setBattleType("PVE");
-            battleLog.setCreatedBy(userId);
-            battleLog.setIsWin("N");
-            battleLog.setTurnCount(0L);
-            battleDAO.insertBattleLog(battleLog);
-            Integer battleId = battleLog.getBattleId();
+    // ===== 전투 계산 =====
+
+    // 한 턴의 계산 결과 (해설 제외)
+    private record ResolvedTurn(int turn, boolean playerAttack, String actor, String target, int damage, boolean critical,
+                                int playerHp, int monsterHp, boolean battleOver) {}
+
+    /** 해설 없이 전투를 끝까지 계산 (BattleEngine 결과에 이름을 붙여 반환) */
+    private List<ResolvedTurn> resolveTurns(CharacterVO character, MonsterVO monster) {
+        TurnEventBuffer events = new TurnEventBuffer();
+        BattleEngine.simulate(BattleStats.of(character.getCharacterStat()), BattleStats.of(monster),
+                ThreadLocalRandom.current(), events);
+
+        String playerName = character.getCharacterName();
+        String monsterName = monster.getMonsterName();
+        int last = events.size() - 1;
+
+        List<ResolvedTurn> turns = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            boolean isPlayerAttack = events.isPlayerAttack(i);
+            turns.add(new ResolvedTurn(
+                    i + 1,
+                    isPlayerAttack,
+                    isPlayerAttack ? playerName : monsterName,
+                    isPlayerAttack ? monsterName : playerName,
+                    events.damage(i),
+                    events.critical(i),
+                    events.playerHp(i),
+                    events.monsterHp(i),
+                    i == last
+            ));
+        }
+        return turns;
+    }
 
-            // 2. 초기 로그 (일반 로그 형태로 몬스터 조우 메시지를 한 번 더 전송)
-            List<String> logs = new ArrayList<>();
-            String initialLog = String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s)을(를) 마주쳤다!",
-                    monster.getMonsterName(), monsterHp, monsterAtk, monsterDef, monsterSpeed);
-            logs.add(initialLog);
-
-            // 초기 로그 전송 (클라이언트의 로그 창에 표시됨)
-            session.sendMessage(new TextMessage(initialLog));
-
-            int turn = 1;
-            while (playerHp > 0 && monsterHp > 0) {
-                boolean isPlayerAttack = (turn % 2 == 1) ? playerFirst : !playerFirst;
-                String actor = isPlayerAttack ? character.getCharacterName() : monster.getMonsterName();
-                String target = isPlayerAttack ? monster.getMonsterName() : character.getCharacterName();
-                int atk = isPlayerAttack ? playerAtk : monsterAtk;
-                int def = isPlayerAttack ? monsterDef : playerDef;
-                int critRate = isPlayerAttack ? playerCrit : monsterCrit;
-
-                boolean critical = Math.random() * 100 < critRate;
-                int damage = Math.max(1, (critical ? atk * 2 : atk) - def);
-
-                if (isPlayerAttack) monsterHp -= damage;
-                else playerHp -= damage;
-
-                boolean isBattleOver = (playerHp <= 0 || monsterHp <= 0);
-                String noteJson = openAIService.requestGPTNote(Map.of(
-                                "actor", actor,
-                                "target", target,
-                                "damage", damage,
-                                "critical", critical
-                                // isBattleOver는 Map 대신 인자로 전달합니다.
-                        ), noteStyle, isBattleOver // styleKey와 isBattleOver 인자를 전달
-                ).join();
-
-                noteJson = noteJson.replaceAll("(?s)^```json\\s*(.*?)\\s*```$", "$1")
-                        .replaceAll("(?s)^```\\s*(.*?)\\s*```$", "$1").trim();
-                if (noteJson.isEmpty()) noteJson = "{\"note\":\"[GPT 호출 실패]\"}";
-                if (!noteJson.startsWith("{")) {
-                    noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
-                }
-
-                // JSON이 닫히지 않은 경우 복구 로직
-                if (!noteJson.endsWith("}")) {
-                    noteJson += "}";
-                    log.warn("GPT 응답 JSON 복구됨: 닫는 괄호 '}' 추가됨");
-                }
-                
-                Map<String, Object> noteMap;
-                try {
-                    noteMap = mapper.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
-                } catch (Exception e) {
-                    log.error("GPT Note JSON 파싱 실패: {}", e.getMessage(), e);
-                    noteMap = Map.of("note", "[GPT 호출 실패: JSON 오류]");
-                }
-                String noteText = noteMap.getOrDefault("note", "[GPT 호출 실패: JSON 오류]").toString();
-
-                // 마지막 턴이면 로그에 승리/패배 메시지 포함
-                String actionLog = String.format(
-                        "턴 %d: %s가 공격으로 %d 데미지를 입힘%s\n%s \n(플레이어HP:%d, 몬스터HP:%d)\n%s",
-                        turn,
-                        actor,
-                        damage,
-                        critical ? " 크리티컬 히트!" : "",
-                        noteText,
-                        playerHp,
-                        monsterHp,
-                        ""
-                );
-                logs.add(actionLog);
-
-                // 프론트로 전송
-                session.sendMessage(new TextMessage(actionLog));
-
-                // DB 저장
-                TurnLogVO turnLog = new TurnLogVO();
-                turnLog.setBattleId(battleId);
-                turnLog.setTurnNumber(turn);
-                turnLog.setActionDetail(actionLog);
-                turnLogDAO.insertTurnLog(turnLog);
-
-                Thread.sleep(1000);
-                turn++;
-            }
+    private boolean isWin(List<ResolvedTurn> turns) {
+        return !turns.isEmpty() && turns.get(turns.size() - 1).monsterHp() <= 0;
+    }
 
-            boolean isWin = monsterHp <= 0;
+    /**
+     * 해설을 narrationBatchSize 턴 단위로 묶어 최대 narrationConcurrency 묶음까지 미리 요청해 두고,
+     * 턴 순서대로 완료되는 대로 consumer 에 넘긴다. (앞 묶음이 끝나면 다음 묶음 요청을 채워 넣는 슬라이딩 윈도우)
+     * - 응답을 기다리는 동안 스레드를 점유하지 않으며, 반환된 future 는 마지막 묶음까지 소비하면 완료된다.
+     */
+    private CompletableFuture<Void> narrateInOrder(List<ResolvedTurn> turns, String noteStyle, BiConsumer<ResolvedTurn, String> consumer) {
+        int window = Math.max(1, narrationConcurrency);
+        int batchSize = Math.max(1, narrationBatchSize);
+        int chunkCount = (turns.size() + batchSize - 1) / batchSize;
+        // 체인 단계가 순서대로 실행되므로 동기화 없이 사용 (단계 간 happens-before 는 future 완료로 보장)
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(chunkCount);
+
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int c = 0; c < chunkCount; c++) {
+            int chunk = c;
+            chain = chain
+                    .thenCompose(v -> {
+                        // 앞 청크를 소비한 뒤 창을 채움 (동시에 진행되는 요청은 최대 window 개)
+                        while (futures.size() < chunkCount && futures.size() < chunk + window) {
+                            int from = futures.size() * batchSize;
+                            futures.add(requestNotes(turns.subList(from, Math.min(turns.size(), from + batchSize)), noteStyle));
+                        }
+                        return futures.get(chunk);
+                    })
+                    .thenAccept(notes -> {
+                        int from = chunk * batchSize;
+                        for (int i = 0; i < notes.size(); i++) {
+                            consumer.accept(turns.get(from + i), notes.get(i));
+                        }
+                    });
+        }
+        return chain;
+    }
 
-            // 전투 종료 메시지 전송
-            Map<String, Object> result = Map.of(
-                    "type", "end",
-                    "result", isWin ? "win" : "lose"
-            );
-            session.sendMessage(new TextMessage(mapper.writeValueAsString(result)));
-            // DB 기록
-            battleLog.setIsWin(isWin ? "Y" : "N");
-            battleLog.setTurnCount((long) (turn - 1));
-            battleDAO.updateBattleLogResult(battleLog);
+    /** 턴 묶음의 note 요청 (한 턴이면 기존 단건 API, 여러 턴이면 일괄 API) */
+    private CompletableFuture<List<String>> requestNotes(List<ResolvedTurn> chunk, String noteStyle) {
+        if (chunk.size() == 1) {
+            ResolvedTurn t = chunk.get(0);
+            return openAIService.requestGPTNote(toNoteData(t), noteStyle, t.battleOver())
+                    .thenApply(noteJson -> List.of(parseNote(noteJson)));
+        }
 
-            if (isWin) characterDAO.incrementStageClear(character.getCharacterId());
+        List<Map<String, Object>> batch = new ArrayList<>(chunk.size());
+        for (ResolvedTurn t : chunk) {
+            Map<String, Object> data = new HashMap<>(toNoteData(t));
+            data.put("isBattleOver", t.battleOver());
+            batch.add(data);
+        }
+        return openAIService.requestGPTNotesBatch(batch, noteStyle);
+    }
 
-            if (isWin) {
-                log.info("[PVE 퀘스트 체크] monster={}, userId={}", monster.getMonsterName(), userId);
-                questService.updateQuestProgress(userId, "PVE");
-            }
+    private Map<String, Object> toNoteData(ResolvedTurn t) {
+        return Map.of(
+                "actor", t.actor(),
+                "target", t.target(),
+                "damage", t.damage(),
+                "critical", t.critical()
+        );
+    }
 
+    /** GPT 응답(JSON 문자열)에서 note 텍스트 추출 */
+    private String parseNote(String noteJson) {
+        noteJson = noteJson.replaceAll("(?s)^```json\\s*(.*?)\\s*```$", "$1")
+                .replaceAll("(?s)^```\\s*(.*?)\\s*```$", "$1").trim();
+        if (noteJson.isEmpty()) noteJson = "{\"note\":\"[GPT 호출 실패]\"}";
+        if (!noteJson.startsWith("{")) {
+            noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
+        }
+        if (!noteJson.endsWith("}")) {
+            noteJson += "}";
+            log.warn("GPT 응답 JSON 복구됨: 닫는 괄호 '}' 추가됨");
+        }
 
+        try {
+            Map<String, Object> noteMap = NOTE_MAPPER.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
+            return noteMap.getOrDefault("note", "[GPT 호출 실패: JSON 오류]").toString();
         } catch (Exception e) {
-            try {
-                session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"" + e.getMessage() + "\"}"));
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
+            log.error("GPT Note JSON 파싱 실패: {}", e.getMessage(), e);
+            return "[GPT 호출 실패: JSON 오류]";
         }
     }
 
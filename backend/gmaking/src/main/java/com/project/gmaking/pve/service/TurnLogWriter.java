@@ -0,0 +1,190 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.pve.vo.TurnLogVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 턴 로그 일괄 저장기 (PVE/PVP 공용)
+ * - 끝난 전투: insertAll 로 batchSize 단위 multi-row INSERT
+ * - 진행 중인 전투: append 로 버퍼에 쌓아 두고 (write-behind)
+ *   전투 종료(flush), batchSize 도달, flush-interval-ms 경과 중 먼저 오는 시점에 일괄 저장
+ * - 생성 시각은 append 시점에 기록하므로 지연 저장되어도 턴 시각이 밀리지 않음
+ * - patch: 나중에 완성된 내용(비동기 해설 등)으로 교체. 아직 버퍼에 있으면 버퍼에서, 저장됐으면 UPDATE
+ * - batchSize 도달 시 저장은 전용 스레드 하나에서 (진행/예약 중이면 합쳐서 한 번만)
+ * - 저장 실패한 묶음은 max-retries 번까지 다음 flush 에서 재시도, 재시도 대기 행이 max-pending 을 넘으면 버림
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TurnLogWriter {
+
+    private final TurnLogDAO turnLogDAO;
+
+    // multi-row INSERT 한 번에 넣는 최대 행 수 (버퍼가 이만큼 차면 바로 저장)
+    @Value("${battle.turn-log.batch-size:100}")
+    private int batchSize;
+
+    // 저장 실패 묶음의 최대 재시도 횟수
+    @Value("${battle.turn-log.max-retries:5}")
+    private int maxRetries;
+
+    // 재시도 대기 행 수 상한 (DB 장애가 길어져도 메모리가 계속 늘지 않도록)
+    @Value("${battle.turn-log.max-pending:10000}")
+    private int maxPending;
+
+    private final ConcurrentLinkedQueue<TurnLogVO> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // 저장 실패 묶음 (this 잠금 안에서만 접근)
+    private record FailedChunk(List<TurnLogVO> rows, int attempts) {}
+    private final ArrayDeque<FailedChunk> retries = new ArrayDeque<>();
+    private int retryRows;
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private ExecutorService flushExecutor;
+
+    @PostConstruct
+    void init() {
+        flushExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "turn-log-seq");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** 끝난 전투의 턴 로그를 일괄 저장 (호출 스레드에서 바로 저장) */
+    public void insertAll(List<TurnLogVO> turnLogs) {
+        if (turnLogs == null || turnLogs.isEmpty()) return;
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < turnLogs.size(); from += size) {
+            turnLogDAO.insertTurnLogs(turnLogs.subList(from, Math.min(turnLogs.size(), from + size)));
+        }
+    }
+
+    /** 진행 중인 전투의 턴 로그를 버퍼에 추가 */
+    public void append(Integer battleId, int turnNumber, String actionDetail) {
+        pending.add(new TurnLogVO(null, battleId, turnNumber, actionDetail, LocalDateTime.now()));
+        if (pendingCount.incrementAndGet() >= Math.max(1, batchSize)) {
+            // 요청 스레드가 DB 를 기다리지 않도록 비동기로 비움
+            requestFlush();
+        }
+    }
+
+    // 진행/예약 중인 비동기 flush 가 있으면 합침 (append 마다 작업을 쌓지 않음)
+    private void requestFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        try {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * append 했던 턴 로그 내용 교체
+     * - flush 와 같은 락 안에서 처리: 버퍼에 없으면 이미 INSERT 가 끝난 상태이므로 UPDATE 가 INSERT 보다 앞서지 않음
+     */
+    public synchronized void patch(Integer battleId, int turnNumber, String actionDetail) {
+        for (TurnLogVO turnLog : pending) {
+            if (battleId.equals(turnLog.getBattleId()) && turnLog.getTurnNumber() == turnNumber) {
+                turnLog.setActionDetail(actionDetail);
+                return;
+            }
+        }
+        for (FailedChunk failed : retries) {
+            for (TurnLogVO turnLog : failed.rows()) {
+                if (battleId.equals(turnLog.getBattleId()) && turnLog.getTurnNumber() == turnNumber) {
+                    turnLog.setActionDetail(actionDetail);
+                    return;
+                }
+            }
+        }
+        try {
+            turnLogDAO.updateTurnLogDetail(battleId, turnNumber, actionDetail);
+        } catch (Exception e) {
+            log.error("[턴 로그] 내용 교체 실패: battleId={}, turn={}", battleId, turnNumber, e);
+        }
+    }
+
+    /** 주기적으로 버퍼 비우기 */
+    @Scheduled(fixedDelayString = "${battle.turn-log.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 버퍼에 쌓인 턴 로그 전부 저장 (전투 종료 시 호출)
+     * - 동시에 여러 곳에서 호출되어도 한 번에 하나만 DB 에 쓴다.
+     * - 이전에 실패한 묶음을 먼저 다시 시도하고, 이번에 실패한 묶음은 재시도 대기열로 (횟수/행 수 한도 안에서)
+     */
+    public synchronized void flush() {
+        for (int n = retries.size(); n > 0; n--) {
+            FailedChunk failed = retries.pollFirst();
+            retryRows -= failed.rows().size();
+            write(failed.rows(), failed.attempts());
+        }
+
+        int size = Math.max(1, batchSize);
+        List<TurnLogVO> chunk = new ArrayList<>(size);
+        TurnLogVO turnLog;
+        while ((turnLog = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            chunk.add(turnLog);
+            if (chunk.size() >= size) {
+                write(chunk, 0);
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) write(chunk, 0);
+    }
+
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /** this 잠금 안에서 호출 (attempts = 이전 실패 횟수) */
+    private void write(List<TurnLogVO> chunk, int attempts) {
+        try {
+            turnLogDAO.insertTurnLogs(chunk);
+        } catch (Exception e) {
+            List<Integer> battleIds = chunk.stream().map(TurnLogVO::getBattleId).distinct().toList();
+            if (attempts + 1 < Math.max(1, maxRetries) && retryRows + chunk.size() <= maxPending) {
+                retries.addLast(new FailedChunk(chunk, attempts + 1));
+                retryRows += chunk.size();
+                log.warn("[턴 로그] 일괄 저장 실패, 다음 flush 에서 재시도 ({}회): {}건, battleIds={}, 이유={}",
+                        attempts + 1, chunk.size(), battleIds, e.getMessage());
+            } else {
+                log.error("[턴 로그] 일괄 저장 실패, 버림: {}건, battleIds={}", chunk.size(), battleIds, e);
+            }
+        }
+    }
+}
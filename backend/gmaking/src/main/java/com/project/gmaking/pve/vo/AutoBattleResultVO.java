@@ -0,0 +1,34 @@
+package com.project.gmaking.pve.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class AutoBattleResultVO {
+
+    private Integer characterId;
+    private Integer mapId;
+    private Integer battleCount;
+    private Integer wins;
+    private Integer losses;
+    private Long totalTurns;
+    private Integer stageClearsAdded;   // 승리 수만큼 스테이지 클리어 반영
+    private List<BattleSummary> battles;
+
+    // 전투 한 건 요약
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BattleSummary {
+        private Integer battleId;
+        private Integer monsterId;
+        private String monsterName;
+        private String monsterType;
+        private String isWin;
+        private Integer turnCount;
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.gmaking.pve.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BattleReplayVO {
+    private Integer battleId;
+    private Integer formatVersion;
+    private byte[] payload;         // BattleReplayCodec 으로 압축된 전투 기록
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,24 @@
+package com.project.gmaking.pve.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 전투 한 건의 턴 로그 조회 결과 한 행
+ * - 압축 기록이 있으면 payload 만 채워진 한 행
+ * - 없으면 TB_TURN_LOG 의 행들 (payload 는 null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnLogSourceVO {
+    private Integer turnLogId;
+    private Integer battleId;
+    private Integer turnNumber;
+    private String actionDetail;
+    private byte[] payload;         // BattleReplayCodec 으로 압축된 전투 기록
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,30 @@
+package com.project.gmaking.pve.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class WinProbabilityVO {
+
+    private Integer characterId;
+    private Integer monsterId;          // 단일 몬스터 대상일 때
+    private String monsterType;         // 타입 대상일 때 (타입 내 몬스터를 균등 확률로 상대)
+    private Integer monsterCount;       // 상대 후보 수
+
+    private Integer runs;
+    private Long seed;                  // 같은 seed 로 다시 요청하면 같은 결과
+    private Integer wins;
+    private Double winRate;             // 0.0 ~ 1.0
+    private Double averageTurns;
+    private Integer minTurns;
+    private Integer maxTurns;
+
+    // 공격 1회 데미지 -> 횟수
+    private Map<Integer, Long> playerDamageDistribution;
+    private Map<Integer, Long> monsterDamageDistribution;
+
+    private Long elapsedMs;
+}
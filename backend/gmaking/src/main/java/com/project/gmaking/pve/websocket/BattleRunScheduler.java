@@ -0,0 +1,205 @@
+package com.project.gmaking.pve.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * /battle WebSocket 전투 실행기
+ * - 고정 크기 스레드 풀 + 유한 대기열 (메시지마다 new Thread 를 만들지 않음)
+ * - 풀 스레드는 전투 준비(조회/조우 전송)까지만 실행하고, 이후 턴 진행은 전투가 돌려준 future 체인으로 비동기 진행
+ * - 유저별 동시 진행 전투 수 제한 (future 가 끝날 때까지 한도 유지)
+ * - 세션 종료 시 해당 세션의 대기/진행 중 전투 취소
+ * - battle.run.queued / battle.run.running 게이지, battle.run.rejected 카운터 노출
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BattleRunScheduler {
+
+    public enum SubmitResult { ACCEPTED, USER_LIMIT, REJECTED }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pve.battle.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${pve.battle.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${pve.battle.max-per-user:2}")
+    private int maxPerUser;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejectedCounter;
+
+    // 유저별 진행(대기 포함) 중인 전투 수 (증감은 compute 로 원자적으로 처리)
+    private final Map<String, Integer> activeByUser = new ConcurrentHashMap<>();
+    // 세션별 전투 (세션 종료 시 취소용)
+    private final Map<String, Set<BattleRun>> runsBySession = new ConcurrentHashMap<>();
+    // 준비를 마치고 진행 중인 전투
+    private final Set<BattleRun> running = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                maxConcurrent, maxConcurrent,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "battle-run-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("battle.run.queued", executor, e -> e.getQueue().size())
+                .description("대기열에 있는 PVE 전투 수")
+                .register(meterRegistry);
+        Gauge.builder("battle.run.running", running, Set::size)
+                .description("진행 중인 PVE 전투 수")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("battle.run.rejected")
+                .description("유저 한도/대기열 초과로 거절된 PVE 전투 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 전투 실행 요청
+     * - battle 은 풀 스레드에서 호출되며, 전투가 끝나면 완료되는 future 를 돌려준다.
+     * - userId 가 없으면 세션 ID 기준으로 한도 적용
+     */
+    public SubmitResult submit(WebSocketSession session, String userId, Supplier<CompletableFuture<Void>> battle) {
+        String userKey = (userId != null) ? userId : "session:" + session.getId();
+
+        if (!acquireUser(userKey)) {
+            rejectedCounter.increment();
+            return SubmitResult.USER_LIMIT;
+        }
+
+        BattleRun run = new BattleRun(battle, session.getId(), userKey);
+        runsBySession.computeIfAbsent(session.getId(), k -> ConcurrentHashMap.newKeySet()).add(run);
+        if (!session.isOpen()) {
+            // 등록 직전에 세션이 닫혔으면 cancelSession 이 놓쳤을 수 있으므로 바로 취소
+            run.cancel();
+            return SubmitResult.REJECTED;
+        }
+
+        try {
+            executor.execute(run);
+            return SubmitResult.ACCEPTED;
+        } catch (RejectedExecutionException e) {
+            run.cancel(); // finish() 에서 한도/세션 정리
+            rejectedCounter.increment();
+            log.warn("[전투 실행기] 대기열 초과로 거절: userId={}, queued={}", userId, executor.getQueue().size());
+            return SubmitResult.REJECTED;
+        }
+    }
+
+    /**
+     * 세션 종료 시 해당 세션의 전투 전부 취소
+     * - 대기 중인 전투는 실행되지 않고, 진행 중인 체인은 다음 단계에서 세션 종료를 감지해 멈춘다.
+     */
+    public void cancelSession(String sessionId) {
+        Set<BattleRun> runs = runsBySession.remove(sessionId);
+        if (runs == null || runs.isEmpty()) return;
+
+        for (BattleRun run : runs) run.cancel();
+        log.info("[전투 실행기] 세션 종료로 전투 {}건 취소: sessionId={}", runs.size(), sessionId);
+    }
+
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public int runningCount() {
+        return running.size();
+    }
+
+    private boolean acquireUser(String userKey) {
+        boolean[] acquired = {false};
+        activeByUser.compute(userKey, (k, n) -> {
+            int count = (n == null) ? 0 : n;
+            if (count >= maxPerUser) return n;
+            acquired[0] = true;
+            return count + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseUser(String userKey) {
+        activeByUser.computeIfPresent(userKey, (k, n) -> n <= 1 ? null : n - 1);
+    }
+
+    /** 완료/취소/거절 어느 경우든 finish() 에서 한 번만 정리되는 전투 작업 */
+    private final class BattleRun implements Runnable {
+        private final Supplier<CompletableFuture<Void>> battle;
+        private final String sessionId;
+        private final String userKey;
+        // 전투 전체 수명 (준비 + 비동기 턴 진행)
+        private final CompletableFuture<Void> lifecycle = new CompletableFuture<>();
+
+        BattleRun(Supplier<CompletableFuture<Void>> battle, String sessionId, String userKey) {
+            this.battle = battle;
+            this.sessionId = sessionId;
+            this.userKey = userKey;
+            lifecycle.whenComplete((v, e) -> finish());
+        }
+
+        @Override
+        public void run() {
+            if (lifecycle.isDone()) return; // 대기 중에 취소됨
+
+            running.add(this);
+            if (lifecycle.isDone()) { // add 직전에 취소되어 finish() 가 먼저 돈 경우
+                running.remove(this);
+                return;
+            }
+
+            try {
+                battle.get().whenComplete((v, e) -> {
+                    if (e != null) lifecycle.completeExceptionally(e);
+                    else lifecycle.complete(null);
+                });
+            } catch (Throwable e) {
+                log.error("[전투 실행기] 전투 시작 실패: sessionId={}", sessionId, e);
+                lifecycle.completeExceptionally(e);
+            }
+        }
+
+        void cancel() {
+            lifecycle.cancel(false);
+        }
+
+        private void finish() {
+            running.remove(this);
+            releaseUser(userKey);
+            Set<BattleRun> runs = runsBySession.get(sessionId);
+            if (runs != null) {
+                runs.remove(this);
+                if (runs.isEmpty()) runsBySession.remove(sessionId, runs);
+            }
+        }
+    }
+}
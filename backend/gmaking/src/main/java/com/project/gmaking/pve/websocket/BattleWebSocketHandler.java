@@ -11,13 +11,16 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Component
 @RequiredArgsConstructor
 public class BattleWebSocketHandler extends TextWebSocketHandler {
 
     private final PveBattleService pveBattleService;
+    private final BattleRunScheduler battleRunScheduler;
     private final ObjectMapper mapper = new ObjectMapper();
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
 
@@ -38,8 +41,22 @@ public class BattleWebSocketHandler extends TextWebSocketHandler {
 
             MonsterVO monster = pveBattleService.encounterMonster(mapId);
             String noteStyle = (String) data.getOrDefault("noteStyle", "COMIC");
+            // PIPELINED: 전투 선계산 후 해설을 동시에 생성해 순서대로 스트리밍
+            // STREAM: 해설을 토큰 단위로 받아 delta 프레임으로 전송
+            String mode = String.valueOf(data.getOrDefault("mode", "")).toUpperCase();
 
-            new Thread(() -> pveBattleService.startBattleWebSocket(session, characterId, monster, userId, noteStyle)).start();
+            Supplier<CompletableFuture<Void>> battle = switch (mode) {
+                case "PIPELINED" -> () -> pveBattleService.startBattleWebSocketPipelined(session, characterId, monster, userId, noteStyle);
+                case "STREAM" -> () -> pveBattleService.startBattleWebSocketStreaming(session, characterId, monster, userId, noteStyle);
+                default -> () -> pveBattleService.startBattleWebSocket(session, characterId, monster, userId, noteStyle);
+            };
+
+            BattleRunScheduler.SubmitResult submitted = battleRunScheduler.submit(session, userId, battle);
+            if (submitted == BattleRunScheduler.SubmitResult.USER_LIMIT) {
+                session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"이미 진행 중인 전투가 있습니다.\"}"));
+            } else if (submitted == BattleRunScheduler.SubmitResult.REJECTED) {
+                session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"전투 대기열이 가득 찼습니다. 잠시 후 다시 시도하세요.\"}"));
+            }
         } catch (Exception e) {
             e.printStackTrace();
             try {
@@ -54,5 +71,6 @@ public class BattleWebSocketHandler extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, org.springframework.web.socket.CloseStatus status) {
         System.out.println("연결 종료: " + session.getId());
         sessions.remove(session.getId());
+        battleRunScheduler.cancelSession(session.getId());
     }
 }
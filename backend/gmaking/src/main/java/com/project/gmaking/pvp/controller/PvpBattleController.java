@@ -3,6 +3,7 @@ package com.project.gmaking.pvp.controller;
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.pvp.service.PvpBattleService;
 import com.project.gmaking.pvp.vo.PvpBattleVO;
+import com.project.gmaking.pvp.vo.PvpMatchVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,18 +20,20 @@ public class PvpBattleController {
 
     private final PvpBattleService pvpBattleService;
 
-    // 상대방 찾기
+    // 상대방 찾기 (characterId 미지정 시 내 최고 레이팅 캐릭터 기준)
     @GetMapping("/match")
-    public ResponseEntity<?> findOpponent(@RequestParam String userId) {
-        String opponentId = pvpBattleService.findRandomOpponent(userId);
-        if (opponentId == null) {
+    public ResponseEntity<?> findOpponent(@RequestParam String userId,
+                                          @RequestParam(required = false) Integer characterId) {
+        PvpMatchVO match = pvpBattleService.findOpponent(userId, characterId);
+        if (match == null) {
             return ResponseEntity.badRequest().body("매칭 가능한 상대가 없습니다.");
         }
 
-        List<CharacterVO> opponentChars = pvpBattleService.getOpponentCharacters(opponentId);
+        List<CharacterVO> opponentChars = pvpBattleService.getOpponentCharacters(match.getOpponentId());
         Map<String, Object> result = new LinkedHashMap<>();
-        result.put("opponentId", opponentId);
+        result.put("opponentId", match.getOpponentId());
         result.put("characters", opponentChars);
+        result.put("match", match);
 
         return ResponseEntity.ok(result);
     }
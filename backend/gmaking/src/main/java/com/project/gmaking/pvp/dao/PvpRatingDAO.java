@@ -0,0 +1,15 @@
+package com.project.gmaking.pvp.dao;
+
+import com.project.gmaking.pvp.vo.PvpRatingVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface PvpRatingDAO {
+    // 매칭 대상 전체 캐릭터 + 레이팅 (레이팅 기록이 없으면 초기값)
+    List<PvpRatingVO> selectRatingPool(@Param("initialRating") int initialRating);
+    // 레이팅 일괄 저장 (multi-row upsert)
+    void upsertRatings(List<PvpRatingVO> ratings);
+}
@@ -0,0 +1,160 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.pve.service.TurnLogWriter;
+import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pvp.dao.PvpBattleDAO;
+import com.project.gmaking.pvp.vo.PvpBattleVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 진행 중인 PVP 전투 저장소
+ * - battleId 기준 ConcurrentHashMap (조회/등록/삭제 O(1), 요청 스레드 간 안전)
+ * - 마지막 접근 후 idle-timeout 이 지난 전투는 주기적으로 제거하고, 기록을 패배(미완료)로 마감
+ * - 최대 보관 수 초과 시 만료 전투를 먼저 정리하고, 그래도 가득 차면 새 전투 거절
+ * - pvp.battle.active 게이지, pvp.battle.evicted / pvp.battle.rejected 카운터 노출
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PvpBattleRegistry {
+
+    private final PvpBattleDAO pvpBattleDAO;
+    private final TurnLogWriter turnLogWriter;
+    private final PvpRatingStore ratingStore;
+    private final MeterRegistry meterRegistry;
+
+    // 마지막 턴 요청 후 이 시간이 지나면 버려진 전투로 보고 정리
+    @Value("${pvp.battle.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    // 동시에 보관하는 최대 전투 수
+    @Value("${pvp.battle.max-active:10000}")
+    private int maxActive;
+
+    private final Map<Integer, Entry> battles = new ConcurrentHashMap<>();
+
+    private Counter evictedCounter;
+    private Counter rejectedCounter;
+
+    private static final class Entry {
+        final PvpBattleVO battle;
+        volatile long lastAccessMs;
+
+        Entry(PvpBattleVO battle) {
+            this.battle = battle;
+            this.lastAccessMs = System.currentTimeMillis();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("pvp.battle.active", battles, Map::size)
+                .description("진행 중인 PVP 전투 수")
+                .register(meterRegistry);
+        evictedCounter = Counter.builder("pvp.battle.evicted")
+                .description("유휴 시간 초과로 정리된 PVP 전투 수")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("pvp.battle.rejected")
+                .description("보관 한도 초과로 거절된 PVP 전투 수")
+                .register(meterRegistry);
+    }
+
+    /** 전투 등록 (한도 초과 시 ResponseStatusException) */
+    public void register(PvpBattleVO battle) {
+        if (battles.size() >= maxActive) {
+            evictIdle();
+            if (battles.size() >= maxActive) {
+                rejectedCounter.increment();
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "진행 중인 PVP 전투가 너무 많습니다. 잠시 후 다시 시도하세요.");
+            }
+        }
+        battles.put(battle.getBattleId(), new Entry(battle));
+    }
+
+    /** 전투 조회 (조회 시 마지막 접근 시각 갱신, 없으면 null) */
+    public PvpBattleVO get(Integer battleId) {
+        if (battleId == null) return null;
+        Entry entry = battles.get(battleId);
+        if (entry == null) return null;
+        entry.lastAccessMs = System.currentTimeMillis();
+        return entry.battle;
+    }
+
+    /**
+     * 정상 종료된 전투 제거
+     * @return 이번 호출로 제거했으면 true (이미 다른 요청/유휴 정리가 가져갔으면 false -> 마감 처리 생략)
+     */
+    public boolean remove(Integer battleId) {
+        return battleId != null && battles.remove(battleId) != null;
+    }
+
+    public int size() {
+        return battles.size();
+    }
+
+    /** 주기적으로 버려진 전투 정리 */
+    @Scheduled(fixedDelayString = "${pvp.battle.sweep-interval-ms:60000}")
+    public void scheduledEvict() {
+        try {
+            evictIdle();
+        } catch (Exception e) {
+            log.warn("[PVP 전투 저장소] 유휴 전투 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * idle-timeout 이 지난 전투 제거 + 기록 마감
+     * - remove(key, entry) 로 제거에 성공한 쪽만 마감하고, endBattle 도 remove 성공 시에만 마감하므로 겹쳐도 한 번만 처리
+     */
+    void evictIdle() {
+        long deadline = System.currentTimeMillis() - idleTimeoutMs;
+        int evicted = 0;
+        for (Map.Entry<Integer, Entry> e : battles.entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.lastAccessMs > deadline) continue;
+            if (!battles.remove(e.getKey(), entry)) continue;
+
+            finalizeAbandoned(entry.battle);
+            evicted++;
+        }
+        if (evicted > 0) {
+            evictedCounter.increment(evicted);
+            log.info("[PVP 전투 저장소] 버려진 전투 {}건 정리 (남은 전투 {}건)", evicted, battles.size());
+        }
+    }
+
+    /** 중간에 버려진 전투: 지금까지의 턴 기록을 저장하고 패배로 마감 (레이팅도 패배 반영, 퀘스트/알림 없음) */
+    private void finalizeAbandoned(PvpBattleVO battle) {
+        try {
+            turnLogWriter.flush();
+
+            BattleLogVO battleLog = new BattleLogVO();
+            battleLog.setBattleId(battle.getBattleId());
+            battleLog.setIsWin("N");
+            battleLog.setTurnCount((long) Math.max(0, battle.getTurn() - 1));
+            pvpBattleDAO.updateBattleLogResult(battleLog);
+
+            if (battle.getPlayer() != null && battle.getEnemy() != null) {
+                ratingStore.recordResult(
+                        battle.getPlayer().getCharacterId(), battle.getPlayer().getUserId(),
+                        battle.getEnemy().getCharacterId(), battle.getEnemy().getUserId(),
+                        false);
+            }
+        } catch (Exception e) {
+            log.warn("[PVP 전투 저장소] 버려진 전투 마감 실패: battleId={}, 이유={}", battle.getBattleId(), e.getMessage());
+        }
+    }
+}
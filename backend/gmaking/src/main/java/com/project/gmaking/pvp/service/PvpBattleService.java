@@ -2,11 +2,12 @@ package com.project.gmaking.pvp.service;
 
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.pvp.vo.PvpBattleVO;
+import com.project.gmaking.pvp.vo.PvpMatchVO;
 
 import java.util.List;
 
 public interface PvpBattleService {
-    String findRandomOpponent(String userId);
+    PvpMatchVO findOpponent(String userId, Integer characterId);
     List<CharacterVO> getOpponentCharacters(String opponentId);
     PvpBattleVO startBattle(Integer myCharacterId, Integer opponentCharacterId);
     PvpBattleVO processTurn(PvpBattleVO battle, String myCommand);
@@ -4,22 +4,23 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.gmaking.character.dao.CharacterDAO;
 import com.project.gmaking.character.vo.CharacterVO;
-import com.project.gmaking.notification.facade.NotificationFacade;
-import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.common.event.BattleEventBus;
+import com.project.gmaking.common.event.BattleFinishedEvent;
 import com.project.gmaking.pve.service.OpenAIService;
-import com.project.gmaking.pve.vo.TurnLogVO;
+import com.project.gmaking.pve.service.TurnLogWriter;
 import com.project.gmaking.pve.vo.BattleLogVO;
 import com.project.gmaking.pvp.dao.PvpBattleDAO;
 import com.project.gmaking.pvp.vo.PvpBattleVO;
-import com.project.gmaking.quest.service.QuestService;
+import com.project.gmaking.pvp.vo.PvpMatchVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Service
@@ -28,20 +29,26 @@ public class PvpBattleServiceImpl implements PvpBattleService{
 
     private final PvpBattleDAO pvpBattleDAO;
     private final CharacterDAO characterDAO;
-    private final TurnLogDAO turnLogDAO;
+    private final TurnLogWriter turnLogWriter;
     private final ObjectMapper mapper;
     private final OpenAIService openAIService;
-    private final QuestService questService;
+    private final SimpMessagingTemplate simp;
 
-    // 알림 파사드 주입
-    private final NotificationFacade notificationFacade;
+    // 전투 종료 후속 처리 (퀘스트/알림/통계는 구독자가 비동기로 처리)
+    private final BattleEventBus battleEventBus;
 
-    // 메모리 캐시용
-    private final List<PvpBattleVO> activeBattles = new ArrayList<>();
+    // 진행 중인 전투 (battleId 기준, 유휴 전투 자동 정리)
+    private final PvpBattleRegistry battleRegistry;
 
+    // 레이팅 기반 매칭
+    private final PvpMatchmaker matchmaker;
+    private final PvpRatingStore ratingStore;
+    private final PvpCommandRules commandRules;
+
+    // 상대 찾기 (내 캐릭터 레이팅과 가까운 상대, 대기 시간이 길수록 범위 확대)
     @Override
-    public String findRandomOpponent(String userId) {
-        return pvpBattleDAO.findRandomOpponent(userId);
+    public PvpMatchVO findOpponent(String userId, Integer characterId) {
+        return matchmaker.findMatch(userId, characterId);
     }
 
     @Override
@@ -59,7 +66,8 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         battle.setPlayer(me);
         battle.setEnemy(enemy);
         battle.setTurn(1);
-        battle.setLogs(new ArrayList<>());
+        // 해설 콜백 스레드(set)와 요청 스레드(add/직렬화)가 함께 접근하므로 스레드 안전 목록 사용
+        battle.setLogs(new CopyOnWriteArrayList<>());
         battle.setPlayerHp(me.getCharacterStat().getCharacterHp());
         battle.setEnemyHp(enemy.getCharacterStat().getCharacterHp());
 
@@ -75,62 +83,44 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         pvpBattleDAO.insertBattleLog(battleLog); // MyBatis에서 useGeneratedKeys=true로 BATTLE_ID 반환
         battle.setBattleId(battleLog.getBattleId()); // DB에서 생성된 ID 사용
 
-        // 메모리 캐시에도 저장 (테스트용)
-        activeBattles.add(battle);
+        // 진행 중 전투로 등록
+        battleRegistry.register(battle);
+
+        // 레이팅 저장소 적재 이후 생성된 캐릭터면 초기 레이팅으로 등록
+        ratingStore.track(me.getCharacterId(), me.getUserId());
+        ratingStore.track(enemy.getCharacterId(), enemy.getUserId());
 
         return battle;
     }
 
     // battleId로 전투 상태 조회 (컨트롤러에서 사용)
     public PvpBattleVO getBattleById(Integer battleId) {
-        return activeBattles.stream()
-                .filter(b -> b.getBattleId().equals(battleId))
-                .findFirst()
-                .orElse(null);
+        return battleRegistry.get(battleId);
     }
 
-    // 한글 커맨드 정의
-    private static final String[] COMMANDS = {"공격", "방어", "회피", "필살기"}; // 커맨드 목록을 상수로 정의
-    
+    // 해설 도착 시 전송할 개인 큐 (/user/queue/pvp-narration)
+    private static final String NARRATION_DESTINATION = "/queue/pvp-narration";
+
     // 턴 진행 (커맨드 계산)
     @Override
     public PvpBattleVO processTurn(PvpBattleVO battle, String myCommand) {
         // 이미 종료된 배틀이면 진행 차단
         if (battle == null || battle.isBattleOver()) return battle;
 
-        String enemyCommand = COMMANDS[new Random().nextInt(COMMANDS.length)];
+        PvpCommand mine = PvpCommand.fromLabel(myCommand);
+        if (mine == null) throw new IllegalArgumentException("알 수 없는 커맨드: " + myCommand);
+        PvpCommand enemy = PvpCommand.random(ThreadLocalRandom.current());
+        String enemyCommand = enemy.label();
         battle.setEnemyCommand(enemyCommand);
 
-        int playerDamage = 0, enemyDamage = 0;
-
         int atk = battle.getPlayer().getCharacterStat().getCharacterAttack();
         int def = battle.getPlayer().getCharacterStat().getCharacterDefense();
         int eAtk = battle.getEnemy().getCharacterStat().getCharacterAttack();
         int eDef = battle.getEnemy().getCharacterStat().getCharacterDefense();
 
-        // ==== 상성 규칙 ====
-        if (myCommand.equals("공격") && enemyCommand.equals("회피")) enemyDamage = atk;
-        else if (myCommand.equals("방어") && enemyCommand.equals("공격")) enemyDamage = def * 2;
-        else if (myCommand.equals("회피") && enemyCommand.equals("필살기")) enemyDamage = def * 3;
-        else if (myCommand.equals("필살기") &&
-                (enemyCommand.equals("공격") || enemyCommand.equals("방어"))) enemyDamage = atk * 2;
-        else if (enemyCommand.equals("공격") && myCommand.equals("회피")) playerDamage = eAtk;
-        else if (enemyCommand.equals("방어") && myCommand.equals("공격")) playerDamage = eDef * 2;
-        else if (enemyCommand.equals("회피") && myCommand.equals("필살기")) playerDamage = eDef * 3;
-        else if (enemyCommand.equals("필살기") &&
-                (myCommand.equals("공격") || myCommand.equals("방어"))) playerDamage = eAtk * 2;
-        else if (myCommand.equals(enemyCommand)) {
-            if (myCommand.equals("공격")) {
-                // 공격 vs 공격: 기본 피해
-                playerDamage = eAtk;
-                enemyDamage = atk;
-            } else if (myCommand.equals("필살기")) {
-                // 필살기 vs 필살기: 2배 피해
-                playerDamage = eAtk * 2;
-                enemyDamage = atk * 2;
-            }
-            // 방어 vs 방어, 회피 vs 회피는 피해 0으로 처리 (기존 else 문에서 처리될 가능성 높음)
-        }
+        // ==== 상성 규칙 (설정 기반 상성표) ====
+        int enemyDamage = commandRules.damage(mine, enemy, atk, def);
+        int playerDamage = commandRules.damage(enemy, mine, eAtk, eDef);
 
         // === HP 갱신 ===
         battle.setPlayerHp(Math.max(0, battle.getPlayerHp() - playerDamage));
@@ -164,14 +154,62 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         gptData.put("command3", myCommand);
         gptData.put("command4", enemyCommand);
 
-        // 비동기 GPT 호출
-        CompletableFuture<String> gptNoteFuture = openAIService.requestGPTPvpNote(gptData);
-        String gptLog = "";
-        String finalLog = "";
+        // 3단계: 서버 계산 결과만으로 턴 확정 (GPT 응답을 기다리지 않고 바로 반환)
+        // DB 에는 계산 결과 로그를 먼저 쌓고 (write-behind), 해설이 도착하면 같은 턴 로그를 교체
+        int turn = battle.getTurn();
+        turnLogWriter.append(battle.getBattleId(), turn, resultLog);
 
-        try {
-            String gptNoteJson = gptNoteFuture.get();
+        // 프론트용 누적 로그
+        battle.getLogs().add(resultLog);
+        int logIndex = battle.getLogs().size() - 1;
+
+        // 4단계: GPT 해설은 비동기로 생성 -> 턴 로그 교체 + STOMP 로 전송
+        narrateAsync(battle, turn, logIndex, resultLog, gptData);
 
+        // 종료 체크
+        if (battle.getPlayerHp() <= 0 || battle.getEnemyHp() <= 0) {
+            battle.setBattleOver(true);
+        } else{
+            // 전투 종료 아닐 시 턴 증가
+            battle.setTurn(battle.getTurn() + 1);
+        }
+        return battle;
+    }
+
+
+    // 턴 해설 비동기 생성 (완료 시 누적 로그/턴 로그 교체 후 유저에게 전송)
+    private void narrateAsync(PvpBattleVO battle, int turn, int logIndex, String resultLog, Map<String, Object> gptData) {
+        Integer battleId = battle.getBattleId();
+        String userId = battle.getPlayer().getUserId();
+
+        openAIService.requestGPTPvpNote(gptData)
+                .thenApply(gptNoteJson -> combineNote(resultLog, gptNoteJson))
+                .exceptionally(e -> resultLog + " | 해설: [GPT 통신 오류: 실행 예외] " + e.getMessage())
+                .thenAccept(finalLog -> {
+                    List<String> logs = battle.getLogs();
+                    if (logIndex < logs.size()) logs.set(logIndex, finalLog);
+
+                    turnLogWriter.patch(battleId, turn, finalLog);
+
+                    if (userId != null) {
+                        Map<String, Object> payload = new LinkedHashMap<>();
+                        payload.put("type", "PVP_NARRATION");
+                        payload.put("battleId", battleId);
+                        payload.put("turn", turn);
+                        payload.put("logIndex", logIndex);
+                        payload.put("log", finalLog);
+                        simp.convertAndSendToUser(userId, NARRATION_DESTINATION, payload);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.warn("[PVP 해설] 반영 실패: battleId={}, turn={}, 이유={}", battleId, turn, e.getMessage());
+                    return null;
+                });
+    }
+
+    // GPT 응답(JSON) 에서 note 를 꺼내 서버 결과 로그와 결합
+    private String combineNote(String resultLog, String gptNoteJson) {
+        try {
             // JSON 문자열 정리: 코드 블록 마크다운과 서문 제거 (가장 중요!)
             String cleanJson = gptNoteJson
                     .replaceAll("```json", "") // 마크다운 시작 태그 제거
@@ -180,7 +218,7 @@ public class PvpBattleServiceImpl implements PvpBattleService{
 
             // 파싱 시도 (cleanJson 사용)
             JsonNode rootNode = mapper.readTree(cleanJson);
-            gptLog = rootNode.path("note").asText();
+            String gptLog = rootNode.path("note").asText();
 
             if (gptLog.isEmpty()) {
                 // 'note' 필드가 없거나 비어있는 경우
@@ -188,39 +226,19 @@ public class PvpBattleServiceImpl implements PvpBattleService{
             }
 
             // 최종 로그 결합: 서버 결과 + GPT 해설
-            finalLog = resultLog + "\n" + gptLog + "\n";
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            finalLog = resultLog + " | 해설: [GPT 통신 오류: 스레드 중단]";
-        } catch (ExecutionException e) {
-            finalLog = resultLog + " | 해설: [GPT 통신 오류: 실행 예외] " + e.getCause().getMessage();
+            return resultLog + "\n" + gptLog + "\n";
         } catch (Exception e) {
             // 이 부분이 JSON 파싱 오류를 잡는 곳입니다.
-            finalLog = resultLog + " | 해설: [JSON 파싱 오류] 원본 응답 확인 필요";
+            return resultLog + " | 해설: [JSON 파싱 오류] 원본 응답 확인 필요";
         }
-
-        // 3단계: 로그 저장 및 업데이트
-        // DB에는 최종 결합 로그만 저장
-        turnLogDAO.insertTurnLog(new TurnLogVO(null, battle.getBattleId(), battle.getTurn(), finalLog, LocalDateTime.now()));
-
-        // 프론트용 누적 로그
-        battle.getLogs().add(finalLog);
-
-        // 종료 체크
-        if (battle.getPlayerHp() <= 0 || battle.getEnemyHp() <= 0) {
-            battle.setBattleOver(true);
-        } else{
-            // 전투 종료 아닐 시 턴 증가
-            battle.setTurn(battle.getTurn() + 1);
-        }
-        return battle;
     }
 
-
     // 전투 종료
     @Override
     public void endBattle(PvpBattleVO result) {
+        // 0. 진행 중 전투에서 먼저 제거: 동시에 끝난 /turn 요청이나 유휴 정리와 겹쳐도 마감(레이팅/이벤트)은 한 번만
+        if (!battleRegistry.remove(result.getBattleId())) return;
+
         // 1. 승패 판단
         boolean isWin = result.getEnemyHp() <= 0;
 
@@ -238,74 +256,21 @@ public class PvpBattleServiceImpl implements PvpBattleService{
                 null,
                 result.getLogs()
         );
+        turnLogWriter.flush();
         pvpBattleDAO.updateBattleLogResult(battleLog);
 
-        String userId = (result.getPlayer() != null) ? result.getPlayer().getUserId() : null;
-
-        if (userId != null) {
-            questService.updateQuestProgress(userId, "PVP");
-        } else {
-            log.warn("[PVP 퀘스트 갱신 실패] userId를 찾을 수 없습니다. battleId={}", result.getBattleId());
-        }
-
-        // 알림 발송 (양측)
-        sendPvpResultNotifications(result, isWin);
+        // 레이팅 반영 (메모리 즉시, DB 는 주기적 일괄 저장)
+        ratingStore.recordResult(
+                result.getPlayer().getCharacterId(), result.getPlayer().getUserId(),
+                result.getEnemy().getCharacterId(), result.getEnemy().getUserId(),
+                isWin);
 
-        // 3.  메모리 캐시에서 배틀 제거
-        activeBattles.removeIf(b -> b.getBattleId().equals(result.getBattleId()));
+        // 퀘스트 / 양측 결과 알림 / 통계는 이벤트 구독자가 비동기로 처리
+        battleEventBus.publish(BattleFinishedEvent.pvp(
+                result.getBattleId(), result.getPlayer(), result.getEnemy(),
+                isWin, result.getTurn(), false));
     }
 
-    // 전투 종료 알림
-    private void sendPvpResultNotifications(PvpBattleVO result, boolean isWin) {
-        final String actor = "system";
-
-        var me    = result.getPlayer();
-        var enemy = result.getEnemy();
-
-        var myStat = (me != null) ? me.getCharacterStat() : null;
-        var enStat = (enemy != null) ? enemy.getCharacterStat() : null;
-
-        // 내 알림 (상대 정보를 opponent*, 재대결 seed는 수신자=나)
-        notificationFacade.pvpResult(
-                me != null ? me.getUserId() : null,
-                isWin,
-                enemy != null ? enemy.getUserId() : null,
-                enemy != null ? enemy.getCharacterName() : null,
-                result.getBattleId(),
-                enemy != null ? enemy.getCharacterId() : null,      // opponentCharacterId
-                enemy != null ? enemy.getImageUrl() : null,         // opponentImageUrl
-                me != null ? me.getUserId() : null,                 // requesterUserId (수신자=나)
-                me != null ? me.getCharacterId() : null,            // requesterCharacterId
-                enStat != null ? enStat.getCharacterHp()      : null,
-                enStat != null ? enStat.getCharacterAttack()  : null,
-                enStat != null ? enStat.getCharacterDefense() : null,
-                enStat != null ? enStat.getCharacterSpeed()   : null,
-                enStat != null ? enStat.getCriticalRate()     : null,
-                actor
-        );
-
-        // 상대 알림 (반대로 내가 상대 입장에서 opponent*)
-        notificationFacade.pvpResult(
-                enemy != null ? enemy.getUserId() : null,
-                !isWin,
-                me != null ? me.getUserId() : null,
-                me != null ? me.getCharacterName() : null,
-                result.getBattleId(),
-                me != null ? me.getCharacterId() : null,
-                me != null ? me.getImageUrl() : null,
-                enemy != null ? enemy.getUserId() : null,           // requesterUserId
-                enemy != null ? enemy.getCharacterId() : null,      // requesterCharacterId
-                myStat != null ? myStat.getCharacterHp()      : null,
-                myStat != null ? myStat.getCharacterAttack()  : null,
-                myStat != null ? myStat.getCharacterDefense() : null,
-                myStat != null ? myStat.getCharacterSpeed()   : null,
-                myStat != null ? myStat.getCriticalRate()     : null,
-                actor
-        );
-    }
-
-
-
     // null 방어
     private String safe(String s) {return (s == null) ? "-" : s;}
     private String safeName(String s) {return (s == null || s.isBlank()) ? "-" : s;}
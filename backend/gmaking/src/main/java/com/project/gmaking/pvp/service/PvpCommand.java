@@ -0,0 +1,39 @@
+package com.project.gmaking.pvp.service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * PVP 커맨드 (화면/로그에는 한글 label 사용)
+ */
+public enum PvpCommand {
+    ATTACK("공격"),
+    DEFEND("방어"),
+    EVADE("회피"),
+    SPECIAL("필살기");
+
+    private static final PvpCommand[] VALUES = values();
+    public static final int COUNT = VALUES.length;
+
+    private final String label;
+
+    PvpCommand(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** 한글 커맨드 -> enum (알 수 없는 커맨드면 null) */
+    public static PvpCommand fromLabel(String label) {
+        for (PvpCommand c : VALUES) {
+            if (c.label.equals(label)) return c;
+        }
+        return null;
+    }
+
+    /** 무작위 커맨드 (상대 AI, 시간 초과 자동 선택) */
+    public static PvpCommand random(RandomGenerator rnd) {
+        return VALUES[rnd.nextInt(COUNT)];
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.gmaking.pvp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * PVP 커맨드 상성 규칙 (REST 전투 / 실시간 전투 공용)
+ * - (내 커맨드, 상대 커맨드) 칸마다 "어느 능력치(ATK/DEF) x 배율" 로 상대에게 주는 피해를 정의한 표
+ * - 표는 pvp.rules.damage 설정에서 시작 시 한 번 읽어 배열로 만들어 두고, 판정은 배열 조회만 함 (할당 없음)
+ * - 양쪽 피해는 서로 독립: 내가 받은 피해 = damage(상대 커맨드, 내 커맨드, 상대 능력치)
+ */
+@Component
+public class PvpCommandRules {
+
+    /**
+     * 기본 상성표 (설정이 없을 때)
+     * - 형식: 공격측>방어측=능력치*배율, 쉼표로 구분 / 표에 없는 칸은 피해 0
+     */
+    public static final String DEFAULT_DAMAGE_RULES =
+            "ATTACK>ATTACK=ATK*1,ATTACK>EVADE=ATK*1,"
+            + "DEFEND>ATTACK=DEF*2,"
+            + "EVADE>SPECIAL=DEF*3,"
+            + "SPECIAL>ATTACK=ATK*2,SPECIAL>DEFEND=ATK*2,SPECIAL>SPECIAL=ATK*2";
+
+    private static final int N = PvpCommand.COUNT;
+
+    // index = 공격측.ordinal() * N + 방어측.ordinal()
+    private final int[] percent = new int[N * N];         // 배율 (%)
+    private final boolean[] byDefense = new boolean[N * N]; // true 면 방어력 기준, false 면 공격력 기준
+
+    public PvpCommandRules(@Value("${pvp.rules.damage:" + DEFAULT_DAMAGE_RULES + "}") String rules) {
+        String spec = rules == null || rules.isBlank() ? DEFAULT_DAMAGE_RULES : rules;
+        for (String entry : spec.split(",")) {
+            if (!entry.isBlank()) parseEntry(entry.trim());
+        }
+    }
+
+    /**
+     * attacker 커맨드를 쓴 쪽이 defender 커맨드를 쓴 상대에게 주는 피해
+     * @param atk attacker 쪽 공격력
+     * @param def attacker 쪽 방어력
+     */
+    public int damage(PvpCommand attacker, PvpCommand defender, int atk, int def) {
+        int i = attacker.ordinal() * N + defender.ordinal();
+        return (byDefense[i] ? def : atk) * percent[i] / 100;
+    }
+
+    // "SPECIAL>ATTACK=ATK*2" 형태 한 칸 해석 (잘못된 설정은 시작 시 바로 실패)
+    private void parseEntry(String entry) {
+        try {
+            int gt = entry.indexOf('>');
+            int eq = entry.indexOf('=');
+            int star = entry.indexOf('*');
+            PvpCommand attacker = PvpCommand.valueOf(entry.substring(0, gt).trim());
+            PvpCommand defender = PvpCommand.valueOf(entry.substring(gt + 1, eq).trim());
+            String stat = entry.substring(eq + 1, star).trim();
+            if (!stat.equals("ATK") && !stat.equals("DEF")) {
+                throw new IllegalArgumentException("능력치는 ATK 또는 DEF");
+            }
+            BigDecimal multiplier = new BigDecimal(entry.substring(star + 1).trim());
+            if (multiplier.signum() < 0) throw new IllegalArgumentException("배율은 0 이상");
+
+            int i = attacker.ordinal() * N + defender.ordinal();
+            byDefense[i] = stat.equals("DEF");
+            percent[i] = multiplier.movePointRight(2).intValueExact();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("pvp.rules.damage 설정 오류: '" + entry + "' (" + e.getMessage() + ")", e);
+        }
+    }
+}
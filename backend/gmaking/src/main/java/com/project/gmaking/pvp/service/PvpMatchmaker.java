@@ -0,0 +1,109 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.pvp.vo.PvpMatchVO;
+import com.project.gmaking.pvp.vo.PvpRatingVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 레이팅 기반 PVP 매칭 대기열
+ * - 매칭 요청마다 유저별 대기표를 만들고, 대기 시간이 길수록 레이팅 탐색 범위를 넓힘
+ *   (base-window + widen-per-second * 대기 초, 최대 max-window)
+ * - 범위 안 후보가 없으면 대기표를 유지한 채 null 반환 -> 다시 요청하면 넓어진 범위로 탐색
+ * - 매칭 성공 시 대기표 제거, 일정 시간 재요청이 없는 대기표는 주기적으로 정리
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PvpMatchmaker {
+
+    private final PvpRatingStore ratingStore;
+
+    // 처음 탐색하는 레이팅 범위 (±)
+    @Value("${pvp.match.base-window:100}")
+    private int baseWindow;
+
+    // 대기 1초당 늘어나는 탐색 범위
+    @Value("${pvp.match.widen-per-second:50}")
+    private int widenPerSecond;
+
+    // 탐색 범위 상한
+    @Value("${pvp.match.max-window:1000}")
+    private int maxWindow;
+
+    // 범위 안에서 가장 가까운 후보 몇 명 중에서 고를지 (같은 상대만 반복되지 않도록)
+    @Value("${pvp.match.sample-size:5}")
+    private int sampleSize;
+
+    // 마지막 요청 후 이 시간이 지나면 대기표 폐기 (다음 요청은 처음 범위부터)
+    @Value("${pvp.match.ticket-ttl-ms:120000}")
+    private long ticketTtlMs;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private static final class Ticket {
+        final int characterId;
+        final long startedMs;
+        volatile long lastSeenMs;
+
+        Ticket(int characterId, long now) {
+            this.characterId = characterId;
+            this.startedMs = now;
+            this.lastSeenMs = now;
+        }
+    }
+
+    /**
+     * 매칭 시도
+     * @param characterId 기준 캐릭터 (null 이면 유저의 최고 레이팅 캐릭터)
+     * @return 매칭 결과, 범위 안에 상대가 없거나 유저 캐릭터가 없으면 null
+     */
+    public PvpMatchVO findMatch(String userId, Integer characterId) {
+        PvpRatingVO me = characterId != null ? ratingStore.get(characterId) : ratingStore.bestOf(userId);
+        if (me == null) return null;
+        if (!me.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("본인 캐릭터로만 매칭할 수 있습니다.");
+        }
+
+        long now = System.currentTimeMillis();
+        Ticket ticket = tickets.compute(userId, (k, t) ->
+                (t == null || t.characterId != me.getCharacterId() || now - t.lastSeenMs > ticketTtlMs)
+                        ? new Ticket(me.getCharacterId(), now) : t);
+        ticket.lastSeenMs = now;
+
+        int window = windowFor(now - ticket.startedMs);
+        PvpRatingVO opponent = ratingStore.findNear(me.getRating(), window, userId, sampleSize);
+        if (opponent == null) {
+            log.debug("[PVP 매칭] 후보 없음: userId={}, rating={}, window=±{}", userId, me.getRating(), window);
+            return null;
+        }
+
+        tickets.remove(userId, ticket);
+        return new PvpMatchVO(
+                opponent.getUserId(),
+                opponent.getCharacterId(),
+                me.getCharacterId(),
+                me.getRating(),
+                opponent.getRating(),
+                window
+        );
+    }
+
+    /** 재요청이 끊긴 대기표 정리 */
+    @Scheduled(fixedDelayString = "${pvp.battle.sweep-interval-ms:60000}")
+    public void evictStaleTickets() {
+        long deadline = System.currentTimeMillis() - ticketTtlMs;
+        tickets.values().removeIf(t -> t.lastSeenMs < deadline);
+    }
+
+    private int windowFor(long waitedMs) {
+        long widened = baseWindow + widenPerSecond * (waitedMs / 1000);
+        return (int) Math.min(maxWindow, widened);
+    }
+}
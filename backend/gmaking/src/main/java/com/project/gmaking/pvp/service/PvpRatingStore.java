@@ -0,0 +1,288 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.pvp.dao.PvpRatingDAO;
+import com.project.gmaking.pvp.vo.PvpRatingVO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PVP 캐릭터 레이팅 저장소 (메모리)
+ * - 캐릭터별 Elo 레이팅을 메모리에 두고, 레이팅 순 skip list 로 가까운 상대를 O(log n) 에 탐색
+ * - 전투 결과는 메모리에 즉시 반영, DB(TB_PVP_RATING)에는 변경분만 주기적으로 일괄 저장
+ * - 최초 사용 시 TB_CHARACTER 기준으로 적재, 이후 새 캐릭터/삭제된 캐릭터는 주기적으로 반영
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PvpRatingStore {
+
+    private final PvpRatingDAO pvpRatingDAO;
+
+    // 레이팅 기록이 없는 캐릭터의 시작 레이팅
+    @Value("${pvp.rating.initial:1000}")
+    private int initialRating;
+
+    // 한 판에 움직일 수 있는 최대 레이팅
+    @Value("${pvp.rating.k-factor:32}")
+    private int kFactor;
+
+    // upsert 한 번의 최대 행 수
+    @Value("${pvp.rating.batch-size:200}")
+    private int batchSize;
+
+    private final Map<Integer, Rated> byCharacter = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> byUser = new ConcurrentHashMap<>();
+    // key = (레이팅 << 32 | characterId) -> 레이팅 순, 같은 레이팅은 캐릭터 ID 순
+    private final ConcurrentSkipListMap<Long, Rated> ladder = new ConcurrentSkipListMap<>();
+    // DB 에 아직 저장되지 않은 캐릭터 ID
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Object flushLock = new Object();
+    private volatile boolean loaded;
+
+    /** 캐릭터 한 명의 레이팅 (변경은 저장소 락 안에서만) */
+    static final class Rated {
+        final int characterId;
+        final String userId;
+        volatile int rating;
+        volatile int games;
+
+        Rated(int characterId, String userId, int rating, int games) {
+            this.characterId = characterId;
+            this.userId = userId;
+            this.rating = rating;
+            this.games = games;
+        }
+
+        PvpRatingVO toVO() {
+            return new PvpRatingVO(characterId, userId, rating, games);
+        }
+    }
+
+    /** 캐릭터 레이팅 조회 (저장소에 없으면 null) */
+    public PvpRatingVO get(Integer characterId) {
+        ensureLoaded();
+        Rated r = characterId == null ? null : byCharacter.get(characterId);
+        return r == null ? null : r.toVO();
+    }
+
+    /** 유저의 캐릭터 중 레이팅이 가장 높은 캐릭터 (없으면 null) */
+    public PvpRatingVO bestOf(String userId) {
+        ensureLoaded();
+        Set<Integer> ids = byUser.get(userId);
+        if (ids == null) return null;
+
+        Rated best = null;
+        for (Integer id : ids) {
+            Rated r = byCharacter.get(id);
+            if (r != null && (best == null || r.rating > best.rating)) best = r;
+        }
+        return best == null ? null : best.toVO();
+    }
+
+    /** 저장소에 없는 캐릭터(적재 이후 생성된 캐릭터 등)를 초기 레이팅으로 등록 */
+    public void track(Integer characterId, String userId) {
+        if (characterId == null || userId == null) return;
+        ensureLoaded();
+        if (byCharacter.containsKey(characterId)) return;
+        synchronized (this) {
+            obtain(characterId, userId);
+        }
+    }
+
+    /**
+     * rating 기준 ±window 안에서 가장 가까운 후보를 최대 sampleSize 명 모아 그중 하나를 무작위 선택
+     * - excludeUserId 의 캐릭터는 제외, 후보가 없으면 null
+     * - 시작 위치 탐색 O(log n), 이후 위/아래로 한 칸씩 넓혀 가며 가까운 순으로 수집
+     */
+    public PvpRatingVO findNear(int rating, int window, String excludeUserId, int sampleSize) {
+        ensureLoaded();
+        long center = key(rating, 0);
+        Iterator<Map.Entry<Long, Rated>> up = ladder.tailMap(center, true).entrySet().iterator();
+        Iterator<Map.Entry<Long, Rated>> down = ladder.headMap(center, false).descendingMap().entrySet().iterator();
+
+        Map.Entry<Long, Rated> nextUp = advance(up, excludeUserId);
+        Map.Entry<Long, Rated> nextDown = advance(down, excludeUserId);
+        List<Rated> candidates = new ArrayList<>(sampleSize);
+
+        while (candidates.size() < sampleSize) {
+            long gapUp = nextUp == null ? Long.MAX_VALUE : ratingOf(nextUp.getKey()) - rating;
+            long gapDown = nextDown == null ? Long.MAX_VALUE : rating - ratingOf(nextDown.getKey());
+            if (Math.min(gapUp, gapDown) > window) break;
+
+            if (gapUp <= gapDown) {
+                candidates.add(nextUp.getValue());
+                nextUp = advance(up, excludeUserId);
+            } else {
+                candidates.add(nextDown.getValue());
+                nextDown = advance(down, excludeUserId);
+            }
+        }
+        if (candidates.isEmpty()) return null;
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).toVO();
+    }
+
+    /**
+     * 전투 결과를 두 캐릭터 레이팅에 반영 (Elo, 제로섬)
+     * - 공격 측 승리 확률 = 1 / (1 + 10^((상대 - 나) / 400)), 변동폭 = K * (결과 - 기대치)
+     */
+    public synchronized void recordResult(Integer playerCharacterId, String playerUserId,
+                                          Integer enemyCharacterId, String enemyUserId, boolean playerWin) {
+        if (playerCharacterId == null || enemyCharacterId == null) return;
+        ensureLoaded();
+
+        Rated player = obtain(playerCharacterId, playerUserId);
+        Rated enemy = obtain(enemyCharacterId, enemyUserId);
+        if (player == null || enemy == null) return;
+
+        double expected = 1.0 / (1.0 + Math.pow(10, (enemy.rating - player.rating) / 400.0));
+        int delta = (int) Math.round(kFactor * ((playerWin ? 1.0 : 0.0) - expected));
+
+        update(player, player.rating + delta);
+        update(enemy, enemy.rating - delta);
+        dirty.add(player.characterId);
+        dirty.add(enemy.characterId);
+    }
+
+    /** DB 에서 매칭 대상 캐릭터를 다시 읽어 반영 (메모리 레이팅이 더 최신이므로 기존 캐릭터는 유지) */
+    public void refresh() {
+        List<PvpRatingVO> rows = pvpRatingDAO.selectRatingPool(initialRating);
+
+        synchronized (this) {
+            Set<Integer> seen = new HashSet<>(rows.size() * 2);
+            int added = 0;
+            for (PvpRatingVO row : rows) {
+                seen.add(row.getCharacterId());
+                if (byCharacter.containsKey(row.getCharacterId())) continue;
+                add(new Rated(row.getCharacterId(), row.getUserId(), Math.max(0, row.getRating()), row.getGames()));
+                added++;
+            }
+
+            int removed = 0;
+            for (Rated r : new ArrayList<>(byCharacter.values())) {
+                // 저장 대기 중인 캐릭터는 조회 이후 새로 생겼을 수 있으므로 다음 갱신까지 유지
+                if (seen.contains(r.characterId) || dirty.contains(r.characterId)) continue;
+                removeRated(r);
+                removed++;
+            }
+            loaded = true;
+
+            log.info("[PVP 레이팅] 갱신 완료: 전체 {}명, 추가 {}명, 제거 {}명", byCharacter.size(), added, removed);
+        }
+    }
+
+    /** 주기적 갱신 (실패 시 기존 데이터 유지) */
+    @Scheduled(fixedDelayString = "${pvp.rating.refresh-interval-ms:300000}",
+            initialDelayString = "${pvp.rating.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("[PVP 레이팅] 주기 갱신 실패, 기존 데이터 유지: {}", e.getMessage());
+        }
+    }
+
+    /** 변경된 레이팅 일괄 저장 (실패 시 다음 주기에 다시 시도) */
+    @Scheduled(fixedDelayString = "${pvp.rating.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        synchronized (flushLock) {
+            if (dirty.isEmpty()) return;
+
+            List<Integer> ids = new ArrayList<>(dirty.size());
+            for (Iterator<Integer> it = dirty.iterator(); it.hasNext(); ) {
+                ids.add(it.next());
+                it.remove();
+            }
+
+            List<PvpRatingVO> rows = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                Rated r = byCharacter.get(id);
+                if (r != null) rows.add(r.toVO());
+            }
+
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                List<PvpRatingVO> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+                try {
+                    pvpRatingDAO.upsertRatings(chunk);
+                } catch (Exception e) {
+                    for (PvpRatingVO row : rows.subList(from, rows.size())) dirty.add(row.getCharacterId());
+                    log.warn("[PVP 레이팅] 일괄 저장 실패, 다음 주기에 재시도: {}건, 이유={}", rows.size() - from, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return byCharacter.size();
+    }
+
+    // ===== 내부 =====
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) refresh();
+        }
+    }
+
+    // 아래 메서드는 저장소 락 안에서만 호출
+    private Rated obtain(Integer characterId, String userId) {
+        Rated r = byCharacter.get(characterId);
+        if (r == null && userId != null) {
+            r = new Rated(characterId, userId, initialRating, 0);
+            add(r);
+        }
+        return r;
+    }
+
+    private void add(Rated r) {
+        byCharacter.put(r.characterId, r);
+        byUser.computeIfAbsent(r.userId, k -> ConcurrentHashMap.newKeySet()).add(r.characterId);
+        ladder.put(key(r.rating, r.characterId), r);
+    }
+
+    private void removeRated(Rated r) {
+        byCharacter.remove(r.characterId);
+        ladder.remove(key(r.rating, r.characterId));
+        Set<Integer> ids = byUser.get(r.userId);
+        if (ids != null) {
+            ids.remove(r.characterId);
+            if (ids.isEmpty()) byUser.remove(r.userId);
+        }
+    }
+
+    private void update(Rated r, int newRating) {
+        newRating = Math.max(0, newRating);
+        ladder.remove(key(r.rating, r.characterId));
+        r.rating = newRating;
+        r.games++;
+        ladder.put(key(r.rating, r.characterId), r);
+    }
+
+    private static Map.Entry<Long, Rated> advance(Iterator<Map.Entry<Long, Rated>> it, String excludeUserId) {
+        while (it.hasNext()) {
+            Map.Entry<Long, Rated> e = it.next();
+            if (!e.getValue().userId.equals(excludeUserId)) return e;
+        }
+        return null;
+    }
+
+    private static long key(int rating, int characterId) {
+        return ((long) rating << 32) | (characterId & 0xFFFFFFFFL);
+    }
+
+    private static int ratingOf(long key) {
+        return (int) (key >>> 32);
+    }
+}
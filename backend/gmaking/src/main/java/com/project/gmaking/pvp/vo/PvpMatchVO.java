@@ -0,0 +1,17 @@
+package com.project.gmaking.pvp.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PvpMatchVO {
+    private String opponentId;
+    private Integer opponentCharacterId;    // 레이팅이 가장 가까운 후보 중 선택된 상대 캐릭터
+    private Integer myCharacterId;          // 매칭 기준이 된 내 캐릭터
+    private Integer myRating;
+    private Integer opponentRating;
+    private Integer searchWindow;           // 매칭 당시 레이팅 탐색 범위 (±)
+}
@@ -0,0 +1,15 @@
+package com.project.gmaking.pvp.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PvpRatingVO {
+    private Integer characterId;
+    private String userId;
+    private Integer rating;     // Elo 레이팅
+    private Integer games;      // 레이팅에 반영된 전투 수
+}
@@ -0,0 +1,221 @@
+package com.project.gmaking.pvp.websocket;
+
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pvp.service.PvpCommand;
+import com.project.gmaking.pvp.service.PvpCommandRules;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 실시간 PVP 방 하나 (두 유저가 같은 턴에 커맨드를 동시에 제출)
+ * - 방 상태는 불변 State 하나를 AtomicReference 로 교체하는 방식 (락 없음)
+ * - 커맨드 제출/마감 시간 초과/기권 모두 CAS 로 상태를 바꾸고, 턴을 확정한 쪽만 Resolution 을 받아 후속 처리
+ * - 마감 타이머가 늦게 울리거나 이미 지난 턴에 대한 제출은 turn 번호가 달라 자연히 무시됨
+ */
+public final class PvpLiveRoom {
+
+    public enum Side { A, B }
+
+    public enum Phase { AWAITING, FINISHED }
+
+    /** 방 참가자 (session 은 동시 전송 가능한 데코레이터) */
+    public record Participant(WebSocketSession session, String userId, CharacterVO character) {
+        int attack() {
+            return character.getCharacterStat().getCharacterAttack();
+        }
+
+        int defense() {
+            return character.getCharacterStat().getCharacterDefense();
+        }
+    }
+
+    /** 방 상태 스냅샷 (불변) */
+    public record State(Phase phase, int turn, int hpA, int hpB,
+                        PvpCommand commandA, PvpCommand commandB, int missedA, int missedB, Side winner) {
+
+        PvpCommand command(Side side) {
+            return side == Side.A ? commandA : commandB;
+        }
+
+        State withCommand(Side side, PvpCommand command) {
+            return side == Side.A
+                    ? new State(phase, turn, hpA, hpB, command, commandB, missedA, missedB, winner)
+                    : new State(phase, turn, hpA, hpB, commandA, command, missedA, missedB, winner);
+        }
+
+        boolean bothSubmitted() {
+            return commandA != null && commandB != null;
+        }
+    }
+
+    /** 확정된 턴 결과 (commandA/B 가 null 이면 기권으로 끝난 경우) */
+    public record Resolution(int turn, PvpCommand commandA, PvpCommand commandB, boolean autoA, boolean autoB,
+                             int damageToA, int damageToB, State next) {
+
+        boolean forfeit() {
+            return commandA == null;
+        }
+    }
+
+    private final String roomId;
+    private final Integer battleId;
+    private final Participant a;
+    private final Participant b;
+    private final PvpCommandRules rules;
+    private final AtomicReference<State> state;
+    // 현재 턴 마감 타이머 (턴이 먼저 확정되면 취소, 늦게 울려도 turn 검사로 무시)
+    private volatile CompletableFuture<Void> deadlineTimer;
+    private volatile long deadlineAtMs;
+
+    public PvpLiveRoom(String roomId, Integer battleId, Participant a, Participant b, PvpCommandRules rules) {
+        this.roomId = roomId;
+        this.battleId = battleId;
+        this.a = a;
+        this.b = b;
+        this.rules = rules;
+        this.state = new AtomicReference<>(new State(Phase.AWAITING, 1,
+                a.character().getCharacterStat().getCharacterHp(),
+                b.character().getCharacterStat().getCharacterHp(),
+                null, null, 0, 0, null));
+    }
+
+    public String roomId() {
+        return roomId;
+    }
+
+    public Integer battleId() {
+        return battleId;
+    }
+
+    public Participant participant(Side side) {
+        return side == Side.A ? a : b;
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    public Side sideOf(String sessionId) {
+        if (a.session().getId().equals(sessionId)) return Side.A;
+        if (b.session().getId().equals(sessionId)) return Side.B;
+        return null;
+    }
+
+    public long deadlineAtMs() {
+        return deadlineAtMs;
+    }
+
+    void armDeadline(CompletableFuture<Void> timer, long deadlineAtMs) {
+        this.deadlineAtMs = deadlineAtMs;
+        this.deadlineTimer = timer;
+    }
+
+    void cancelDeadline() {
+        CompletableFuture<Void> timer = deadlineTimer;
+        if (timer != null) timer.cancel(false);
+    }
+
+    /**
+     * 커맨드 제출
+     * @return 이 제출로 두 커맨드가 모두 모여 턴이 확정되면 결과, 아니면 null (대기/중복/지난 턴)
+     */
+    public Resolution submit(Side side, int turn, PvpCommand command) {
+        while (true) {
+            State s = state.get();
+            if (s.phase() != Phase.AWAITING || s.turn() != turn || s.command(side) != null) return null;
+
+            State submitted = s.withCommand(side, command);
+            if (!submitted.bothSubmitted()) {
+                if (state.compareAndSet(s, submitted)) return null;
+                continue;
+            }
+
+            Resolution r = resolve(submitted, false, false, 0);
+            if (state.compareAndSet(s, r.next())) return r;
+        }
+    }
+
+    /**
+     * 턴 마감 시간 초과: 제출하지 않은 쪽은 무작위 커맨드로 대신 진행
+     * - 연속 maxMissed 턴을 제출하지 않은 쪽은 이번 턴 결과와 관계없이 패배
+     * @return 이 호출로 턴이 확정되면 결과, 이미 지난 턴이면 null
+     */
+    public Resolution expire(int turn, int maxMissed) {
+        while (true) {
+            State s = state.get();
+            if (s.phase() != Phase.AWAITING || s.turn() != turn) return null;
+
+            boolean autoA = s.commandA() == null;
+            boolean autoB = s.commandB() == null;
+            State filled = s;
+            if (autoA) filled = filled.withCommand(Side.A, randomCommand());
+            if (autoB) filled = filled.withCommand(Side.B, randomCommand());
+
+            Resolution r = resolve(filled, autoA, autoB, maxMissed);
+            if (state.compareAndSet(s, r.next())) return r;
+        }
+    }
+
+    /**
+     * 기권 (연결 종료 등)
+     * @return 이 호출로 전투가 끝나면 결과, 이미 끝난 방이면 null
+     */
+    public Resolution forfeit(Side loser) {
+        while (true) {
+            State s = state.get();
+            if (s.phase() != Phase.AWAITING) return null;
+
+            Side winner = loser == Side.A ? Side.B : Side.A;
+            State finished = new State(Phase.FINISHED, s.turn(), s.hpA(), s.hpB(),
+                    null, null, s.missedA(), s.missedB(), winner);
+            if (state.compareAndSet(s, finished)) {
+                return new Resolution(s.turn(), null, null, false, false, 0, 0, finished);
+            }
+        }
+    }
+
+    // 두 커맨드가 채워진 상태 -> 다음 턴(또는 종료) 상태 계산 (순수 함수)
+    private Resolution resolve(State s, boolean autoA, boolean autoB, int maxMissed) {
+        int damageToA = rules.damage(s.commandB(), s.commandA(), b.attack(), b.defense());
+        int damageToB = rules.damage(s.commandA(), s.commandB(), a.attack(), a.defense());
+
+        int hpA = Math.max(0, s.hpA() - damageToA);
+        int hpB = Math.max(0, s.hpB() - damageToB);
+        int missedA = autoA ? s.missedA() + 1 : 0;
+        int missedB = autoB ? s.missedB() + 1 : 0;
+
+        Side winner = null;
+        if (maxMissed > 0 && (missedA >= maxMissed || missedB >= maxMissed)) {
+            // 둘 다 자리를 비웠으면 HP 가 많은 쪽 승리 (같으면 A)
+            if (missedA >= maxMissed && missedB >= maxMissed) winner = hpA >= hpB ? Side.A : Side.B;
+            else winner = missedA >= maxMissed ? Side.B : Side.A;
+        } else if (hpA <= 0 && hpB <= 0) {
+            winner = doubleKoWinner(s, damageToA, damageToB);
+        } else if (hpA <= 0 || hpB <= 0) {
+            winner = hpB <= 0 ? Side.A : Side.B;
+        }
+
+        State next = winner != null
+                ? new State(Phase.FINISHED, s.turn(), hpA, hpB, null, null, missedA, missedB, winner)
+                : new State(Phase.AWAITING, s.turn() + 1, hpA, hpB, null, null, missedA, missedB, null);
+        return new Resolution(s.turn(), s.commandA(), s.commandB(), autoA, autoB, damageToA, damageToB, next);
+    }
+
+    /**
+     * 같은 턴에 둘 다 쓰러진 경우의 승자 (자리 순서 A/B 로 정하지 않음)
+     * 1) 이번 턴에 더 큰 피해를 준 쪽 2) 턴 시작 시 HP 가 많았던 쪽 3) 그래도 같으면 무작위
+     * - CAS 재시도로 다시 계산되어도 최종 상태는 교체에 성공한 한 번의 결과만 쓰임
+     */
+    private static Side doubleKoWinner(State s, int damageToA, int damageToB) {
+        if (damageToB != damageToA) return damageToB > damageToA ? Side.A : Side.B;
+        if (s.hpA() != s.hpB()) return s.hpA() > s.hpB() ? Side.A : Side.B;
+        return ThreadLocalRandom.current().nextBoolean() ? Side.A : Side.B;
+    }
+
+    private static PvpCommand randomCommand() {
+        return PvpCommand.random(ThreadLocalRandom.current());
+    }
+}
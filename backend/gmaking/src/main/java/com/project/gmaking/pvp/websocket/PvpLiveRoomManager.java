@@ -0,0 +1,383 @@
+package com.project.gmaking.pvp.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.gmaking.character.dao.CharacterDAO;
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.common.event.BattleEventBus;
+import com.project.gmaking.common.event.BattleFinishedEvent;
+import com.project.gmaking.common.websocket.PacedMessageSender;
+import com.project.gmaking.pve.service.TurnLogWriter;
+import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pvp.dao.PvpBattleDAO;
+import com.project.gmaking.pvp.service.PvpCommand;
+import com.project.gmaking.pvp.service.PvpCommandRules;
+import com.project.gmaking.pvp.service.PvpRatingStore;
+import com.project.gmaking.pvp.websocket.PvpLiveRoom.Participant;
+import com.project.gmaking.pvp.websocket.PvpLiveRoom.Resolution;
+import com.project.gmaking.pvp.websocket.PvpLiveRoom.Side;
+import com.project.gmaking.pvp.websocket.PvpLiveRoom.State;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 PVP 방 관리 (/pvp-live)
+ * - 대기열: 먼저 기다리던 다른 유저와 바로 방 생성 (대기열 조작만 짧게 동기화)
+ * - 방 진행: PvpLiveRoom 의 CAS 상태 전이로 처리, 방마다 스레드를 두지 않음
+ * - 턴 마감: PacedMessageSender 타이머로 걸어 두고, 마감 전에 턴이 확정되면 취소
+ * - 저장: 기존 PvpBattleDAO(TB_BATTLE_LOG) + TurnLogWriter(TB_TURN_LOG, write-behind) 그대로 사용, 결과는 A 유저 기준 기록
+ * - 세션 전송은 ConcurrentWebSocketSessionDecorator 로 감싸 타이머/요청 스레드가 동시에 보내도 안전
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PvpLiveRoomManager {
+
+    private final CharacterDAO characterDAO;
+    private final PvpBattleDAO pvpBattleDAO;
+    private final TurnLogWriter turnLogWriter;
+    private final PvpRatingStore ratingStore;
+    private final BattleEventBus battleEventBus;
+    private final PacedMessageSender pacedMessageSender;
+    private final MeterRegistry meterRegistry;
+    private final PvpCommandRules commandRules;
+    private final ObjectMapper mapper; // 캐릭터 정보(LocalDateTime 포함) 직렬화를 위해 스프링 설정 ObjectMapper 사용
+
+    // 한 턴 커맨드 제출 제한 시간
+    @Value("${pvp.live.turn-deadline-ms:10000}")
+    private long turnDeadlineMs;
+
+    // 연속으로 이 턴 수만큼 제출하지 않으면 패배
+    @Value("${pvp.live.max-missed-turns:2}")
+    private int maxMissedTurns;
+
+    // 동시에 진행할 수 있는 최대 방 수
+    @Value("${pvp.live.max-rooms:5000}")
+    private int maxRooms;
+
+    // 세션 전송 버퍼 (느린 클라이언트가 이 시간/크기를 넘기면 세션 종료)
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int SEND_BUFFER_BYTES = 64 * 1024;
+
+    private final Deque<Participant> waiting = new ArrayDeque<>();
+    private final Map<String, PvpLiveRoom> rooms = new ConcurrentHashMap<>();
+    private final Map<String, PvpLiveRoom> roomBySession = new ConcurrentHashMap<>();
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("pvp.live.rooms", rooms, Map::size)
+                .description("진행 중인 실시간 PVP 방 수")
+                .register(meterRegistry);
+        Gauge.builder("pvp.live.waiting", this, m -> m.waitingCount())
+                .description("실시간 PVP 대기 인원")
+                .register(meterRegistry);
+    }
+
+    /** 연결 시 동시 전송 가능한 세션으로 감싸 보관 */
+    public void connect(WebSocketSession raw) {
+        sessions.put(raw.getId(), new ConcurrentWebSocketSessionDecorator(raw, SEND_TIME_LIMIT_MS, SEND_BUFFER_BYTES));
+    }
+
+    /** 대기열 참가 (기다리던 상대가 있으면 바로 방 생성) */
+    public void enqueue(WebSocketSession raw, String userId, Integer characterId) {
+        WebSocketSession session = sessions.get(raw.getId());
+        if (session == null) return;
+        if (roomBySession.containsKey(session.getId())) {
+            sendError(session, "이미 진행 중인 전투가 있습니다.");
+            return;
+        }
+
+        CharacterVO character = characterDAO.selectCharacterById(characterId);
+        if (character == null || !Objects.equals(character.getUserId(), userId)) {
+            sendError(session, "본인 캐릭터로만 참가할 수 있습니다.");
+            return;
+        }
+
+        Participant me = new Participant(session, userId, character);
+        Participant opponent;
+        synchronized (waiting) {
+            waiting.removeIf(p -> p.session().getId().equals(session.getId()) || !p.session().isOpen());
+            opponent = pollOpponent(userId);
+            if (opponent == null) {
+                waiting.addLast(me);
+            }
+        }
+
+        if (opponent == null) {
+            send(session, Map.of("type", "waiting"));
+            return;
+        }
+        if (rooms.size() >= maxRooms) {
+            // 먼저 기다리던 상대는 대기열 맨 앞으로 되돌려 다음 매칭에서 우선 (대기 상태 유지)
+            requeueFirst(opponent);
+            sendError(session, "실시간 전투 방이 가득 찼습니다. 잠시 후 다시 시도하세요.");
+            return;
+        }
+        try {
+            openRoom(opponent, me);
+        } catch (Exception e) {
+            log.warn("[실시간 PVP] 방 생성 실패: userId={}, 상대={}, 이유={}", userId, opponent.userId(), e.getMessage());
+            requeueFirst(opponent);
+            sendError(session, "전투 방을 만들지 못했습니다. 잠시 후 다시 시도하세요.");
+        }
+    }
+
+    /** 대기열에서 꺼냈지만 방을 만들지 못한 상대를 맨 앞으로 되돌림 (연결이 끊겼으면 버림) */
+    private void requeueFirst(Participant p) {
+        if (!p.session().isOpen() || !sessions.containsKey(p.session().getId())) return;
+        synchronized (waiting) {
+            waiting.addFirst(p);
+        }
+    }
+
+    /** 메시지 처리 실패 알림 (핸들러의 원본 세션 대신 동시 전송 가능한 세션으로 보냄) */
+    public void reportError(WebSocketSession raw, String msg) {
+        WebSocketSession session = sessions.get(raw.getId());
+        if (session != null) sendError(session, msg);
+    }
+
+    /** 커맨드 제출 */
+    public void command(WebSocketSession raw, int turn, PvpCommand command) {
+        PvpLiveRoom room = roomBySession.get(raw.getId());
+        if (room == null) {
+            WebSocketSession session = sessions.get(raw.getId());
+            if (session != null) sendError(session, "진행 중인 전투가 없습니다.");
+            return;
+        }
+        Side side = room.sideOf(raw.getId());
+        Resolution r = room.submit(side, turn, command);
+        if (r != null) {
+            room.cancelDeadline();
+            onResolved(room, r);
+        } else if (room.state().turn() == turn) {
+            // 상대 제출 대기 중임을 상대에게 알림 (커맨드 내용은 공개하지 않음)
+            Side other = side == Side.A ? Side.B : Side.A;
+            send(room.participant(other).session(), Map.of("type", "opponentReady", "turn", turn));
+        }
+    }
+
+    /** 연결 종료: 대기열에서 제거, 진행 중이면 기권 처리 */
+    public void disconnect(WebSocketSession raw) {
+        sessions.remove(raw.getId());
+        synchronized (waiting) {
+            waiting.removeIf(p -> p.session().getId().equals(raw.getId()));
+        }
+
+        PvpLiveRoom room = roomBySession.get(raw.getId());
+        if (room == null) return;
+        Resolution r = room.forfeit(room.sideOf(raw.getId()));
+        if (r != null) {
+            room.cancelDeadline();
+            onResolved(room, r);
+        }
+    }
+
+    public int waitingCount() {
+        synchronized (waiting) {
+            return waiting.size();
+        }
+    }
+
+    // ===== 방 진행 =====
+
+    // waiting 락 안에서 호출
+    private Participant pollOpponent(String userId) {
+        for (Iterator<Participant> it = waiting.iterator(); it.hasNext(); ) {
+            Participant p = it.next();
+            if (!p.userId().equals(userId)) {
+                it.remove();
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private void openRoom(Participant a, Participant b) {
+        // 기존 PVP 와 같은 형식으로 A 유저 기준 배틀 로그 생성
+        BattleLogVO battleLog = new BattleLogVO();
+        battleLog.setCharacterId(a.character().getCharacterId());
+        battleLog.setBattleType("PVP");
+        battleLog.setOpponentId(b.character().getCharacterId());
+        battleLog.setIsWin("N");
+        battleLog.setTurnCount(0L);
+        battleLog.setCreatedBy(a.userId());
+        pvpBattleDAO.insertBattleLog(battleLog);
+
+        PvpLiveRoom room = new PvpLiveRoom(UUID.randomUUID().toString(), battleLog.getBattleId(), a, b, commandRules);
+        rooms.put(room.roomId(), room);
+        roomBySession.put(a.session().getId(), room);
+        roomBySession.put(b.session().getId(), room);
+
+        ratingStore.track(a.character().getCharacterId(), a.userId());
+        ratingStore.track(b.character().getCharacterId(), b.userId());
+
+        armDeadline(room, 1);
+        for (Side side : Side.values()) {
+            send(room.participant(side).session(), matchedMessage(room, side));
+        }
+
+        // 둘 중 하나가 방 생성 중에 끊겼으면 바로 기권 처리
+        for (Side side : Side.values()) {
+            WebSocketSession s = room.participant(side).session();
+            if (!s.isOpen()) disconnect(s);
+        }
+    }
+
+    private void armDeadline(PvpLiveRoom room, int turn) {
+        CompletableFuture<Void> timer = pacedMessageSender.delay(turnDeadlineMs);
+        room.armDeadline(timer, System.currentTimeMillis() + turnDeadlineMs);
+        timer.thenRun(() -> {
+            Resolution r = room.expire(turn, maxMissedTurns);
+            if (r != null) onResolved(room, r);
+        }).exceptionally(e -> {
+            // 턴이 먼저 확정되어 타이머가 취소된 경우
+            return null;
+        });
+    }
+
+    /** 턴(또는 전투)을 확정한 스레드만 호출 */
+    private void onResolved(PvpLiveRoom room, Resolution r) {
+        try {
+            State next = r.next();
+            if (!r.forfeit()) {
+                turnLogWriter.append(room.battleId(), r.turn(), turnLog(room, r));
+            }
+            if (next.phase() == PvpLiveRoom.Phase.AWAITING) {
+                armDeadline(room, next.turn());
+            }
+
+            for (Side side : Side.values()) {
+                WebSocketSession s = room.participant(side).session();
+                if (!r.forfeit()) send(s, turnMessage(room, r, side));
+                if (next.phase() == PvpLiveRoom.Phase.FINISHED) send(s, endMessage(room, r, side));
+            }
+
+            if (next.phase() == PvpLiveRoom.Phase.FINISHED) finish(room, r);
+        } catch (Exception e) {
+            log.warn("[실시간 PVP] 턴 처리 실패: roomId={}, turn={}, 이유={}", room.roomId(), r.turn(), e.getMessage());
+        }
+    }
+
+    private void finish(PvpLiveRoom room, Resolution r) {
+        rooms.remove(room.roomId());
+        for (Side side : Side.values()) {
+            roomBySession.remove(room.participant(side).session().getId(), room);
+        }
+
+        // DB 저장은 타이머/요청 스레드를 붙잡지 않도록 비동기로
+        CompletableFuture.runAsync(() -> persistResult(room, r))
+                .exceptionally(e -> {
+                    log.error("[실시간 PVP] 결과 저장 실패: battleId={}", room.battleId(), e);
+                    return null;
+                });
+    }
+
+    private void persistResult(PvpLiveRoom room, Resolution r) {
+        Participant a = room.participant(Side.A);
+        Participant b = room.participant(Side.B);
+        boolean aWin = r.next().winner() == Side.A;
+
+        turnLogWriter.flush();
+
+        BattleLogVO battleLog = new BattleLogVO();
+        battleLog.setBattleId(room.battleId());
+        battleLog.setIsWin(aWin ? "Y" : "N");
+        battleLog.setTurnCount((long) (r.forfeit() ? r.turn() - 1 : r.turn()));
+        pvpBattleDAO.updateBattleLogResult(battleLog);
+
+        ratingStore.recordResult(
+                a.character().getCharacterId(), a.userId(),
+                b.character().getCharacterId(), b.userId(),
+                aWin);
+
+        // 두 유저 모두 직접 참여했으므로 유저마다 종료 이벤트 발행 (퀘스트/통계)
+        long turnCount = battleLog.getTurnCount();
+        battleEventBus.publish(BattleFinishedEvent.pvp(room.battleId(), a.character(), b.character(), aWin, turnCount, true));
+        battleEventBus.publish(BattleFinishedEvent.pvp(room.battleId(), b.character(), a.character(), !aWin, turnCount, true));
+    }
+
+    // ===== 메시지 =====
+
+    private String turnLog(PvpLiveRoom room, Resolution r) {
+        return String.format(
+                "[%s의 %s]가 [%s의 %s]에게 입힌 피해: %d. 받은 피해: %d",
+                room.participant(Side.A).character().getCharacterName(), r.commandA().label(),
+                room.participant(Side.B).character().getCharacterName(), r.commandB().label(),
+                r.damageToB(), r.damageToA()
+        );
+    }
+
+    private Map<String, Object> matchedMessage(PvpLiveRoom room, Side side) {
+        Participant me = room.participant(side);
+        Participant opponent = room.participant(side == Side.A ? Side.B : Side.A);
+        State s = room.state();
+
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("type", "matched");
+        msg.put("roomId", room.roomId());
+        msg.put("battleId", room.battleId());
+        msg.put("turn", s.turn());
+        msg.put("myCharacter", me.character());
+        msg.put("opponentCharacter", opponent.character());
+        msg.put("myHp", side == Side.A ? s.hpA() : s.hpB());
+        msg.put("opponentHp", side == Side.A ? s.hpB() : s.hpA());
+        msg.put("deadlineAt", room.deadlineAtMs());
+        return msg;
+    }
+
+    private Map<String, Object> turnMessage(PvpLiveRoom room, Resolution r, Side side) {
+        boolean isA = side == Side.A;
+        State next = r.next();
+
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("type", "turn");
+        msg.put("turn", r.turn());
+        msg.put("myCommand", (isA ? r.commandA() : r.commandB()).label());
+        msg.put("opponentCommand", (isA ? r.commandB() : r.commandA()).label());
+        msg.put("myAuto", isA ? r.autoA() : r.autoB());               // 시간 초과로 대신 고른 커맨드인지
+        msg.put("myDamage", isA ? r.damageToA() : r.damageToB());     // 내가 받은 피해
+        msg.put("opponentDamage", isA ? r.damageToB() : r.damageToA());
+        msg.put("myHp", isA ? next.hpA() : next.hpB());
+        msg.put("opponentHp", isA ? next.hpB() : next.hpA());
+        msg.put("log", turnLog(room, r));
+        if (next.phase() == PvpLiveRoom.Phase.AWAITING) {
+            msg.put("nextTurn", next.turn());
+            msg.put("deadlineAt", room.deadlineAtMs());
+        }
+        return msg;
+    }
+
+    private Map<String, Object> endMessage(PvpLiveRoom room, Resolution r, Side side) {
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("type", "end");
+        msg.put("battleId", room.battleId());
+        msg.put("win", r.next().winner() == side);
+        msg.put("forfeit", r.forfeit());
+        return msg;
+    }
+
+    private void sendError(WebSocketSession session, String msg) {
+        send(session, Map.of("type", "error", "msg", msg));
+    }
+
+    private void send(WebSocketSession session, Map<String, Object> payload) {
+        if (session == null || !session.isOpen()) return;
+        try {
+            session.sendMessage(new TextMessage(mapper.writeValueAsString(payload)));
+        } catch (Exception e) {
+            log.debug("[실시간 PVP] 전송 실패: session={}, 이유={}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.gmaking.pvp.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.gmaking.pvp.service.PvpCommand;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * 실시간 PVP WebSocket (/pvp-live)
+ * 클라이언트 -> 서버
+ * - {"type":"queue","characterId":1}            : 대기열 참가
+ * - {"type":"command","turn":1,"command":"공격"} : 해당 턴 커맨드 제출
+ * 서버 -> 클라이언트
+ * - waiting / matched / opponentReady / turn / end / error
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PvpLiveWebSocketHandler extends TextWebSocketHandler {
+
+    private final PvpLiveRoomManager roomManager;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        log.info("[실시간 PVP] 연결: session={}, userId={}", session.getId(), session.getAttributes().get("userId"));
+        roomManager.connect(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        String userId = (String) session.getAttributes().get("userId");
+        try {
+            JsonNode data = mapper.readTree(message.getPayload());
+            String type = data.path("type").asText("");
+
+            switch (type) {
+                case "queue" -> roomManager.enqueue(session, userId, data.path("characterId").asInt());
+                case "command" -> {
+                    String label = data.path("command").asText("");
+                    PvpCommand command = PvpCommand.fromLabel(label);
+                    if (command == null) {
+                        throw new IllegalArgumentException("알 수 없는 커맨드: " + label);
+                    }
+                    roomManager.command(session, data.path("turn").asInt(), command);
+                }
+                default -> throw new IllegalArgumentException("알 수 없는 메시지 타입: " + type);
+            }
+        } catch (Exception e) {
+            log.warn("[실시간 PVP] 메시지 처리 실패: session={}, 이유={}", session.getId(), e.getMessage());
+            roomManager.reportError(session, e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.info("[실시간 PVP] 연결 종료: session={}", session.getId());
+        roomManager.disconnect(session);
+    }
+}
@@ -34,6 +34,11 @@ public interface QuestDAO {
     int incrementProgressByType(@Param("userId") String userId,
                                 @Param("questType") String questType);
 
+    /** 6-1. 퀘스트 타입 기반 진행도 +amount (여러 번의 진행을 한 번에 반영, 목표치에서 멈춤) */
+    int incrementProgressByTypeBy(@Param("userId") String userId,
+                                  @Param("questType") String questType,
+                                  @Param("amount") int amount);
+
     /** 7. 유저 퀘스트 상태 변경 (예: COMPLETED → REWARDED) */
     void updateStatus(@Param("userId") String userId,
                       @Param("questId") int questId,
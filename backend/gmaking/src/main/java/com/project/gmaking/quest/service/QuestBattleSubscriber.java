@@ -0,0 +1,36 @@
+package com.project.gmaking.quest.service;
+
+import com.project.gmaking.common.event.BattleFinishedEvent;
+import com.project.gmaking.common.event.BattleFinishedSubscriber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 전투 종료 -> 일일 퀘스트 진행
+ * - PVE: 승리 시 / PVP: 승패와 관계없이 참여 시
+ * - questProgress 가 false 인 이벤트(REST PVE)는 반영하지 않음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestBattleSubscriber implements BattleFinishedSubscriber {
+
+    private final QuestService questService;
+
+    @Override
+    public String name() {
+        return "quest";
+    }
+
+    @Override
+    public void onBattleFinished(BattleFinishedEvent event) {
+        if (!event.questProgress() || (event.isPve() && !event.win())) return;
+
+        if (event.userId() == null) {
+            log.warn("[{} 퀘스트 갱신 실패] userId를 찾을 수 없습니다. battleId={}", event.battleType(), event.battleId());
+            return;
+        }
+        questService.updateQuestProgress(event.userId(), event.battleType());
+    }
+}
@@ -8,6 +8,7 @@ public interface QuestService {
 
     void resetDailyQuests(); // 매일 자정 등 스케줄러로 초기화
     void updateQuestProgress(String userId, String questType); // 퀘스트 진행 + 보상
+    void updateQuestProgress(String userId, String questType, int amount); // 여러 건을 한 번에 진행
     void initializeDailyQuests(String userId); // 로그인 시 초기 생성
 
     QuestRewardResponseVO rewardQuest(String userId, int questId); // 수동 보상 수령
@@ -80,6 +80,22 @@ public class QuestServiceImpl implements QuestService {
         }
     }
 
+    /**
+     * 퀘스트 진행도 amount 만큼 한 번에 업데이트 (자동 전투 등)
+     * - 목표 도달 시 SQL 에서 바로 COMPLETED 로 변경
+     */
+    @Override
+    @Transactional
+    public void updateQuestProgress(String userId, String questType, int amount) {
+        if (amount <= 0) return;
+        if (amount == 1) {
+            updateQuestProgress(userId, questType);
+            return;
+        }
+        log.info("[퀘스트 진행 일괄 업데이트] userId={}, questType={}, amount={}", userId, questType, amount);
+        questDAO.incrementProgressByTypeBy(userId, questType, amount);
+    }
+
     /**
      * 유저의 일일 퀘스트 목록 조회
      */
@@ -351,9 +351,30 @@ CREATE TABLE `tb_turn_log` (
   `TURN_NUMBER` int NOT NULL COMMENT '턴 번호',
   `ACTION_DETAIL` text NOT NULL COMMENT '턴별 상세 로그',
   `CREATED_DATE` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자',
-  PRIMARY KEY (`TURN_LOG_ID`)
+  PRIMARY KEY (`TURN_LOG_ID`),
+  KEY `idx_turn_log_battle_turn` (`BATTLE_ID`,`TURN_NUMBER`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='전투 턴별 상세 로그';
 
+DROP TABLE IF EXISTS `tb_battle_replay`;
+
+CREATE TABLE `tb_battle_replay` (
+  `BATTLE_ID` int NOT NULL COMMENT '배틀 ID (TB_BATTLE_LOG 참조)',
+  `FORMAT_VERSION` tinyint NOT NULL COMMENT '기록 형식 버전',
+  `PAYLOAD` mediumblob NOT NULL COMMENT '압축된 턴 이벤트 (공격자/데미지/크리티컬/HP/해설)',
+  `CREATED_DATE` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자',
+  PRIMARY KEY (`BATTLE_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='전투 압축 기록';
+
+DROP TABLE IF EXISTS `tb_pvp_rating`;
+
+CREATE TABLE `tb_pvp_rating` (
+  `CHARACTER_ID` int NOT NULL COMMENT '캐릭터 ID (TB_CHARACTER 참조)',
+  `RATING` int NOT NULL DEFAULT '1000' COMMENT 'Elo 레이팅',
+  `GAMES` int NOT NULL DEFAULT '0' COMMENT '레이팅에 반영된 전투 수',
+  `UPDATED_DATE` datetime DEFAULT NULL COMMENT '수정 일자',
+  PRIMARY KEY (`CHARACTER_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='PVP 캐릭터 레이팅';
+
 DROP TABLE IF EXISTS `tb_user`;
 
 CREATE TABLE `tb_user` (
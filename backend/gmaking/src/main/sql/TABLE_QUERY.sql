@@ -89,9 +89,32 @@ CREATE TABLE TB_TURN_LOG (
     BATTLE_ID     INT NOT NULL COMMENT '배틀 ID (TB_BATTLE_LOG 참조)',
     TURN_NUMBER   INT NOT NULL COMMENT '턴 번호',
     ACTION_DETAIL TEXT NOT NULL COMMENT '턴별 상세 로그',
-    CREATED_DATE  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자'
+    CREATED_DATE  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자',
+    INDEX idx_turn_log_battle_turn (BATTLE_ID, TURN_NUMBER)
 ) COMMENT='전투 턴별 상세 로그';
 
+-- =========================================================================================
+-- TB_BATTLE_REPLAY  (전투 압축 기록 테이블: 턴 이벤트를 전투당 한 행으로 저장, 문장은 조회 시 생성)
+-- =========================================================================================
+
+CREATE TABLE TB_BATTLE_REPLAY (
+    BATTLE_ID      INT NOT NULL PRIMARY KEY COMMENT '배틀 ID (TB_BATTLE_LOG 참조)',
+    FORMAT_VERSION TINYINT NOT NULL COMMENT '기록 형식 버전',
+    PAYLOAD        MEDIUMBLOB NOT NULL COMMENT '압축된 턴 이벤트 (공격자/데미지/크리티컬/HP/해설)',
+    CREATED_DATE   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자'
+) COMMENT='전투 압축 기록';
+
+-- =========================================================================================
+-- TB_PVP_RATING  (PVP 캐릭터 레이팅 테이블: 메모리 레이팅을 주기적으로 일괄 저장)
+-- =========================================================================================
+
+CREATE TABLE TB_PVP_RATING (
+    CHARACTER_ID   INT NOT NULL PRIMARY KEY COMMENT '캐릭터 ID (TB_CHARACTER 참조)',
+    RATING         INT NOT NULL DEFAULT 1000 COMMENT 'Elo 레이팅',
+    GAMES          INT NOT NULL DEFAULT 0 COMMENT '레이팅에 반영된 전투 수',
+    UPDATED_DATE   DATETIME COMMENT '수정 일자'
+) COMMENT='PVP 캐릭터 레이팅';
+
 -- =========================================================================================
 -- TB_CHARACTER (캐릭터 테이블)
 -- =========================================================================================
@@ -2,7 +2,7 @@ import { useEffect, useRef } from "react";
 import { Client as StompClient } from "@stomp/stompjs";
 import SockJS from "sockjs-client";
 
-export default function useNotificationsSocket(onMessage) {
+export default function useNotificationsSocket(onMessage, destination = "/user/queue/notifications") {
   const clientRef = useRef(null);
 
   useEffect(() => {
@@ -31,7 +31,7 @@ export default function useNotificationsSocket(onMessage) {
       heartbeatOutgoing: 10000,
       debug: () => {},
       onConnect: () => {
-        client.subscribe("/user/queue/notifications", (frame) => {
+        client.subscribe(destination, (frame) => {
           try {
             const data = frame && frame.body ? JSON.parse(frame.body) : {};
             if (typeof onMessage === "function") onMessage(data);
@@ -55,5 +55,5 @@ export default function useNotificationsSocket(onMessage) {
       try { clientRef.current && clientRef.current.deactivate(); } catch {}
       clientRef.current = null;
     };
-  }, [onMessage]);
+  }, [onMessage, destination]);
 }
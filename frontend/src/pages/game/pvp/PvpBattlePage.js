@@ -1,7 +1,8 @@
-import React, { useEffect, useState, useRef } from "react";
+import React, { useEffect, useState, useRef, useCallback } from "react";
 import { useLocation, useNavigate } from "react-router-dom";
 import axios from "axios";
 import Header from "../../../components/Header";
+import useNotificationsSocket from "../../../hooks/useNotificationsSocket";
 
 const commands = ["공격", "방어", "회피", "필살기"];
 
@@ -37,6 +38,29 @@ function PvpBattlePage() {
     const [isProcessing, setIsProcessing] = useState(false);
     const [specialCooldown, setSpecialCooldown] = useState(0);
     const logContainerRef = useRef(null);
+    const battleIdRef = useRef(null);
+    const earlyNarrationsRef = useRef({}); // 턴 응답보다 먼저 도착한 해설 (logIndex -> log)
+
+    // 턴 결과는 바로 표시하고, GPT 해설은 도착하는 대로 해당 턴 로그를 교체
+    const onNarration = useCallback((data) => {
+        if (!data || data.logIndex == null || data.battleId !== battleIdRef.current) return;
+        setBattleLogs(prev => {
+            if (data.logIndex >= prev.length) {
+                earlyNarrationsRef.current[data.logIndex] = data.log;
+                return prev;
+            }
+            const next = [...prev];
+            next[data.logIndex] = data.log;
+            return next;
+        });
+    }, []);
+
+    const applyTurnLogs = (logs) => {
+        const early = earlyNarrationsRef.current;
+        earlyNarrationsRef.current = {};
+        setBattleLogs(logs.map((log, i) => early[i] ?? log));
+    };
+    useNotificationsSocket(onNarration, "/user/queue/pvp-narration");
 
     // 체력 퍼센트 계산
     const calcHpPercent = (current, max) => Math.max(0, Math.round((current / max) * 100));
@@ -85,6 +109,7 @@ function PvpBattlePage() {
                     enemyCharacterId: enemyCharacter.characterId
                 });
                 currentBattleId = startResponse.data.battleId;
+                battleIdRef.current = currentBattleId;
                 setBattleId(currentBattleId);
                 setBattleLogs(startResponse.data.log || []);
             }
@@ -99,7 +124,7 @@ function PvpBattlePage() {
             setEnemyCommand(actualEnemyCommand);
             setTurnSummary(`${myCharacter.characterName}의 ${myCommand} VS ${enemyCharacter.characterName}의 ${actualEnemyCommand}`);
 
-            setBattleLogs(turnResponse.data.logs || []);
+            applyTurnLogs(turnResponse.data.logs || []);
             setPlayerCurrentHp(turnResponse.data.playerHp);
             setEnemyCurrentHp(turnResponse.data.enemyHp);
 
@@ -74,8 +74,15 @@ function PvpMatchPage() {
     }, [rematch, opponent]);
 
     const findOpponent = () => {
-        axios.get(`/api/pvp/match?userId=${userId}`)
-            .then(res => setOpponentCharacters(res.data.characters))
+        // 내 캐릭터를 골랐으면 그 캐릭터 레이팅 기준으로 매칭 (다시 누를수록 탐색 범위가 넓어짐)
+        const charParam = selectedMyChar ? `&characterId=${selectedMyChar.characterId}` : "";
+        axios.get(`/api/pvp/match?userId=${userId}${charParam}`)
+            .then(res => {
+                const chars = res.data.characters || [];
+                setOpponentCharacters(chars);
+                const matched = chars.find(c => c.characterId === res.data.match?.opponentCharacterId);
+                setSelectedEnemyChar(matched || null);
+            })
             .catch(() => alert("매칭 실패. 다시 시도해주세요."));
     };
 
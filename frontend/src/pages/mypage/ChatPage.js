@@ -12,8 +12,61 @@ const API = {
   characters: "/api/chat/characters",
   enter: (cid) => `/api/chat/${cid}/enter`,
   chatSend: (cid) => `/api/chat/${cid}/send`,
+  chatSendStream: (cid) => `/api/chat/${cid}/send/stream`,
 };
 
+/**
+ * 스트리밍 전송 (SSE: delta 조각 -> done 전체 응답 / error)
+ * - POST 본문이 필요해 EventSource 대신 fetch 로 읽음
+ * - 조각이 올 때마다 onDelta(text), 끝나면 전체 응답 반환
+ */
+async function streamChat(cid, message, onDelta) {
+  const token = localStorage.getItem("gmaking_token");
+  const res = await fetch(
+    (axiosInstance.defaults.baseURL || "") + API.chatSendStream(cid),
+    {
+      method: "POST",
+      headers: {
+        "Content-Type": "application/json",
+        Accept: "text/event-stream",
+        ...(token
+          ? { Authorization: token.startsWith("Bearer ") ? token : `Bearer ${token}` }
+          : {}),
+      },
+      body: JSON.stringify({ message }),
+    }
+  );
+  if (!res.ok || !res.body) throw new Error(`stream failed: ${res.status}`);
+
+  const reader = res.body.getReader();
+  const decoder = new TextDecoder();
+  let buf = "";
+  while (true) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buf += decoder.decode(value, { stream: true });
+
+    // 이벤트는 빈 줄로 구분
+    let sep;
+    while ((sep = buf.indexOf("\n\n")) >= 0) {
+      const block = buf.slice(0, sep);
+      buf = buf.slice(sep + 2);
+      let event = "message";
+      let data = "";
+      for (const line of block.split("\n")) {
+        if (line.startsWith("event:")) event = line.slice(6).trim();
+        else if (line.startsWith("data:")) data += line.slice(5);
+      }
+      if (!data) continue;
+      const payload = JSON.parse(data);
+      if (event === "delta") onDelta(payload.text ?? "");
+      else if (event === "done") return payload.reply ?? "";
+      else if (event === "error") throw new Error(payload.error || "stream error");
+    }
+  }
+  throw new Error("stream closed before done");
+}
+
 // 이미지 경로 보정
 function toFullImageUrl(raw) {
   let url = raw || "/images/character/placeholder.png";
@@ -263,18 +316,26 @@ export default function ChatPage() {
 
     setBusy(true);
     try {
-      const { data } = await axiosInstance.post(API.chatSend(cidSnapshot), {
-        message: t,
+      // 조각이 도착하면 타이핑 말풍선을 답변 말풍선으로 바꿔 이어 붙임
+      const reply = await streamChat(cidSnapshot, t, (delta) => {
+        if (cidSnapshot !== selectedCharacter?.id) return;
+        setMessages((prev) =>
+          prev.map((m) =>
+            m.id === typingId
+              ? { ...m, role: "assistant", content: m.content + delta }
+              : m
+          )
+        );
       });
-      // 아직 같은 캐릭터면 타이핑 말풍선을 실제 답변으로 교체
+      // 아직 같은 캐릭터면 저장된 전체 응답으로 교체
       if (cidSnapshot === selectedCharacter?.id) {
         setMessages((prev) =>
           prev.map((m) =>
             m.id === typingId
               ? {
-                  id: data?.messageId || "a-" + Date.now(),
+                  id: "a-" + Date.now(),
                   role: "assistant",
-                  content: data?.reply ?? "응답이 비어있어요.",
+                  content: reply || "응답이 비어있어요.",
                 }
               : m
           )